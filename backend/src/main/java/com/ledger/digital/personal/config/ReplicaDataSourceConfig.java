@@ -0,0 +1,93 @@
+package com.ledger.digital.personal.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Only active when ledger.datasource.replicas.urls is set; otherwise Boot's single DataSource is used.
+// The primary keeps the spring.datasource.* settings (including spring.datasource.hikari.*);
+// replicas reuse its credentials unless ledger.datasource.replicas.username/password are given.
+@Configuration
+@ConditionalOnProperty(name = "ledger.datasource.replicas.urls")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRouter replicaRouter(MeterRegistry meterRegistry,
+                                       @Value("${spring.datasource.username:}") String username,
+                                       @Value("${spring.datasource.password:}") String password,
+                                       @Value("${ledger.datasource.replicas.urls}") String urls,
+                                       @Value("${ledger.datasource.replicas.username:}") String replicaUsername,
+                                       @Value("${ledger.datasource.replicas.password:}") String replicaPassword,
+                                       @Value("${ledger.datasource.replicas.pool-size:10}") int poolSize,
+                                       @Value("${ledger.datasource.replicas.read-your-writes-seconds:10}") long readYourWritesSeconds,
+                                       @Value("${ledger.datasource.replicas.max-lag-seconds:5}") long maxLagSeconds) {
+        List<String> replicaUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i));
+            replica.setUsername(replicaUsername.isEmpty() ? username : replicaUsername);
+            replica.setPassword(replicaUsername.isEmpty() ? password : replicaPassword);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            // Do not fail startup on a replica that is down; the health check keeps it out of rotation
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        return new ReplicaRouter(replicas, Duration.ofSeconds(readYourWritesSeconds),
+                Duration.ofSeconds(maxLagSeconds), meterRegistry);
+    }
+
+    // Not a default candidate: everything that injects a DataSource gets the routing proxy below
+    @Bean(defaultCandidate = false)
+    public HikariDataSource primaryDataSource(Environment environment,
+                                              @Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username:}") String username,
+                                              @Value("${spring.datasource.password:}") String password) {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(url);
+        primary.setUsername(username);
+        primary.setPassword(password);
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        return primary;
+    }
+
+    @Bean
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 ReplicaRouter replicaRouter) {
+        Map<Object, Object> targets = new HashMap<>(replicaRouter.dataSources());
+        targets.put(ReplicaRouter.PRIMARY, primary);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaRouter);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        // Known up front, so the proxy never opens a connection just to read these defaults
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+}
@@ -0,0 +1,181 @@
+package com.ledger.digital.personal.config;
+
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decides per connection whether work goes to the primary or to a replica.
+// A replica is used only for read-only transactions, only while its last health check passed
+// within the lag limit, and never for a user who committed a write less than read-your-writes ago.
+public class ReplicaRouter {
+
+    public static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    // Replay lag in seconds; 0 when fully caught up or when the server is not a standby
+    private static final String LAG_QUERY = """
+            select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end
+            """;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    // userId -> nanoTime their read-your-writes window ends. Local to this instance: a user whose next
+    // request lands on another instance is not pinned there and may read from a replica that has not
+    // replayed the write yet, so behind a load balancer this holds only with sticky sessions per user.
+    private final Map<Long, Long> recentWriters = new ConcurrentHashMap<>();
+    private final long readYourWritesNanos;
+    private final double maxLagSeconds;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRouter(Map<String, DataSource> replicas, Duration readYourWrites, Duration maxLag,
+                         MeterRegistry meterRegistry) {
+        this.readYourWritesNanos = readYourWrites.toNanos();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        replicas.forEach((key, dataSource) -> {
+            Replica replica = new Replica(key, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("ledger.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", key)
+                    .register(meterRegistry);
+        });
+        this.replicaReads = Counter.builder("ledger.datasource.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("ledger.datasource.reads").tag("target", "primary").register(meterRegistry);
+    }
+
+    // Called once per physical connection, after the transaction's read-only flag is known
+    public String route() {
+        Long userId = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) rememberWrite(userId);
+            return PRIMARY;
+        }
+
+        if (userId != null && wroteRecently(userId)) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replicaReads.increment();
+                return replica.key;
+            }
+        }
+        // Every replica is down or lagging
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        Map<String, DataSource> byKey = new LinkedHashMap<>();
+        replicas.forEach(r -> byKey.put(r.key, r.dataSource));
+        return byKey;
+    }
+
+    // Replica pools are not beans of their own, so they are closed with the router
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.datasource.replicas.check-millis:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(2);
+                try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                    rs.next();
+                    double lag = rs.getDouble(1);
+                    healthy = lag <= maxLagSeconds;
+                    if (!healthy && replica.healthy) {
+                        log.warn("Replica {} is {}s behind, routing its reads to the primary", replica.key, lag);
+                    }
+                }
+            } catch (Exception e) {
+                healthy = false;
+                if (replica.healthy) {
+                    log.warn("Replica {} failed its health check: {}", replica.key, e.getMessage());
+                }
+            }
+            if (healthy && !replica.healthy) {
+                log.info("Replica {} is healthy again", replica.key);
+            }
+            replica.healthy = healthy;
+        }
+
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> until - now <= 0);
+    }
+
+    // Marked when the write commits, so the window starts when the change is actually visible on the primary
+    private void rememberWrite(Long userId) {
+        Runnable mark = () -> recentWriters.put(userId, System.nanoTime() + readYourWritesNanos);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    mark.run();
+                }
+            });
+        } else {
+            mark.run();
+        }
+    }
+
+    private boolean wroteRecently(Long userId) {
+        Long until = recentWriters.get(userId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static final class Replica {
+        private final String key;
+        private final DataSource dataSource;
+        // Starts unhealthy until the first check has measured its lag
+        private volatile boolean healthy;
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
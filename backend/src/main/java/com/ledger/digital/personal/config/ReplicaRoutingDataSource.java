@@ -0,0 +1,20 @@
+package com.ledger.digital.personal.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// Lookup key comes from ReplicaRouter. Must sit behind a LazyConnectionDataSourceProxy:
+// the transaction manager opens the connection before the read-only flag is bound,
+// the proxy defers the real getConnection() to the first statement.
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaRouter router;
+
+    ReplicaRoutingDataSource(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.route();
+    }
+}
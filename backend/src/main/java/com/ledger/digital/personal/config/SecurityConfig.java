@@ -1,7 +1,12 @@
 package com.ledger.digital.personal.config;
 
-import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AccessTokenService;
+import com.ledger.digital.personal.security.ApiKeyCache;
 import com.ledger.digital.personal.security.ApiKeyFilter;
+import com.ledger.digital.personal.security.IdempotencyFilter;
+import com.ledger.digital.personal.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.DelegatingFilterProxyRegistrationBean;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,9 +15,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -27,8 +31,8 @@ public class SecurityConfig {
     // --- 1. YOUR EXISTING BEANS (Keep them exactly as they were) ---
 
     @Bean
-    public ApiKeyFilter apiKeyFilterBean(UserRepository userRepository) {
-        return new ApiKeyFilter(userRepository);
+    public ApiKeyFilter apiKeyFilterBean(ApiKeyCache apiKeyCache, AccessTokenService accessTokenService) {
+        return new ApiKeyFilter(apiKeyCache, accessTokenService);
     }
 
     @Bean
@@ -40,9 +44,27 @@ public class SecurityConfig {
         return reg;
     }
 
+    // Runs right after ApiKeyFilter so Idempotency-Key values are scoped to the authenticated user
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyService idempotencyService,
+            PlatformTransactionManager transactionManager,
+            @Value("${ledger.idempotency.max-body-bytes:1048576}") int maxBodyBytes) {
+        FilterRegistrationBean<IdempotencyFilter> reg = new FilterRegistrationBean<>();
+        reg.setFilter(new IdempotencyFilter(idempotencyService, transactionManager, maxBodyBytes));
+        reg.addUrlPatterns("/api/*");
+        reg.setOrder(2);
+        return reg;
+    }
+
+    // Without the Boot security starter the chain would be registered as a plain filter with the lowest
+    // precedence, i.e. after ApiKeyFilter, and its SecurityContextHolderFilter would replace the context
+    // ApiKeyFilter sets. Registered ahead of it at the order Boot normally uses.
+    @Bean
+    public DelegatingFilterProxyRegistrationBean securityFilterChainRegistration() {
+        DelegatingFilterProxyRegistrationBean reg = new DelegatingFilterProxyRegistrationBean("springSecurityFilterChain");
+        reg.setOrder(-100);
+        return reg;
     }
 
     // --- 2. THE SECURITY CHAIN (This allows React to talk to Java) ---
@@ -87,10 +109,14 @@ public class SecurityConfig {
                 "Content-Type",
                 "Cache-Control",
                 "X-API-KEY",
+                "Idempotency-Key",
                 "userEmail",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers"));
 
+        // Let browser clients see that a response was replayed
+        configuration.setExposedHeaders(List.of("Idempotent-Replayed"));
+
         // Allow credentials (cookies/auth headers)
         configuration.setAllowCredentials(true);
 
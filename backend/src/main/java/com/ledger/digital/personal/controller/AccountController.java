@@ -1,14 +1,22 @@
 package com.ledger.digital.personal.controller;
 
 import com.ledger.digital.personal.dto.AccountDto;
-import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.dto.BalanceHistoryDto;
+import com.ledger.digital.personal.dto.JournalEntryDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import com.ledger.digital.personal.service.AccountService;
-import com.ledger.digital.personal.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,51 +25,77 @@ import java.util.List;
 public class AccountController {
 
     private final AccountService accountService;
-    private final AuthService authService;
 
-    public AccountController(AccountService accountService, AuthService authService) {
+    public AccountController(AccountService accountService) {
         this.accountService = accountService;
-        this.authService = authService;
     }
 
     @PostMapping
     @Operation(summary = "Create a new account", description = "Create a new account for the logged-in user. Requires X-API-KEY header.")
     public ResponseEntity<AccountDto> createAccount(@RequestBody AccountDto dto,
-                                                    @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(accountService.createAccount(dto, user.getEmail()));
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(accountService.createAccount(dto, user));
     }
 
     @GetMapping
     @Operation(summary = "Get all accounts", description = "Get a list of all accounts belonging to the logged-in user. Requires X-API-KEY header.")
-    public ResponseEntity<List<AccountDto>> getAllAccounts(@RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(accountService.getAllAccounts(user.getEmail()));
+    public ResponseEntity<List<AccountDto>> getAllAccounts(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(accountService.getAllAccounts(user));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Page through accounts", description = "Cursor-paginated, filtered accounts list. Pass nextCursor from the previous response as cursor. Amount filters and sort apply to balance.")
+    public ResponseEntity<PageDto<AccountDto>> page(@AuthenticationPrincipal AuthenticatedUser user,
+                                                    @ParameterObject ListQueryDto query) {
+        return ResponseEntity.ok(accountService.page(query, user));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get account by ID", description = "Retrieve a specific account by its ID for the logged-in user. Requires X-API-KEY header.")
     public ResponseEntity<AccountDto> getAccount(@PathVariable("id") Long id,
-                                                 @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(accountService.getAccount(id, user.getEmail()));
+                                                 @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(accountService.getAccount(id, user));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update account", description = "Update an account's details. Requires X-API-KEY header for authentication.")
     public ResponseEntity<AccountDto> updateAccount(@PathVariable("id") Long id,
                                                     @RequestBody AccountDto dto,
-                                                    @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(accountService.updateAccount(id, dto, user.getEmail()));
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(accountService.updateAccount(id, dto, user));
+    }
+
+    @GetMapping("/{id}/journal")
+    @Operation(summary = "Get account balance history", description = "List every balance change of an account in a time window, oldest first. Requires X-API-KEY header.")
+    public ResponseEntity<List<JournalEntryDto>> getJournal(@PathVariable("id") Long id,
+                                                            @RequestParam(name = "from", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(name = "to", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(accountService.getJournal(id, start, end, user));
+    }
+
+    @GetMapping("/{id}/balance-history")
+    @Operation(summary = "Get daily balance series", description = "Closing balance, money in and money out for every day in [from, to], for charting. Defaults to the last 30 days. Requires X-API-KEY header.")
+    public ResponseEntity<BalanceHistoryDto> getBalanceHistory(@PathVariable("id") Long id,
+                                                               @RequestParam(name = "from", required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @RequestParam(name = "to", required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                               @AuthenticationPrincipal AuthenticatedUser user) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(accountService.getBalanceHistory(id, start, end, user));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete account", description = "Delete an account by ID. Requires X-API-KEY header for authentication.")
     public ResponseEntity<String> deleteAccount(@PathVariable("id") Long id,
-                                                @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        accountService.deleteAccount(id, user.getEmail());
+                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        accountService.deleteAccount(id, user);
         return ResponseEntity.ok("Account deleted successfully");
     }
 }
@@ -4,11 +4,12 @@ import com.ledger.digital.personal.dto.ChangePasswordDto;
 import com.ledger.digital.personal.dto.LoginDto;
 import com.ledger.digital.personal.dto.LoginResponseDto;
 import com.ledger.digital.personal.dto.RegisterDto;
-import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import com.ledger.digital.personal.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -39,12 +40,27 @@ public class AuthController {
     @PostMapping("/change-password")
     @Operation(summary = "Change password", description = "Change password for the logged-in user. Requires X-API-KEY header for authentication.")
     public ResponseEntity<String> changePassword(@RequestBody ChangePasswordDto dto,
-                                                 @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        authService.changePassword(user.getEmail(), dto);
+                                                 @AuthenticationPrincipal AuthenticatedUser user) {
+        authService.changePassword(user, dto);
         return ResponseEntity.ok("Password changed successfully");
     }
 
+    @PostMapping("/token")
+    @Operation(summary = "Refresh access token", description = "Issue a new short-lived access token. Requires the X-API-KEY header; a bearer token cannot refresh itself.")
+    public ResponseEntity<LoginResponseDto> refreshToken(@RequestHeader(value = "X-API-KEY", required = false) String apiKey,
+                                                         @AuthenticationPrincipal AuthenticatedUser user) {
+        requireApiKey(apiKey);
+        return ResponseEntity.ok(authService.refreshAccessToken(user));
+    }
+
+    @PostMapping("/rotate-key")
+    @Operation(summary = "Rotate API key", description = "Issue a new API key for the logged-in user. The old key stops working immediately. Requires the X-API-KEY header; a bearer token cannot mint a permanent key.")
+    public ResponseEntity<LoginResponseDto> rotateKey(@RequestHeader(value = "X-API-KEY", required = false) String apiKey,
+                                                      @AuthenticationPrincipal AuthenticatedUser user) {
+        requireApiKey(apiKey);
+        return ResponseEntity.ok(authService.rotateApiKey(user));
+    }
+
     @PostMapping("/forgot-password")
     @Operation(summary = "Request password reset", description = "Send a password reset link to the user's email.")
     public ResponseEntity<String> forgotPassword(@RequestBody Map<String, String> request) {
@@ -60,4 +76,11 @@ public class AuthController {
         authService.resetPassword(token, dto);
         return ResponseEntity.ok("Password has been reset successfully. You can now login.");
     }
+
+    // A blank X-API-KEY lets ApiKeyFilter fall back to the bearer token, so presence alone isn't enough
+    private static void requireApiKey(String apiKey) {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new RuntimeException("This endpoint requires the X-API-KEY header");
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.dto.BatchRequestDto;
+import com.ledger.digital.personal.dto.BatchResultDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.BatchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/batch")
+@Tag(name = "Batch", description = "Apply many ledger operations in a single request and transaction")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Apply a batch of operations",
+            description = "Credits, budget and debt changes applied in order in one transaction. "
+                    + "If any operation fails nothing is applied and the error names the operation.")
+    public ResponseEntity<BatchResultDto> execute(@AuthenticationPrincipal AuthenticatedUser user,
+                                                  @RequestBody BatchRequestDto request) {
+        return ResponseEntity.ok(batchService.execute(request, user));
+    }
+}
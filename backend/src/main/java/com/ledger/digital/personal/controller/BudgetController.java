@@ -1,11 +1,16 @@
 package com.ledger.digital.personal.controller;
 
 import com.ledger.digital.personal.dto.BudgetDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import com.ledger.digital.personal.service.BudgetService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,24 +27,31 @@ public class BudgetController {
     }
 
     @PostMapping
-    @Operation(summary = "Create a budget", description = "Create a new budget for a user identified by their email.")
+    @Operation(summary = "Create a budget", description = "Create a new budget for the authenticated user.")
     public ResponseEntity<BudgetDto> create(@Valid @RequestBody BudgetDto dto,
-                                            @RequestHeader("userEmail") String userEmail) {
-        return ResponseEntity.ok(budgetService.createBudget(dto, userEmail));
+                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(budgetService.createBudget(dto, user));
     }
 
     @GetMapping
-    @Operation(summary = "List all budgets", description = "Retrieve all budgets for a user.")
-    public ResponseEntity<List<BudgetDto>> list(@RequestHeader("userEmail") String userEmail) {
-        return ResponseEntity.ok(budgetService.getBudgets(userEmail));
+    @Operation(summary = "List all budgets", description = "Retrieve all budgets for the authenticated user.")
+    public ResponseEntity<List<BudgetDto>> list(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(budgetService.getBudgets(user));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Page through budgets", description = "Cursor-paginated, filtered budgets list. Pass nextCursor from the previous response as cursor.")
+    public ResponseEntity<PageDto<BudgetDto>> page(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @ParameterObject ListQueryDto query) {
+        return ResponseEntity.ok(budgetService.page(query, user));
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a budget", description = "Update an existing budget by ID for a user.")
+    @Operation(summary = "Update a budget", description = "Update an existing budget by ID for the authenticated user.")
     public ResponseEntity<BudgetDto> modify(@PathVariable("id") Long id,
                                             @Valid @RequestBody BudgetDto dto,
-                                            @RequestHeader("userEmail") String userEmail) {
-        return ResponseEntity.ok(budgetService.updateBudget(id, dto, userEmail));
+                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(budgetService.updateBudget(id, dto, user));
     }
 
     @PostMapping("/close/{id}")
@@ -47,8 +59,8 @@ public class BudgetController {
     public ResponseEntity<Void> close(@PathVariable("id") Long id,
                                       @RequestParam("addRemainingToAccount") boolean addRemainingToAccount,
                                       @RequestParam(required = false, name = "accountId") Long accountId,
-                                      @RequestHeader("userEmail") String userEmail) {
-        budgetService.closeBudget(id, userEmail, addRemainingToAccount, accountId);
+                                      @AuthenticationPrincipal AuthenticatedUser user) {
+        budgetService.closeBudget(id, user, addRemainingToAccount, accountId);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,55 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.dto.CounterpartyAliasDto;
+import com.ledger.digital.personal.dto.CounterpartyDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.CounterpartyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/counterparties")
+@Tag(name = "Counterparties", description = "People and organisations debts and credits are matched against")
+public class CounterpartyController {
+
+    private final CounterpartyService counterpartyService;
+
+    public CounterpartyController(CounterpartyService counterpartyService) {
+        this.counterpartyService = counterpartyService;
+    }
+
+    @GetMapping
+    @Operation(summary = "List counterparties", description = "Every counterparty of the authenticated user with its aliases. Counterparties are created automatically from debt persons and credit sources.")
+    public ResponseEntity<List<CounterpartyDto>> list(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(counterpartyService.list(user));
+    }
+
+    @PostMapping("/{id}/aliases")
+    @Operation(summary = "Add an alias", description = "Make another name resolve to this counterparty, e.g. a nickname. Fails if the name already belongs to another counterparty.")
+    public ResponseEntity<CounterpartyDto> addAlias(@PathVariable("id") Long id,
+                                                    @RequestBody CounterpartyAliasDto dto,
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(counterpartyService.addAlias(id, dto.getAlias(), user));
+    }
+
+    @DeleteMapping("/{id}/aliases")
+    @Operation(summary = "Remove an alias", description = "Stop a name resolving to this counterparty. The counterparty's own name cannot be removed.")
+    public ResponseEntity<CounterpartyDto> removeAlias(@PathVariable("id") Long id,
+                                                       @RequestParam(name = "alias") String alias,
+                                                       @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(counterpartyService.removeAlias(id, alias, user));
+    }
+
+    @PostMapping("/{id}/merge/{sourceId}")
+    @Operation(summary = "Merge counterparties", description = "Move the aliases, debts and credits of sourceId to id and delete sourceId.")
+    public ResponseEntity<CounterpartyDto> merge(@PathVariable("id") Long id,
+                                                 @PathVariable("sourceId") Long sourceId,
+                                                 @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(counterpartyService.merge(id, sourceId, user));
+    }
+}
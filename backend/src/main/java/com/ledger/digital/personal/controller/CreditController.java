@@ -1,15 +1,24 @@
 package com.ledger.digital.personal.controller;
 
+import com.ledger.digital.personal.dto.BulkImportResultDto;
 import com.ledger.digital.personal.dto.CreditDto;
-import com.ledger.digital.personal.model.User;
-import com.ledger.digital.personal.service.AuthService;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.BulkImportService;
 import com.ledger.digital.personal.service.CreditService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,43 +27,57 @@ import java.util.List;
 public class CreditController {
 
     private final CreditService creditService;
-    private final AuthService authService;
+    private final BulkImportService bulkImportService;
 
-    public CreditController(CreditService creditService, AuthService authService) {
+    public CreditController(CreditService creditService, BulkImportService bulkImportService) {
         this.creditService = creditService;
-        this.authService = authService;
+        this.bulkImportService = bulkImportService;
     }
 
     @PostMapping("/{accountId}")
     @Operation(summary = "Add a credit", description = "Add a credit entry to a specific account. Requires API key authentication.")
     public ResponseEntity<CreditDto> create(@PathVariable("accountId") Long accountId,
-                                            @RequestHeader("X-API-KEY") String apiKey,
+                                            @AuthenticationPrincipal AuthenticatedUser user,
                                             @Valid @RequestBody CreditDto dto) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(creditService.addCredit(accountId, dto, user.getEmail()));
+        return ResponseEntity.ok(creditService.addCredit(accountId, dto, user));
+    }
+
+    @PostMapping(value = "/{accountId}/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk import credits", description = "Stream a JSON array or CSV (header: source,amount,note) of credits into an account. Invalid rows are skipped and reported. If the import stops early (400, complete=false), rows up to committedThroughRow are saved.")
+    public ResponseEntity<BulkImportResultDto> bulkCreate(@PathVariable("accountId") Long accountId,
+                                                          @AuthenticationPrincipal AuthenticatedUser user,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) {
+        BulkImportResultDto result = bulkImportService.importCredits(accountId, body, contentType, user);
+        // A stopped import still reports what was saved
+        return ResponseEntity.status(result.isComplete() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(result);
     }
 
     @GetMapping
     @Operation(summary = "List all credits", description = "List all credits for the authenticated user.")
-    public ResponseEntity<List<CreditDto>> list(@RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(creditService.list(user.getEmail()));
+    public ResponseEntity<List<CreditDto>> list(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(creditService.list(user));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Page through credits", description = "Cursor-paginated, filtered credits list. Pass nextCursor from the previous response as cursor.")
+    public ResponseEntity<PageDto<CreditDto>> page(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @ParameterObject ListQueryDto query) {
+        return ResponseEntity.ok(creditService.page(query, user));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a credit by ID", description = "Retrieve a single credit entry by its ID for the authenticated user.")
     public ResponseEntity<CreditDto> get(@PathVariable("id") Long id,
-                                         @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        return ResponseEntity.ok(creditService.get(id, user.getEmail()));
+                                         @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(creditService.get(id, user));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a credit", description = "Delete a credit entry by ID. Requires API key authentication.")
     public ResponseEntity<Void> delete(@PathVariable("id") Long id,
-                                       @RequestHeader("X-API-KEY") String apiKey) {
-        User user = authService.getUserByApiKey(apiKey);
-        creditService.delete(id, user.getEmail());
+                                       @AuthenticationPrincipal AuthenticatedUser user) {
+        creditService.delete(id, user);
         return ResponseEntity.noContent().build();
     }
 }
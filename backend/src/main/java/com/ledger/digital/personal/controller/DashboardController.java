@@ -0,0 +1,30 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.dto.DashboardDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@Tag(name = "Dashboard", description = "Aggregated totals for the dashboard page")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Dashboard summary", description = "Total balance, budget remaining, invested value by type and lent/owed totals in one call.")
+    public ResponseEntity<DashboardDto> get(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(dashboardService.getDashboard(user));
+    }
+}
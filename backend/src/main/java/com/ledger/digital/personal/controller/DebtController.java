@@ -1,13 +1,26 @@
 package com.ledger.digital.personal.controller;
 
+import com.ledger.digital.personal.dto.BulkImportResultDto;
 import com.ledger.digital.personal.dto.DebtDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.dto.SettlementDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.BulkImportService;
 import com.ledger.digital.personal.service.DebtService;
+import com.ledger.digital.personal.service.SettlementService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,23 +29,61 @@ import java.util.List;
 public class DebtController {
 
     private final DebtService debtService;
+    private final BulkImportService bulkImportService;
+    private final SettlementService settlementService;
 
-    public DebtController(DebtService debtService) {
+    public DebtController(DebtService debtService, BulkImportService bulkImportService,
+                          SettlementService settlementService) {
         this.debtService = debtService;
+        this.bulkImportService = bulkImportService;
+        this.settlementService = settlementService;
     }
 
     @PostMapping
     @Operation(summary = "Add a new debt", description = "Create a new debt entry")
     public ResponseEntity<DebtDto> create(@Valid @RequestBody DebtDto dto,
-                                          @RequestHeader("userEmail") String userEmail,
+                                          @AuthenticationPrincipal AuthenticatedUser user,
                                           @RequestParam(name = "accountId", required = false) Long accountId) { // 🟢 Added accountId
-        return ResponseEntity.ok(debtService.addDebt(dto, userEmail, accountId));
+        return ResponseEntity.ok(debtService.addDebt(dto, user, accountId));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk import debts", description = "Stream a JSON array or CSV (header: person,amount,given) of debts, optionally settled through one account. Invalid rows are skipped and reported. If the import stops early (400, complete=false), rows up to committedThroughRow are saved.")
+    public ResponseEntity<BulkImportResultDto> bulkCreate(@AuthenticationPrincipal AuthenticatedUser user,
+                                                          @RequestParam(name = "accountId", required = false) Long accountId,
+                                                          @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                          InputStream body) {
+        BulkImportResultDto result = bulkImportService.importDebts(accountId, body, contentType, user);
+        // A stopped import still reports what was saved
+        return ResponseEntity.status(result.isComplete() ? HttpStatus.OK : HttpStatus.BAD_REQUEST).body(result);
     }
 
     @GetMapping
     @Operation(summary = "List all debts")
-    public ResponseEntity<List<DebtDto>> list(@RequestHeader("userEmail") String userEmail) {
-        return ResponseEntity.ok(debtService.getDebts(userEmail));
+    public ResponseEntity<List<DebtDto>> list(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(debtService.getDebts(user));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Page through debts", description = "Cursor-paginated, filtered debts list. Pass nextCursor from the previous response as cursor. type = lent | borrowed.")
+    public ResponseEntity<PageDto<DebtDto>> page(@AuthenticationPrincipal AuthenticatedUser user,
+                                                 @ParameterObject ListQueryDto query) {
+        return ResponseEntity.ok(debtService.page(query, user));
+    }
+
+    @GetMapping("/settlement")
+    @Operation(summary = "Preview a settlement", description = "Net all open debts (or those with the given counterparties) into the fewest transfers, without changing anything.")
+    public ResponseEntity<SettlementDto> previewSettlement(@AuthenticationPrincipal AuthenticatedUser user,
+                                                           @RequestParam(name = "counterpartyIds", required = false) List<Long> counterpartyIds) {
+        return ResponseEntity.ok(settlementService.preview(counterpartyIds, user));
+    }
+
+    @PostMapping("/settlement")
+    @Operation(summary = "Apply a settlement", description = "Close the netted debts and store the plan. accountId is required unless your net share is zero; the net share is paid from or into that account.")
+    public ResponseEntity<SettlementDto> applySettlement(@AuthenticationPrincipal AuthenticatedUser user,
+                                                         @RequestParam(name = "counterpartyIds", required = false) List<Long> counterpartyIds,
+                                                         @RequestParam(name = "accountId", required = false) Long accountId) {
+        return ResponseEntity.ok(settlementService.apply(counterpartyIds, accountId, user));
     }
 
     @PutMapping("/{id}")
@@ -40,20 +91,20 @@ public class DebtController {
     public ResponseEntity<DebtDto> modify(
             @PathVariable("id") Long id,
             @Valid @RequestBody DebtDto dto,
-            @RequestHeader("userEmail") String userEmail,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam(name = "accountId", required = false) Long accountId) { // 🟢 Added accountId
 
-        return ResponseEntity.ok(debtService.updateDebt(id, dto, userEmail, accountId));
+        return ResponseEntity.ok(debtService.updateDebt(id, dto, user, accountId));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Close a debt", description = "Remove a debt, optionally settling via account")
     public ResponseEntity<Void> close(
             @PathVariable("id") Long id,
-            @RequestHeader("userEmail") String userEmail,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam(name = "accountId", required = false) Long accountId) { // 🟢 Added accountId
 
-        debtService.closeDebt(id, userEmail, accountId);
+        debtService.closeDebt(id, user, accountId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
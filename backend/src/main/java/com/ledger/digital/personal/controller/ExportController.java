@@ -0,0 +1,56 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Export", description = "Download the full ledger history as NDJSON or CSV")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/credits")
+    @Operation(summary = "Export credits", description = "Stream every credit of the authenticated user. format = ndjson (default) or csv.")
+    public ResponseEntity<StreamingResponseBody> credits(@AuthenticationPrincipal AuthenticatedUser user,
+                                                         @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        ExportService.Format f = ExportService.Format.parse(format);
+        return download("credits", f, exportService.exportCredits(user, f));
+    }
+
+    @GetMapping("/debts")
+    @Operation(summary = "Export debts", description = "Stream every debt of the authenticated user. format = ndjson (default) or csv.")
+    public ResponseEntity<StreamingResponseBody> debts(@AuthenticationPrincipal AuthenticatedUser user,
+                                                       @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        ExportService.Format f = ExportService.Format.parse(format);
+        return download("debts", f, exportService.exportDebts(user, f));
+    }
+
+    @GetMapping("/investments")
+    @Operation(summary = "Export investments", description = "Stream every investment of the authenticated user. format = ndjson (default) or csv.")
+    public ResponseEntity<StreamingResponseBody> investments(@AuthenticationPrincipal AuthenticatedUser user,
+                                                             @RequestParam(name = "format", defaultValue = "ndjson") String format) {
+        ExportService.Format f = ExportService.Format.parse(format);
+        return download("investments", f, exportService.exportInvestments(user, f));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> download(String name, ExportService.Format format,
+                                                                  StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+}
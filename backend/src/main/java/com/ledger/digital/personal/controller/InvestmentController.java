@@ -1,11 +1,16 @@
 package com.ledger.digital.personal.controller;
 
 import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import com.ledger.digital.personal.service.InvestmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -24,22 +29,27 @@ public class InvestmentController {
 
     @PostMapping
     @Operation(summary = "Create a new investment",
-            description = "Create a new investment for the user with optional linked account and budget")
+            description = "Create a new investment for the authenticated user with optional linked account and budget")
     public ResponseEntity<InvestmentDto> create(
             @RequestBody
             @Parameter(description = "Investment data to create") InvestmentDto dto,
-            @RequestParam(name = "userEmail") // FIXED: Added name
-            @Parameter(description = "User's email to associate the investment with") String userEmail) {
-        return ResponseEntity.ok(investmentService.createInvestment(dto, userEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(investmentService.createInvestment(dto, user));
     }
 
     @GetMapping
     @Operation(summary = "List all investments",
-            description = "Get a list of all investments associated with the given user email")
+            description = "Get a list of all investments of the authenticated user")
     public ResponseEntity<List<InvestmentDto>> list(
-            @RequestParam(name = "userEmail") // FIXED: Added name
-            @Parameter(description = "User's email to fetch investments for") String userEmail) {
-        return ResponseEntity.ok(investmentService.listInvestments(userEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(investmentService.listInvestments(user));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Page through investments", description = "Cursor-paginated, filtered investments list. Pass nextCursor from the previous response as cursor. Amount filters and sort apply to value.")
+    public ResponseEntity<PageDto<InvestmentDto>> page(@AuthenticationPrincipal AuthenticatedUser user,
+                                                       @ParameterObject ListQueryDto query) {
+        return ResponseEntity.ok(investmentService.page(query, user));
     }
 
     @PutMapping("/{id}")
@@ -56,10 +66,9 @@ public class InvestmentController {
             @Parameter(description = "Optional budget ID to deduct amount from") Long budgetId,
             @RequestParam(name = "addToAccount") // FIXED: Added name
             @Parameter(description = "Whether the amount should be deducted from the account") boolean addToAccount,
-            @RequestParam(name = "userEmail") // FIXED: Added name
-            @Parameter(description = "User's email associated with the investment") String userEmail) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         return ResponseEntity.ok(
-                investmentService.updateInvestment(id, changeAmount, addToAccount, accountId, budgetId, userEmail)
+                investmentService.updateInvestment(id, changeAmount, addToAccount, accountId, budgetId, user)
         );
     }
 
@@ -71,8 +80,7 @@ public class InvestmentController {
             @Parameter(description = "ID of the investment to close") Long id,
             @RequestParam(name = "addToAccount") // FIXED: Added name
             @Parameter(description = "Whether the investment value should be added back to the account") boolean addToAccount,
-            @RequestParam(name = "userEmail") // FIXED: Added name
-            @Parameter(description = "User's email associated with the investment") String userEmail) {
-        return ResponseEntity.ok(investmentService.closeInvestment(id, addToAccount, userEmail));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(investmentService.closeInvestment(id, addToAccount, user));
     }
 }
\ No newline at end of file
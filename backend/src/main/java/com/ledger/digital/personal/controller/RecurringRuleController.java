@@ -0,0 +1,74 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.dto.RecurringRuleDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.RecurringRuleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recurring")
+@Tag(name = "Recurring", description = "Credits, budget top-ups and investment contributions posted on a schedule")
+public class RecurringRuleController {
+
+    private final RecurringRuleService recurringRuleService;
+
+    public RecurringRuleController(RecurringRuleService recurringRuleService) {
+        this.recurringRuleService = recurringRuleService;
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a recurring rule", description = "Post a credit, budget top-up or investment contribution by cron expression or ISO-8601 period. Occurrences between startAt and now are posted right away.")
+    public ResponseEntity<RecurringRuleDto> create(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @RequestBody RecurringRuleDto dto) {
+        return ResponseEntity.ok(recurringRuleService.create(dto, user));
+    }
+
+    @GetMapping
+    @Operation(summary = "List recurring rules", description = "Every recurring rule of the authenticated user, active or not.")
+    public ResponseEntity<List<RecurringRuleDto>> list(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(recurringRuleService.list(user));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a recurring rule", description = "Retrieve a recurring rule with its next occurrence and last error.")
+    public ResponseEntity<RecurringRuleDto> get(@PathVariable("id") Long id,
+                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(recurringRuleService.get(id, user));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update a recurring rule", description = "Change amount, source, note or endAt. To change the schedule, create a new rule.")
+    public ResponseEntity<RecurringRuleDto> update(@PathVariable("id") Long id,
+                                                   @AuthenticationPrincipal AuthenticatedUser user,
+                                                   @RequestBody RecurringRuleDto dto) {
+        return ResponseEntity.ok(recurringRuleService.update(id, dto, user));
+    }
+
+    @PostMapping("/{id}/pause")
+    @Operation(summary = "Pause a recurring rule", description = "Stop posting occurrences until the rule is resumed.")
+    public ResponseEntity<RecurringRuleDto> pause(@PathVariable("id") Long id,
+                                                  @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(recurringRuleService.pause(id, user));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume a recurring rule", description = "Continue with the next occurrence from now on; occurrences missed while paused are skipped. Also re-enables a rule switched off after repeated failures.")
+    public ResponseEntity<RecurringRuleDto> resume(@PathVariable("id") Long id,
+                                                   @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(recurringRuleService.resume(id, user));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete a recurring rule", description = "Delete the rule. Occurrences already posted stay in the ledger.")
+    public ResponseEntity<Void> delete(@PathVariable("id") Long id,
+                                       @AuthenticationPrincipal AuthenticatedUser user) {
+        recurringRuleService.delete(id, user);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.ledger.digital.personal.controller;
+
+import com.ledger.digital.personal.dto.SearchResultDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Search", description = "Typo-tolerant search over credits, debts, investments and budgets")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    @Operation(summary = "Search the ledger", description = "Matches credit sources and notes, debt persons, investment and budget names, tolerating typos. "
+            + "Best matches first. types = comma-separated credit, debt, investment, budget (default all); "
+            + "from/to limit credits, debts and investments to when they occurred and leave budgets out.")
+    public ResponseEntity<List<SearchResultDto>> search(@AuthenticationPrincipal AuthenticatedUser user,
+                                                        @RequestParam(name = "q") String q,
+                                                        @RequestParam(name = "types", required = false) List<String> types,
+                                                        @RequestParam(name = "from", required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(name = "to", required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                        @RequestParam(name = "limit", required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, types, from, to, limit, user));
+    }
+}
@@ -1,14 +1,14 @@
 package com.ledger.digital.personal.controller;
 
 import com.ledger.digital.personal.dto.UserDto;
-import com.ledger.digital.personal.model.User;
-import com.ledger.digital.personal.service.AuthService;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import com.ledger.digital.personal.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,11 +19,9 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
-    private final AuthService authService;
 
-    public UserController(UserService userService, AuthService authService) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.authService = authService;
     }
 
     @Operation(summary = "Create a new user")
@@ -55,10 +53,9 @@ public class UserController {
     public ResponseEntity<UserDto> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserDto userDto,
-            @RequestHeader("x-api-key") String apiKey
+            @AuthenticationPrincipal AuthenticatedUser apiUser
     ) {
-        // Validate API key
-        User apiUser = authService.getUserByApiKey(apiKey);
+        // Only the owner of the API key may modify this user
         if (!apiUser.getId().equals(id)) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
@@ -75,10 +72,9 @@ public class UserController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(
             @PathVariable Long id,
-            @RequestHeader("x-api-key") String apiKey
+            @AuthenticationPrincipal AuthenticatedUser apiUser
     ) {
-        // Validate API key
-        User apiUser = authService.getUserByApiKey(apiKey);
+        // Only the owner of the API key may modify this user
         if (!apiUser.getId().equals(id)) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
@@ -0,0 +1,114 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BalanceHistoryDto {
+
+    @Schema(description = "ID of the account", example = "2")
+    private Long accountId;
+
+    @Schema(description = "First day of the series (inclusive)", example = "2026-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the series (inclusive)", example = "2026-12-31")
+    private LocalDate to;
+
+    @Schema(description = "One point per day from 'from' to 'to', oldest first")
+    private List<Point> points = new ArrayList<>();
+
+    public static class Point {
+
+        @Schema(description = "Calendar day", example = "2026-03-14")
+        private LocalDate day;
+
+        @Schema(description = "Money added to the account that day", example = "1500.00")
+        private BigDecimal credits;
+
+        @Schema(description = "Money taken from the account that day", example = "320.50")
+        private BigDecimal debits;
+
+        @Schema(description = "Account balance at the end of the day", example = "8240.75")
+        private BigDecimal closingBalance;
+
+        public Point() {
+        }
+
+        public Point(LocalDate day, BigDecimal credits, BigDecimal debits, BigDecimal closingBalance) {
+            this.day = day;
+            this.credits = credits;
+            this.debits = debits;
+            this.closingBalance = closingBalance;
+        }
+
+        // Getters & Setters
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public void setDay(LocalDate day) {
+            this.day = day;
+        }
+
+        public BigDecimal getCredits() {
+            return credits;
+        }
+
+        public void setCredits(BigDecimal credits) {
+            this.credits = credits;
+        }
+
+        public BigDecimal getDebits() {
+            return debits;
+        }
+
+        public void setDebits(BigDecimal debits) {
+            this.debits = debits;
+        }
+
+        public BigDecimal getClosingBalance() {
+            return closingBalance;
+        }
+
+        public void setClosingBalance(BigDecimal closingBalance) {
+            this.closingBalance = closingBalance;
+        }
+    }
+
+    // Getters & Setters
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<Point> points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class BatchOperationDto {
+
+    public enum Type {
+        CREDIT_ADD,
+        BUDGET_CREATE,
+        BUDGET_UPDATE,
+        BUDGET_CLOSE,
+        DEBT_ADD,
+        DEBT_UPDATE,
+        DEBT_CLOSE
+    }
+
+    @Schema(description = "Operation to apply", example = "CREDIT_ADD")
+    private Type type;
+
+    @Schema(description = "Target budget or debt ID (BUDGET_UPDATE, BUDGET_CLOSE, DEBT_UPDATE, DEBT_CLOSE)", example = "7")
+    private Long id;
+
+    @Schema(description = "Account credited (CREDIT_ADD), settled through (DEBT_*) or receiving a closed budget's remainder", example = "3")
+    private Long accountId;
+
+    @Schema(description = "BUDGET_CLOSE: move the remaining amount to accountId", example = "true")
+    private boolean addRemainingToAccount;
+
+    @Schema(description = "Payload for CREDIT_ADD")
+    private CreditDto credit;
+
+    @Schema(description = "Payload for BUDGET_CREATE and BUDGET_UPDATE")
+    private BudgetDto budget;
+
+    @Schema(description = "Payload for DEBT_ADD and DEBT_UPDATE")
+    private DebtDto debt;
+
+    // Getters & Setters
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public boolean isAddRemainingToAccount() {
+        return addRemainingToAccount;
+    }
+
+    public void setAddRemainingToAccount(boolean addRemainingToAccount) {
+        this.addRemainingToAccount = addRemainingToAccount;
+    }
+
+    public CreditDto getCredit() {
+        return credit;
+    }
+
+    public void setCredit(CreditDto credit) {
+        this.credit = credit;
+    }
+
+    public BudgetDto getBudget() {
+        return budget;
+    }
+
+    public void setBudget(BudgetDto budget) {
+        this.budget = budget;
+    }
+
+    public DebtDto getDebt() {
+        return debt;
+    }
+
+    public void setDebt(DebtDto debt) {
+        this.debt = debt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRequestDto {
+
+    @Schema(description = "Operations, applied in order")
+    private List<BatchOperationDto> operations = new ArrayList<>();
+
+    // Getters & Setters
+    public List<BatchOperationDto> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperationDto> operations) {
+        this.operations = operations;
+    }
+}
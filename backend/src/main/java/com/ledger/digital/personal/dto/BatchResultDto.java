@@ -0,0 +1,67 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchResultDto {
+
+    @Schema(description = "One result per operation, in request order")
+    private List<Item> results = new ArrayList<>();
+
+    public static class Item {
+
+        @Schema(description = "Position of the operation in the request", example = "0")
+        private int index;
+
+        @Schema(description = "Operation type", example = "CREDIT_ADD")
+        private BatchOperationDto.Type type;
+
+        @Schema(description = "Created or updated record (CreditDto, BudgetDto or DebtDto); empty for closes")
+        private Object result;
+
+        public Item() {
+        }
+
+        public Item(int index, BatchOperationDto.Type type, Object result) {
+            this.index = index;
+            this.type = type;
+            this.result = result;
+        }
+
+        // Getters & Setters
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public BatchOperationDto.Type getType() {
+            return type;
+        }
+
+        public void setType(BatchOperationDto.Type type) {
+            this.type = type;
+        }
+
+        public Object getResult() {
+            return result;
+        }
+
+        public void setResult(Object result) {
+            this.result = result;
+        }
+    }
+
+    // Getters & Setters
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Item> results) {
+        this.results = results;
+    }
+}
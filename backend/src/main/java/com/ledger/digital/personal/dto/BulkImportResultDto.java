@@ -0,0 +1,76 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResultDto {
+
+    @Schema(description = "Number of rows written", example = "24980")
+    private int imported;
+
+    @Schema(description = "Number of rows skipped because they failed validation", example = "20")
+    private int rejected;
+
+    @Schema(description = "Validation errors by row number (first 100 only)", example = "[\"row 17: amount must be positive\"]")
+    private List<String> errors = new ArrayList<>();
+
+    @Schema(description = "False when the import stopped early (e.g. malformed body); rows up to committedThroughRow are saved", example = "true")
+    private boolean complete = true;
+
+    @Schema(description = "Every row up to this row number is saved or rejected; resume with the rows after it", example = "25000")
+    private int committedThroughRow;
+
+    @Schema(description = "Why the import stopped early", example = "Malformed JSON body: Unexpected end-of-input")
+    private String error;
+
+    // Getters & Setters
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public int getCommittedThroughRow() {
+        return committedThroughRow;
+    }
+
+    public void setCommittedThroughRow(int committedThroughRow) {
+        this.committedThroughRow = committedThroughRow;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
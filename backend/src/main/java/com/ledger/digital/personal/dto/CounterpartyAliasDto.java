@@ -0,0 +1,18 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class CounterpartyAliasDto {
+
+    @Schema(description = "Another name the counterparty goes by; matched case- and whitespace-insensitively", example = "Ahmed")
+    private String alias;
+
+    // Getters & Setters
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CounterpartyDto {
+
+    @Schema(description = "Unique ID of the counterparty", example = "12")
+    private Long id;
+
+    @Schema(description = "Display name", example = "Ahmed Khan")
+    private String name;
+
+    @Schema(description = "Normalized names that resolve to this counterparty, including its own", example = "[\"ahmed khan\", \"ahmed\"]")
+    private List<String> aliases = new ArrayList<>();
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public void setAliases(List<String> aliases) {
+        this.aliases = aliases;
+    }
+}
@@ -3,6 +3,7 @@ package com.ledger.digital.personal.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class CreditDto {
 
@@ -21,6 +22,12 @@ public class CreditDto {
     @Schema(description = "Flag indicating if this credit should be used to repay debt", example = "false")
     private boolean repayDebt;
 
+    @Schema(description = "When the money came in; defaults to the time of the request", example = "2026-03-14T09:30:00")
+    private LocalDateTime occurredAt;
+
+    @Schema(description = "Counterparty the money came from; resolved from the name, read-only", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long counterpartyId;
+
     // Getters and setters
     public Long getId() {
         return id;
@@ -61,4 +68,20 @@ public class CreditDto {
     public void setRepayDebt(boolean repayDebt) {
         this.repayDebt = repayDebt;
     }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    public void setCounterpartyId(Long counterpartyId) {
+        this.counterpartyId = counterpartyId;
+    }
 }
@@ -0,0 +1,98 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class DashboardDto {
+
+    @Schema(description = "Sum of all account balances", example = "125000.00")
+    private BigDecimal totalBalance;
+
+    @Schema(description = "Account balances grouped by account type")
+    private Map<String, BigDecimal> balanceByAccountType;
+
+    @Schema(description = "Sum of remaining budget amounts", example = "18000.00")
+    private BigDecimal budgetRemaining;
+
+    @Schema(description = "Sum of all investment values", example = "40000.00")
+    private BigDecimal investedTotal;
+
+    @Schema(description = "Investment values grouped by investment type")
+    private Map<String, BigDecimal> investedByType;
+
+    @Schema(description = "Money lent to others (receivable)", example = "5000.00")
+    private BigDecimal lentTotal;
+
+    @Schema(description = "Money borrowed from others (payable)", example = "2500.00")
+    private BigDecimal owedTotal;
+
+    @Schema(description = "Balance + invested + lent - owed", example = "167500.00")
+    private BigDecimal netWorth;
+
+    // Getters & Setters
+    public BigDecimal getTotalBalance() {
+        return totalBalance;
+    }
+
+    public void setTotalBalance(BigDecimal totalBalance) {
+        this.totalBalance = totalBalance;
+    }
+
+    public Map<String, BigDecimal> getBalanceByAccountType() {
+        return balanceByAccountType;
+    }
+
+    public void setBalanceByAccountType(Map<String, BigDecimal> balanceByAccountType) {
+        this.balanceByAccountType = balanceByAccountType;
+    }
+
+    public BigDecimal getBudgetRemaining() {
+        return budgetRemaining;
+    }
+
+    public void setBudgetRemaining(BigDecimal budgetRemaining) {
+        this.budgetRemaining = budgetRemaining;
+    }
+
+    public BigDecimal getInvestedTotal() {
+        return investedTotal;
+    }
+
+    public void setInvestedTotal(BigDecimal investedTotal) {
+        this.investedTotal = investedTotal;
+    }
+
+    public Map<String, BigDecimal> getInvestedByType() {
+        return investedByType;
+    }
+
+    public void setInvestedByType(Map<String, BigDecimal> investedByType) {
+        this.investedByType = investedByType;
+    }
+
+    public BigDecimal getLentTotal() {
+        return lentTotal;
+    }
+
+    public void setLentTotal(BigDecimal lentTotal) {
+        this.lentTotal = lentTotal;
+    }
+
+    public BigDecimal getOwedTotal() {
+        return owedTotal;
+    }
+
+    public void setOwedTotal(BigDecimal owedTotal) {
+        this.owedTotal = owedTotal;
+    }
+
+    public BigDecimal getNetWorth() {
+        return netWorth;
+    }
+
+    public void setNetWorth(BigDecimal netWorth) {
+        this.netWorth = netWorth;
+    }
+}
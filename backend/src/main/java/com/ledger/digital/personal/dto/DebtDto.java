@@ -3,6 +3,7 @@ package com.ledger.digital.personal.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class DebtDto {
 
@@ -18,6 +19,12 @@ public class DebtDto {
     @Schema(description = "Flag indicating if the debt has been given (true) or taken (false)", example = "true")
     private Boolean given;
 
+    @Schema(description = "When the debt arose; defaults to the time of the request", example = "2026-03-14T09:30:00")
+    private LocalDateTime occurredAt;
+
+    @Schema(description = "Counterparty the debt is with; resolved from the name, read-only", example = "12", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long counterpartyId;
+
     // Getters & Setters
     public Long getId() {
         return id;
@@ -50,4 +57,20 @@ public class DebtDto {
     public void setGiven(Boolean given) {
         this.given = given;
     }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getCounterpartyId() {
+        return counterpartyId;
+    }
+
+    public void setCounterpartyId(Long counterpartyId) {
+        this.counterpartyId = counterpartyId;
+    }
 }
@@ -3,6 +3,7 @@ package com.ledger.digital.personal.dto;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public class InvestmentDto {
 
@@ -27,6 +28,9 @@ public class InvestmentDto {
     @Schema(description = "Flag indicating whether to add money back to the account on closing the investment", example = "true")
     private boolean addToAccountOnClose;
 
+    @Schema(description = "When the investment was made; defaults to the time of the request", example = "2026-03-14T09:30:00")
+    private LocalDateTime occurredAt;
+
     // Getters & Setters
     public Long getId() {
         return id;
@@ -77,4 +81,12 @@ public class InvestmentDto {
     }
 
     public void setAddToAccountOnClose(boolean addToAccountOnClose) { this.addToAccountOnClose = addToAccountOnClose; }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
 }
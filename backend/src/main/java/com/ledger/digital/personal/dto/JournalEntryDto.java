@@ -0,0 +1,76 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class JournalEntryDto {
+
+    @Schema(description = "Unique ID of the journal entry", example = "42")
+    private Long id;
+
+    @Schema(description = "Signed balance change (negative = money left)", example = "-250.00")
+    private BigDecimal amount;
+
+    @Schema(description = "What caused the change", example = "CREDIT")
+    private String causeType;
+
+    @Schema(description = "ID of the credit/debt/investment/budget that caused the change", example = "7")
+    private Long causeId;
+
+    @Schema(description = "When the change was recorded", example = "2025-01-31T10:15:30")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When the change happened; earlier than createdAt for catch-up postings", example = "2025-01-31T00:00:00")
+    private LocalDateTime occurredAt;
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCauseType() {
+        return causeType;
+    }
+
+    public void setCauseType(String causeType) {
+        this.causeType = causeType;
+    }
+
+    public Long getCauseId() {
+        return causeId;
+    }
+
+    public void setCauseId(Long causeId) {
+        this.causeId = causeId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
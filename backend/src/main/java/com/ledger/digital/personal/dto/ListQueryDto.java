@@ -0,0 +1,124 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Query-string filters shared by the paged list endpoints
+public class ListQueryDto {
+
+    @Schema(description = "Cursor returned as nextCursor by the previous page; omit for the first page")
+    private String cursor;
+
+    @Schema(description = "Page size (1-200)", example = "50")
+    private Integer limit;
+
+    @Schema(description = "Minimum amount / value / balance (inclusive)", example = "100")
+    private BigDecimal minAmount;
+
+    @Schema(description = "Maximum amount / value / balance (inclusive)", example = "5000")
+    private BigDecimal maxAmount;
+
+    @Schema(description = "Case-insensitive text match on source or note (credits), person (debts) or name", example = "salary")
+    private String q;
+
+    @Schema(description = "Type filter: account/investment type, or lent/borrowed for debts", example = "Savings")
+    private String type;
+
+    @Schema(description = "Only entries that occurred at or after this time (credits, debts, investments)", example = "2026-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @Schema(description = "Only entries that occurred before this time (exclusive)", example = "2026-02-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    @Schema(description = "Sort key: id (creation order, default) or amount", example = "id")
+    private String sort;
+
+    @Schema(description = "Sort direction: desc (default) or asc", example = "desc")
+    private String direction;
+
+    // Getters & Setters
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+}
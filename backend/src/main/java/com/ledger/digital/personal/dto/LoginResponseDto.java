@@ -13,6 +13,12 @@ public class LoginResponseDto {
     @Schema(description = "API key assigned to the user", example = "a1b2c3d4e5f6g7h8i9j0")
     private String apiKey;
 
+    @Schema(description = "Short-lived signed access token, send as 'Authorization: Bearer <token>'", example = "k1.MTJ8MTcwMDAwMDAwMHx1c2VyQGV4YW1wbGUuY29t.sig")
+    private String accessToken;
+
+    @Schema(description = "Seconds until the access token expires", example = "900")
+    private Long accessTokenExpiresIn;
+
     public LoginResponseDto() {
     }
 
@@ -45,4 +51,20 @@ public class LoginResponseDto {
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
     }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    public Long getAccessTokenExpiresIn() {
+        return accessTokenExpiresIn;
+    }
+
+    public void setAccessTokenExpiresIn(Long accessTokenExpiresIn) {
+        this.accessTokenExpiresIn = accessTokenExpiresIn;
+    }
 }
@@ -0,0 +1,39 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public class PageDto<T> {
+
+    @Schema(description = "Rows of this page")
+    private List<T> items;
+
+    @Schema(description = "Opaque cursor for the next page; null when this is the last page", example = "MTIzNA")
+    private String nextCursor;
+
+    public PageDto() {
+    }
+
+    public PageDto(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters & Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
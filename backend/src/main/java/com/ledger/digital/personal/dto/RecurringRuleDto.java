@@ -0,0 +1,198 @@
+package com.ledger.digital.personal.dto;
+
+import com.ledger.digital.personal.model.RecurringRule;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class RecurringRuleDto {
+
+    @Schema(description = "Unique ID of the rule", example = "4", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long id;
+
+    @Schema(description = "What is posted: CREDIT into accountId, BUDGET top-up of budgetId, or INVESTMENT contribution to investmentId", example = "CREDIT")
+    private RecurringRule.Kind kind;
+
+    @Schema(description = "CREDIT: account credited. BUDGET / INVESTMENT: optional account the money is taken from", example = "3")
+    private Long accountId;
+
+    @Schema(description = "BUDGET: budget topped up. INVESTMENT: optional budget the money is taken from", example = "7")
+    private Long budgetId;
+
+    @Schema(description = "INVESTMENT: investment contributed to", example = "11")
+    private Long investmentId;
+
+    @Schema(description = "Amount posted on every occurrence", example = "85000.00")
+    private BigDecimal amount;
+
+    @Schema(description = "CREDIT: who the money comes from", example = "Acme Corp")
+    private String source;
+
+    @Schema(description = "Optional note", example = "Monthly salary")
+    private String note;
+
+    @Schema(description = "Spring cron expression (second minute hour day month weekday), at most hourly; set this or period", example = "0 0 9 1 * *")
+    private String cron;
+
+    @Schema(description = "ISO-8601 period between occurrences, counted from startAt; set this or cron", example = "P1M")
+    private String period;
+
+    @Schema(description = "First possible occurrence; defaults to now. Occurrences between it and now are posted right away", example = "2026-01-01T09:00:00")
+    private LocalDateTime startAt;
+
+    @Schema(description = "Optional last possible occurrence", example = "2027-12-31T23:59:59")
+    private LocalDateTime endAt;
+
+    @Schema(description = "Next occurrence to be posted", example = "2026-11-01T09:00:00", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime nextRunAt;
+
+    @Schema(description = "Occurrences passed so far, posted or skipped while paused", example = "10", accessMode = Schema.AccessMode.READ_ONLY)
+    private long occurrences;
+
+    @Schema(description = "False once paused, ended or after repeated failures", example = "true", accessMode = Schema.AccessMode.READ_ONLY)
+    private boolean active;
+
+    @Schema(description = "When occurrences were last posted", example = "2026-10-01T09:00:01", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime lastRunAt;
+
+    @Schema(description = "Error of the last failed run, if the last run failed", accessMode = Schema.AccessMode.READ_ONLY)
+    private String lastError;
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RecurringRule.Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(RecurringRule.Kind kind) {
+        this.kind = kind;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    public Long getInvestmentId() {
+        return investmentId;
+    }
+
+    public void setInvestmentId(Long investmentId) {
+        this.investmentId = investmentId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public void setNote(String note) {
+        this.note = note;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public long getOccurrences() {
+        return occurrences;
+    }
+
+    public void setOccurrences(long occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class SearchResultDto {
+
+    @Schema(description = "Kind of record: CREDIT, DEBT, INVESTMENT or BUDGET", example = "CREDIT")
+    private String type;
+
+    @Schema(description = "ID of the record", example = "42")
+    private Long id;
+
+    @Schema(description = "Matched name: credit source, debt person, investment or budget name", example = "Ahmed")
+    private String title;
+
+    @Schema(description = "Secondary text: credit note, lent/borrowed for debts, investment type", example = "Rent share for April")
+    private String detail;
+
+    @Schema(description = "Amount, investment value or budget amount", example = "450.00")
+    private BigDecimal amount;
+
+    @Schema(description = "When the credit, debt or investment occurred; empty for budgets", example = "2026-04-03T18:20:00")
+    private LocalDateTime occurredAt;
+
+    @Schema(description = "Relevance; higher is better", example = "1.6")
+    private double score;
+
+    public SearchResultDto() {
+    }
+
+    public SearchResultDto(String type, Long id, String title, String detail, BigDecimal amount,
+                           LocalDateTime occurredAt, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.detail = detail;
+        this.amount = amount;
+        this.occurredAt = occurredAt;
+        this.score = score;
+    }
+
+    // Getters & Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public void setDetail(String detail) {
+        this.detail = detail;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
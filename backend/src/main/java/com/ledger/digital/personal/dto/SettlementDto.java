@@ -0,0 +1,158 @@
+package com.ledger.digital.personal.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SettlementDto {
+
+    @Schema(description = "Payments that settle every included debt; a null counterparty ID is you")
+    private List<Transfer> transfers = new ArrayList<>();
+
+    @Schema(description = "Number of debts the settlement covers", example = "37")
+    private int debtCount;
+
+    @Schema(description = "Sum of all included debts before netting", example = "4820.00")
+    private BigDecimal grossAmount = BigDecimal.ZERO;
+
+    @Schema(description = "Sum of the transfers after netting", example = "610.00")
+    private BigDecimal transferredAmount = BigDecimal.ZERO;
+
+    @Schema(description = "Your net cash movement: positive = you receive, negative = you pay", example = "-120.00")
+    private BigDecimal netToYou = BigDecimal.ZERO;
+
+    @Schema(description = "True when the debts were closed; false for a preview", example = "false")
+    private boolean applied;
+
+    @Schema(description = "ID of the stored settlement once applied", example = "12")
+    private Long settlementId;
+
+    public static class Transfer {
+
+        @Schema(description = "Counterparty paying; null when you pay", example = "12")
+        private Long fromCounterpartyId;
+
+        @Schema(description = "Name of the payer", example = "Ahmed Khan")
+        private String fromName;
+
+        @Schema(description = "Counterparty receiving; null when you receive", example = "15")
+        private Long toCounterpartyId;
+
+        @Schema(description = "Name of the receiver", example = "Sara")
+        private String toName;
+
+        @Schema(description = "Amount to transfer", example = "250.00")
+        private BigDecimal amount;
+
+        public Transfer() {
+        }
+
+        public Transfer(Long fromCounterpartyId, String fromName, Long toCounterpartyId, String toName, BigDecimal amount) {
+            this.fromCounterpartyId = fromCounterpartyId;
+            this.fromName = fromName;
+            this.toCounterpartyId = toCounterpartyId;
+            this.toName = toName;
+            this.amount = amount;
+        }
+
+        // Getters & Setters
+        public Long getFromCounterpartyId() {
+            return fromCounterpartyId;
+        }
+
+        public void setFromCounterpartyId(Long fromCounterpartyId) {
+            this.fromCounterpartyId = fromCounterpartyId;
+        }
+
+        public String getFromName() {
+            return fromName;
+        }
+
+        public void setFromName(String fromName) {
+            this.fromName = fromName;
+        }
+
+        public Long getToCounterpartyId() {
+            return toCounterpartyId;
+        }
+
+        public void setToCounterpartyId(Long toCounterpartyId) {
+            this.toCounterpartyId = toCounterpartyId;
+        }
+
+        public String getToName() {
+            return toName;
+        }
+
+        public void setToName(String toName) {
+            this.toName = toName;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+    }
+
+    // Getters & Setters
+    public List<Transfer> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<Transfer> transfers) {
+        this.transfers = transfers;
+    }
+
+    public int getDebtCount() {
+        return debtCount;
+    }
+
+    public void setDebtCount(int debtCount) {
+        this.debtCount = debtCount;
+    }
+
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+
+    public void setGrossAmount(BigDecimal grossAmount) {
+        this.grossAmount = grossAmount;
+    }
+
+    public BigDecimal getTransferredAmount() {
+        return transferredAmount;
+    }
+
+    public void setTransferredAmount(BigDecimal transferredAmount) {
+        this.transferredAmount = transferredAmount;
+    }
+
+    public BigDecimal getNetToYou() {
+        return netToYou;
+    }
+
+    public void setNetToYou(BigDecimal netToYou) {
+        this.netToYou = netToYou;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    public Long getSettlementId() {
+        return settlementId;
+    }
+
+    public void setSettlementId(Long settlementId) {
+        this.settlementId = settlementId;
+    }
+}
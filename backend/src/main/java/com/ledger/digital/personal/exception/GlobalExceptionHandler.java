@@ -1,11 +1,14 @@
 package com.ledger.digital.personal.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -13,10 +16,16 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    // Set on the request when the error is the request's own fault and would come out the same on a retry;
+    // IdempotencyFilter only stores and replays error responses that carry it
+    public static final String FINAL_OUTCOME = GlobalExceptionHandler.class.getName() + ".FINAL_OUTCOME";
+
     // 1. Handle Validation Errors (e.g. Missing email, blank password)
     // We WANT the user to see exactly what they did wrong.
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidation(MethodArgumentNotValidException ex) {
+    public ResponseEntity<Map<String, String>> handleValidation(MethodArgumentNotValidException ex,
+                                                                HttpServletRequest request) {
+        request.setAttribute(FINAL_OUTCOME, true);
         Map<String, String> response = new HashMap<>();
 
         // Get the first specific error (e.g., "Email is required")
@@ -31,8 +40,10 @@ public class GlobalExceptionHandler {
 
     // 2. Handle Business Logic Errors (e.g. "User already exists", "Invalid credentials")
     // These are thrown intentionally by your Service layer, so we WANT to show the message.
+    // Only a plain RuntimeException is one of those; any subclass escaped from a library is not final.
     @ExceptionHandler(RuntimeException.class)
-    public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex) {
+    public ResponseEntity<Map<String, String>> handleRuntimeException(RuntimeException ex, HttpServletRequest request) {
+        if (ex.getClass() == RuntimeException.class) request.setAttribute(FINAL_OUTCOME, true);
         Map<String, String> response = new HashMap<>();
 
         response.put("error", "Operation Failed");
@@ -41,7 +52,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
-    // 3. Handle Global/System Errors (e.g. NullPointer, Database down)
+    // 3. Handle Overload (e.g. password hashing pool saturated)
+    // Fail fast with 503 so the client retries later instead of holding a thread.
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        Map<String, String> response = new HashMap<>();
+
+        response.put("error", "Service Unavailable");
+        response.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // 4. Handle a busy or unreachable database (deadlock, serialization failure, lock or pool timeout)
+    // Nothing was wrong with the request, so tell the client to retry it.
+    @ExceptionHandler({TransientDataAccessException.class, DataAccessResourceFailureException.class,
+            CannotCreateTransactionException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseBusy(RuntimeException ex) {
+        Map<String, String> response = new HashMap<>();
+
+        response.put("error", "Service Unavailable");
+        response.put("message", "The database is busy. Please retry the request.");
+
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // 5. Handle Global/System Errors (e.g. NullPointer, Database down)
     // We DO NOT want to show the user the internal "NullPointerException" text.
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGlobalException(Exception ex) {
@@ -0,0 +1,10 @@
+package com.ledger.digital.personal.exception;
+
+// Thrown when a bounded resource (e.g. the password hashing pool) is saturated.
+// Mapped to 503 so clients back off and retry instead of queueing forever.
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
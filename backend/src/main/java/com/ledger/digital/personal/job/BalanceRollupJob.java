@@ -0,0 +1,78 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.AccountDailyBalanceRepository;
+import com.ledger.digital.personal.repo.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Rebuilds account_daily_balances from the journal, a chunk of accounts per transaction.
+// Accounts without rows (opened before rollups existed) get their whole history backfilled;
+// the rest only have the last repair-days settled days recomputed, which corrects anything the
+// in-transaction updates got wrong around midnight. The current day is never touched here.
+@Component
+public class BalanceRollupJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceRollupJob.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountDailyBalanceRepository rollupRepository;
+    private final Duration interval;
+    private final Duration settleLag;
+    private final int repairDays;
+    private final int chunkSize;
+
+    public BalanceRollupJob(AccountRepository accountRepository,
+                            AccountDailyBalanceRepository rollupRepository,
+                            @Value("${ledger.jobs.balance-rollup.interval-minutes:60}") long intervalMinutes,
+                            @Value("${ledger.jobs.balance-rollup.settle-lag-seconds:60}") long settleLagSeconds,
+                            @Value("${ledger.jobs.balance-rollup.repair-days:2}") int repairDays,
+                            @Value("${ledger.jobs.balance-rollup.chunk-size:200}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.rollupRepository = rollupRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.settleLag = Duration.ofSeconds(settleLagSeconds);
+        this.repairDays = Math.max(1, repairDays);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public String name() {
+        return "balance-rollup";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        // Days strictly before this one are settled: no transaction still writes to them
+        LocalDate before = now.minus(settleLag).toLocalDate();
+        LocalDate since = before.minusDays(repairDays);
+
+        long rows = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = accountRepository.findIdsAfter(afterId, Limit.of(chunkSize));
+            if (!ids.isEmpty()) {
+                rows += rollupRepository.rebuild(ids, since, before, now);
+                afterId = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == chunkSize);
+
+        if (rows > 0) {
+            log.info("Rebuilt {} daily balance rows", rows);
+        }
+    }
+}
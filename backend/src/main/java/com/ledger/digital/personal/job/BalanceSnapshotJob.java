@@ -0,0 +1,49 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.BalanceSnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Periodically folds new journal entries into per-account/budget balance snapshots,
+// keeping balance reconstruction to a snapshot read plus a short tail of entries.
+@Component
+public class BalanceSnapshotJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceSnapshotJob.class);
+
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final Duration interval;
+    private final Duration settleLag;
+
+    public BalanceSnapshotJob(BalanceSnapshotRepository balanceSnapshotRepository,
+                              @Value("${ledger.jobs.balance-snapshot.interval-minutes:60}") long intervalMinutes,
+                              @Value("${ledger.jobs.balance-snapshot.settle-lag-seconds:60}") long settleLagSeconds) {
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.settleLag = Duration.ofSeconds(settleLagSeconds);
+    }
+
+    @Override
+    public String name() {
+        return "balance-snapshot";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        int taken = balanceSnapshotRepository.takeSnapshots(now, now.minus(settleLag));
+        if (taken > 0) {
+            log.info("Took {} balance snapshots", taken);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.ForgotPasswordTokenRepository;
+import com.ledger.digital.personal.repo.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Removes expired password-reset tokens in small chunks (each chunk is its own transaction,
+// driven by the index on forgot_password_tokens.expiry) and clears stale users.reset_token values.
+@Component
+public class ExpiredTokenSweepJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiredTokenSweepJob.class);
+
+    private final ForgotPasswordTokenRepository tokenRepository;
+    private final UserRepository userRepository;
+    private final Duration interval;
+    private final int chunkSize;
+
+    public ExpiredTokenSweepJob(ForgotPasswordTokenRepository tokenRepository,
+                                UserRepository userRepository,
+                                @Value("${ledger.jobs.token-sweep.interval-minutes:15}") long intervalMinutes,
+                                @Value("${ledger.jobs.token-sweep.chunk-size:1000}") int chunkSize) {
+        this.tokenRepository = tokenRepository;
+        this.userRepository = userRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public String name() {
+        return "expired-token-sweep";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = tokenRepository.deleteExpiredChunk(now, chunkSize);
+            deleted += chunk;
+        } while (chunk == chunkSize);
+
+        int cleared = userRepository.clearExpiredResetTokens(now);
+
+        if (deleted > 0 || cleared > 0) {
+            log.info("Token sweep removed {} expired reset tokens and cleared {} user reset tokens", deleted, cleared);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Deletes idempotency_keys rows past their TTL, in chunks driven by the expires_at index
+@Component
+public class IdempotencyKeySweepJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeySweepJob.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration interval;
+    private final int chunkSize;
+
+    public IdempotencyKeySweepJob(IdempotencyRecordRepository repository,
+                                  @Value("${ledger.jobs.idempotency-sweep.interval-minutes:30}") long intervalMinutes,
+                                  @Value("${ledger.jobs.idempotency-sweep.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public String name() {
+        return "idempotency-key-sweep";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = repository.deleteExpiredChunk(now, chunkSize);
+            deleted += chunk;
+        } while (chunk == chunkSize);
+
+        if (deleted > 0) {
+            log.info("Removed {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.ScheduledJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+// Database-coordinated scheduler for MaintenanceJobs.
+// Claiming a run locks the job row with FOR UPDATE SKIP LOCKED, advances next_run_at and takes a lease
+// (running_until) in one short transaction; the job itself runs outside it on its own virtual thread.
+// While it runs, every tick renews the lease, so a run longer than its interval (or than the lease) is
+// never started a second time on another instance. A crashed instance stops renewing and its lease
+// runs out. A slow job no longer holds up the others, which used to share the scheduling thread.
+@Component
+public class JobScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(JobScheduler.class);
+
+    private final List<MaintenanceJob> jobs;
+    private final ScheduledJobRepository scheduledJobRepository;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+    private final Duration lease;
+    private final String instanceId;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Runs in progress on this instance, by job name
+    private final Map<String, Future<?>> running = new ConcurrentHashMap<>();
+
+    public JobScheduler(List<MaintenanceJob> jobs,
+                        ScheduledJobRepository scheduledJobRepository,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${ledger.jobs.lease-seconds:60}") long leaseSeconds) {
+        this.jobs = jobs;
+        this.scheduledJobRepository = scheduledJobRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.instanceId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerJobs() {
+        for (MaintenanceJob job : jobs) {
+            tx.executeWithoutResult(s -> scheduledJobRepository.register(job.name(), LocalDateTime.now()));
+        }
+        log.info("Job scheduler {} registered jobs {}", instanceId, jobs.stream().map(MaintenanceJob::name).toList());
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.jobs.poll-millis:1000}", initialDelayString = "${ledger.jobs.poll-millis:1000}")
+    public void tick() {
+        renewLeases();
+        for (MaintenanceJob job : jobs) {
+            if (!running.containsKey(job.name()) && claim(job)) {
+                // Registered before it starts so the run's own removal can't come first
+                FutureTask<Void> run = new FutureTask<>(() -> execute(job), null);
+                running.put(job.name(), run);
+                executor.execute(run);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean claim(MaintenanceJob job) {
+        Boolean claimed = tx.execute(s -> {
+            LocalDateTime now = LocalDateTime.now();
+            return scheduledJobRepository.lockIfDue(job.name(), now)
+                    .map(row -> {
+                        row.setNextRunAt(now.plus(job.interval()));
+                        row.setLastStartedAt(now);
+                        row.setLastRunBy(instanceId);
+                        row.setRunningUntil(now.plus(lease));
+                        return true;
+                    })
+                    .orElse(false);
+        });
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    private void renewLeases() {
+        running.forEach((name, run) -> {
+            try {
+                Integer renewed = tx.execute(s ->
+                        scheduledJobRepository.renewLease(name, instanceId, LocalDateTime.now().plus(lease)));
+                if (renewed != null && renewed == 0) {
+                    // Lease ran out (e.g. a long pause) and another instance claimed the job; stop ours
+                    log.warn("Job {} lost its lease, interrupting the local run", name);
+                    run.cancel(true);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew lease of job {}: {}", name, e.getMessage());
+            }
+        });
+    }
+
+    private void execute(MaintenanceJob job) {
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            job.run();
+        } catch (RuntimeException e) {
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            Counter.builder("ledger.jobs.failures").tag("job", job.name()).register(meterRegistry).increment();
+            log.error("Job {} failed", job.name(), e);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        Timer.builder("ledger.jobs.duration").tag("job", job.name()).register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        try {
+            tx.executeWithoutResult(s -> scheduledJobRepository.finish(job.name(), instanceId, LocalDateTime.now(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), lastError));
+        } catch (RuntimeException e) {
+            // The lease simply runs out
+            log.warn("Could not release lease of job {}: {}", job.name(), e.getMessage());
+        } finally {
+            running.remove(job.name());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
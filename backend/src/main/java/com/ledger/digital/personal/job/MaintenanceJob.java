@@ -0,0 +1,15 @@
+package com.ledger.digital.personal.job;
+
+import java.time.Duration;
+
+// A periodic task run by JobScheduler exactly once per interval across all app instances.
+// Implementations are plain Spring beans; the scheduler picks them up automatically.
+public interface MaintenanceJob {
+
+    // Unique, stable name; used as the scheduled_jobs primary key and metric tag
+    String name();
+
+    Duration interval();
+
+    void run();
+}
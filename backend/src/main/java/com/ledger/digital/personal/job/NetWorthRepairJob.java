@@ -0,0 +1,96 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.service.NetWorthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recomputes every user's net_worth_summaries row from the source tables and counts rows whose
+// incrementally maintained totals had drifted. Users are rebuilt concurrently, each in its own
+// transaction, with at most `parallelism` database connections in use at once.
+@Component
+public class NetWorthRepairJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NetWorthRepairJob.class);
+
+    private final UserRepository userRepository;
+    private final NetWorthService netWorthService;
+    private final Counter driftCounter;
+    private final Duration interval;
+    private final int parallelism;
+    private final int pageSize;
+
+    public NetWorthRepairJob(UserRepository userRepository,
+                             NetWorthService netWorthService,
+                             MeterRegistry meterRegistry,
+                             @Value("${ledger.jobs.net-worth-repair.interval-minutes:360}") long intervalMinutes,
+                             @Value("${ledger.jobs.net-worth-repair.parallelism:4}") int parallelism,
+                             @Value("${ledger.jobs.net-worth-repair.page-size:500}") int pageSize) {
+        this.userRepository = userRepository;
+        this.netWorthService = netWorthService;
+        this.driftCounter = Counter.builder("ledger.networth.drift")
+                .description("Net-worth summary rows corrected by the repair job")
+                .register(meterRegistry);
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.parallelism = Math.max(1, parallelism);
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    @Override
+    public String name() {
+        return "net-worth-repair";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        AtomicInteger checked = new AtomicInteger();
+        AtomicInteger drifted = new AtomicInteger();
+        Semaphore permits = new Semaphore(parallelism);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = 0;
+            List<Long> ids;
+            do {
+                ids = userRepository.findIdsAfter(afterId, Limit.of(pageSize));
+                for (Long userId : ids) {
+                    permits.acquireUninterruptibly();
+                    executor.submit(() -> {
+                        try {
+                            if (netWorthService.rebuild(userId).drifted()) {
+                                drifted.incrementAndGet();
+                            }
+                            checked.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            log.warn("Net-worth repair failed for user {}", userId, e);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+                if (!ids.isEmpty()) afterId = ids.get(ids.size() - 1);
+            } while (ids.size() == pageSize);
+        }
+
+        if (drifted.get() > 0) {
+            driftCounter.increment(drifted.get());
+            log.warn("Net-worth repair corrected {} of {} user summaries", drifted.get(), checked.get());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.PartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+// Keeps the monthly partitions of credits, debts and investment ahead of the clock so new rows
+// never land in the default partition, and optionally detaches months past the retention window.
+// Backdated rows for months that have no partition yet go to the default partition at first; each
+// run gives those months their partition and moves the rows in.
+// Detached partitions remain as standalone <table>_pYYYY_MM tables for archiving.
+@Component
+public class PartitionMaintenanceJob implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceJob.class);
+
+    private static final List<String> TABLES = List.of("credits", "debts", "investment");
+
+    private final PartitionRepository partitionRepository;
+    private final Duration interval;
+    private final int monthsAhead;
+    private final int retainMonths;
+
+    public PartitionMaintenanceJob(PartitionRepository partitionRepository,
+                                   @Value("${ledger.jobs.partitions.interval-minutes:60}") long intervalMinutes,
+                                   @Value("${ledger.jobs.partitions.months-ahead:3}") int monthsAhead,
+                                   @Value("${ledger.jobs.partitions.retain-months:0}") int retainMonths) {
+        this.partitionRepository = partitionRepository;
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.retainMonths = retainMonths;
+    }
+
+    @Override
+    public String name() {
+        return "partition-maintenance";
+    }
+
+    @Override
+    public Duration interval() {
+        return interval;
+    }
+
+    @Override
+    public void run() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+
+        for (String table : TABLES) {
+            int created = 0;
+            for (int i = 0; i <= monthsAhead; i++) {
+                if (partitionRepository.ensureMonth(table, thisMonth.plusMonths(i))) created++;
+            }
+            if (created > 0) {
+                log.info("Created {} partitions of {}", created, table);
+            }
+
+            int drained = partitionRepository.drainDefault(table,
+                    retainMonths > 0 ? thisMonth.minusMonths(retainMonths) : null);
+            if (drained > 0) {
+                log.info("Moved default-partition rows of {} into {} new past partitions", table, drained);
+            }
+
+            // 0 keeps every month attached
+            if (retainMonths > 0) {
+                int detached = partitionRepository.detachBefore(table, thisMonth.minusMonths(retainMonths));
+                if (detached > 0) {
+                    log.info("Detached {} partitions of {} older than {} months", detached, table, retainMonths);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ledger.digital.personal.job;
+
+import com.ledger.digital.personal.repo.RecurringRuleRepository;
+import com.ledger.digital.personal.repo.RuleSchedule;
+import com.ledger.digital.personal.service.RecurringRuleService;
+import com.ledger.digital.personal.service.RecurringWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongFunction;
+
+// In-process timer for recurring rules. Every active rule sits in the RecurringWheel at its next
+// occurrence; each tick takes what came due and hands it to RecurringRuleService in batches.
+// On startup the whole table is loaded, so occurrences missed while the app was down come due on the
+// first tick and are caught up. Rules created or changed on other instances are picked up by refill.
+// Several instances may time the same rule; the row lock in RecurringRuleService posts it once.
+@Component
+public class RecurringScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringScheduler.class);
+
+    private static final int LOAD_PAGE = 10_000;
+
+    private final RecurringRuleRepository recurringRuleRepository;
+    private final RecurringRuleService recurringRuleService;
+    private final RecurringWheel recurringWheel;
+    private final int batchSize;
+    private final Duration refillInterval;
+    private final long retrySeconds;
+
+    private volatile boolean loaded;
+    private LocalDateTime lastRefill;
+
+    public RecurringScheduler(RecurringRuleRepository recurringRuleRepository,
+                              RecurringRuleService recurringRuleService,
+                              RecurringWheel recurringWheel,
+                              @Value("${ledger.recurring.batch-size:200}") int batchSize,
+                              @Value("${ledger.recurring.refill-seconds:60}") long refillSeconds,
+                              @Value("${ledger.recurring.retry-seconds:300}") long retrySeconds) {
+        this.recurringRuleRepository = recurringRuleRepository;
+        this.recurringRuleService = recurringRuleService;
+        this.recurringWheel = recurringWheel;
+        this.batchSize = batchSize;
+        this.refillInterval = Duration.ofSeconds(refillSeconds);
+        this.retrySeconds = retrySeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime started = LocalDateTime.now();
+        int count = loadPages(afterId -> recurringRuleRepository.findActiveAfter(afterId, Limit.of(LOAD_PAGE)));
+        lastRefill = started;
+        loaded = true;
+        log.info("Recurring scheduler loaded {} active rules", count);
+    }
+
+    @Scheduled(fixedDelayString = "${ledger.recurring.tick-millis:1000}", initialDelayString = "${ledger.recurring.tick-millis:1000}")
+    public void tick() {
+        if (!loaded) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(lastRefill.plus(refillInterval))) {
+            refill(now);
+        }
+
+        List<Long> due = recurringWheel.due(now);
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                for (RecurringRuleService.Next next : recurringRuleService.runDue(batch, now)) {
+                    if (next.at() != null) {
+                        recurringWheel.schedule(next.ruleId(), next.at());
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Not even the failure could be recorded (database down); keep the rules and try later
+                log.error("Recurring batch of {} rules failed", batch.size(), e);
+                batch.forEach(id -> recurringWheel.schedule(id, now.plusSeconds(retrySeconds)));
+            }
+        }
+    }
+
+    // Overlaps the previous refill by one interval so a change committed late is still seen
+    private void refill(LocalDateTime now) {
+        LocalDateTime since = lastRefill.minus(refillInterval);
+        try {
+            loadPages(afterId -> recurringRuleRepository.findChangedSince(since, afterId, Limit.of(LOAD_PAGE)));
+            lastRefill = now;
+        } catch (RuntimeException e) {
+            log.warn("Recurring refill failed: {}", e.getMessage());
+        }
+    }
+
+    private int loadPages(LongFunction<List<RuleSchedule>> page) {
+        int count = 0;
+        long afterId = 0;
+        List<RuleSchedule> rows;
+        do {
+            rows = page.apply(afterId);
+            for (RuleSchedule row : rows) {
+                recurringWheel.schedule(row.getId(), row.getNextRunAt());
+                afterId = row.getId();
+            }
+            count += rows.size();
+        } while (rows.size() == LOAD_PAGE);
+        return count;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ledger.digital.personal.mapper;
+
+import com.ledger.digital.personal.dto.CounterpartyDto;
+import com.ledger.digital.personal.model.Counterparty;
+
+import java.util.List;
+
+public class CounterpartyMapper {
+
+    public static CounterpartyDto toDto(Counterparty c, List<String> aliases) {
+        if (c == null) return null;
+        CounterpartyDto dto = new CounterpartyDto();
+        dto.setId(c.getId());
+        dto.setName(c.getName());
+        dto.setAliases(aliases);
+        return dto;
+    }
+}
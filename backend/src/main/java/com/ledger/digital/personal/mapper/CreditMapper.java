@@ -11,6 +11,8 @@ public class CreditMapper {
         d.setSource(c.getSource());
         d.setAmount(c.getAmount());
         d.setNote(c.getNote());
+        d.setOccurredAt(c.getOccurredAt());
+        d.setCounterpartyId(c.getCounterparty() != null ? c.getCounterparty().getId() : null);
         return d;
     }
 
@@ -21,6 +23,7 @@ public class CreditMapper {
         c.setSource(d.getSource());
         c.setAmount(d.getAmount());
         c.setNote(d.getNote());
+        c.setOccurredAt(d.getOccurredAt());
         return c;
     }
 }
\ No newline at end of file
@@ -12,6 +12,8 @@ public class DebtMapper {
         dto.setPerson(d.getPerson());
         dto.setAmount(d.getAmount());
         dto.setGiven(d.getGiven());
+        dto.setOccurredAt(d.getOccurredAt());
+        dto.setCounterpartyId(d.getCounterparty() != null ? d.getCounterparty().getId() : null);
         return dto;
     }
 
@@ -22,6 +24,7 @@ public class DebtMapper {
         d.setPerson(dto.getPerson());
         d.setAmount(dto.getAmount());
         d.setGiven(dto.getGiven());
+        d.setOccurredAt(dto.getOccurredAt());
         return d;
     }
 }
@@ -12,6 +12,7 @@ public class InvestmentMapper {
         dto.setName(i.getName());
         dto.setValue(i.getValue());
         dto.setType(i.getType());
+        dto.setOccurredAt(i.getOccurredAt());
         dto.setAccountId(i.getAccount() != null ? i.getAccount().getId() : null);
         dto.setBudgetId(i.getBudget() != null ? i.getBudget().getId() : null);
         return dto;
@@ -24,6 +25,7 @@ public class InvestmentMapper {
         i.setName(dto.getName());
         i.setValue(dto.getValue());
         i.setType(dto.getType());
+        i.setOccurredAt(dto.getOccurredAt());
         // account and budget will be set in service
         return i;
     }
@@ -0,0 +1,19 @@
+package com.ledger.digital.personal.mapper;
+
+import com.ledger.digital.personal.dto.JournalEntryDto;
+import com.ledger.digital.personal.model.JournalEntry;
+
+public class JournalEntryMapper {
+
+    public static JournalEntryDto toDto(JournalEntry e) {
+        if (e == null) return null;
+        JournalEntryDto dto = new JournalEntryDto();
+        dto.setId(e.getId());
+        dto.setAmount(e.getAmount());
+        dto.setCauseType(e.getCauseType().name());
+        dto.setCauseId(e.getCauseId());
+        dto.setCreatedAt(e.getCreatedAt());
+        dto.setOccurredAt(e.getOccurredAt());
+        return dto;
+    }
+}
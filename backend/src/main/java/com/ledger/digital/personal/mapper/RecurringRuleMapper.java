@@ -0,0 +1,29 @@
+package com.ledger.digital.personal.mapper;
+
+import com.ledger.digital.personal.dto.RecurringRuleDto;
+import com.ledger.digital.personal.model.RecurringRule;
+
+public class RecurringRuleMapper {
+    public static RecurringRuleDto toDto(RecurringRule r) {
+        if (r == null) return null;
+        RecurringRuleDto d = new RecurringRuleDto();
+        d.setId(r.getId());
+        d.setKind(r.getKind());
+        d.setAccountId(r.getAccountId());
+        d.setBudgetId(r.getBudgetId());
+        d.setInvestmentId(r.getInvestmentId());
+        d.setAmount(r.getAmount());
+        d.setSource(r.getSource());
+        d.setNote(r.getNote());
+        d.setCron(r.getCron());
+        d.setPeriod(r.getPeriod());
+        d.setStartAt(r.getStartAt());
+        d.setEndAt(r.getEndAt());
+        d.setNextRunAt(r.getNextRunAt());
+        d.setOccurrences(r.getOccurrences());
+        d.setActive(r.isActive());
+        d.setLastRunAt(r.getLastRunAt());
+        d.setLastError(r.getLastError());
+        return d;
+    }
+}
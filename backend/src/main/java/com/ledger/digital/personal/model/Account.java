@@ -2,14 +2,19 @@ package com.ledger.digital.personal.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
+// Only changed columns are written, so a name edit never overwrites a concurrent balance increment.
 @Entity
-@Table(name = "accounts")
+@DynamicUpdate
+@Table(name = "accounts",
+        indexes = @Index(name = "idx_accounts_owner_id", columnList = "user_id, id"))
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
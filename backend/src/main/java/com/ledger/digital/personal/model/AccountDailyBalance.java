@@ -0,0 +1,84 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Per-account, per-day rollup of the journal. closingBalance is the sum of every journal entry of the
+// account up to the end of the day; BalanceRollupService shifts it onto Account.balance when reading,
+// which covers accounts whose opening balance predates the journal. Written only by native upserts.
+@Entity
+@Immutable
+@IdClass(AccountDailyBalance.Key.class)
+@Table(name = "account_daily_balances")
+public class AccountDailyBalance {
+
+    public record Key(Long accountId, LocalDate day) implements Serializable {
+    }
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Sum of positive entries of the day
+    @Column(nullable = false)
+    private BigDecimal credits;
+
+    // Sum of negative entries of the day, as a positive number
+    @Column(nullable = false)
+    private BigDecimal debits;
+
+    @Column(nullable = false)
+    private BigDecimal closingBalance;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Last written by BalanceRollupJob's rebuild rather than the live upsert
+    @Column(nullable = false)
+    private boolean settled;
+
+    protected AccountDailyBalance() {
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getCredits() {
+        return credits;
+    }
+
+    public BigDecimal getDebits() {
+        return debits;
+    }
+
+    public BigDecimal getClosingBalance() {
+        return closingBalance;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public boolean isSettled() {
+        return settled;
+    }
+}
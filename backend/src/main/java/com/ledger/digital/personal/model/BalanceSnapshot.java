@@ -0,0 +1,62 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Balance of an account/budget after applying every journal entry up to lastEntryId.
+@Entity
+@Immutable
+@Table(name = "balance_snapshots",
+        indexes = @Index(name = "idx_snapshot_target", columnList = "target, targetId, lastEntryId"))
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JournalEntry.Target target;
+
+    @Column(nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    protected BalanceSnapshot() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public JournalEntry.Target getTarget() {
+        return target;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public Long getLastEntryId() {
+        return lastEntryId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
@@ -1,11 +1,15 @@
 package com.ledger.digital.personal.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
+// Only changed columns are written, so a rename never overwrites a concurrent amount change
 @Entity
-@Table(name = "budgets")
+@DynamicUpdate
+@Table(name = "budgets",
+        indexes = @Index(name = "idx_budgets_owner_id", columnList = "user_id, id"))
 public class Budget {
 
     @Id
@@ -17,7 +21,7 @@ public class Budget {
     private BigDecimal amount;
 
     // Add this for user reference
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -0,0 +1,78 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Someone a user lends to, borrows from or receives money from. Debts and credits point here,
+// and CounterpartyAlias maps every spelling of the name to it.
+@Entity
+@Table(name = "counterparties",
+        indexes = @Index(name = "idx_counterparties_user", columnList = "user_id, name"))
+public class Counterparty {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "counterparties_seq")
+    @SequenceGenerator(name = "counterparties_seq", sequenceName = "counterparties_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // Display name, as first written
+    @Column(nullable = false)
+    private String name;
+
+    // Normalized name; always one of the aliases and cannot be removed
+    @Column(nullable = false)
+    private String normalizedKey;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Set once this counterparty was merged into another; it then only forwards to that one
+    private Long mergedInto;
+
+    protected Counterparty() {
+    }
+
+    public Counterparty(User user, String name, String normalizedKey) {
+        this.user = user;
+        this.name = name;
+        this.normalizedKey = normalizedKey;
+    }
+
+    // Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getNormalizedKey() {
+        return normalizedKey;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getMergedInto() {
+        return mergedInto;
+    }
+
+    public void setMergedInto(Long mergedInto) {
+        this.mergedInto = mergedInto;
+    }
+}
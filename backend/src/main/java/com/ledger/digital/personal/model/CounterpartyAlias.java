@@ -0,0 +1,40 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+// A normalized name that resolves to a counterparty. Keyed by (user, alias) so resolving a name
+// is a single primary-key lookup.
+@Entity
+@IdClass(CounterpartyAlias.Key.class)
+@Table(name = "counterparty_aliases")
+public class CounterpartyAlias {
+
+    public record Key(Long userId, String aliasKey) implements Serializable {
+    }
+
+    @Id
+    private Long userId;
+
+    @Id
+    private String aliasKey;
+
+    @Column(nullable = false)
+    private Long counterpartyId;
+
+    protected CounterpartyAlias() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getAliasKey() {
+        return aliasKey;
+    }
+
+    public Long getCounterpartyId() {
+        return counterpartyId;
+    }
+}
@@ -3,22 +3,41 @@ package com.ledger.digital.personal.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "credits")
+@Table(name = "credits",
+        indexes = @Index(name = "idx_credits_owner_id", columnList = "account_id, id"))
 public class Credit {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "credits_seq")
+    @SequenceGenerator(name = "credits_seq", sequenceName = "credits_seq", allocationSize = 50)
     private Long id;
 
     private String source; // Person / entity giving money
     private BigDecimal amount;
     private String note;
 
-    @ManyToOne
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt; // when the money came in; partition key of the table
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "counterparty_id")
+    private Counterparty counterparty; // resolved from source
+
+    @PrePersist
+    void stamp() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (occurredAt == null) occurredAt = createdAt;
+    }
+
     // Getters & Setters
     public Long getId() {
         return id;
@@ -59,4 +78,24 @@ public class Credit {
     public void setAccount(Account account) {
         this.account = account;
     }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Counterparty getCounterparty() {
+        return counterparty;
+    }
+
+    public void setCounterparty(Counterparty counterparty) {
+        this.counterparty = counterparty;
+    }
 }
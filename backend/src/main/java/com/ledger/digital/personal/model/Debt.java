@@ -3,12 +3,15 @@ package com.ledger.digital.personal.model;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "debts")
+@Table(name = "debts",
+        indexes = @Index(name = "idx_debts_owner_id", columnList = "user_id, id"))
 public class Debt {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "debts_seq")
+    @SequenceGenerator(name = "debts_seq", sequenceName = "debts_seq", allocationSize = 50)
     private Long id;
 
     private String person; // Name of the person
@@ -17,10 +20,26 @@ public class Debt {
 
     private Boolean given; // true if user gave money to this person, false if user owes
 
-    @ManyToOne
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt; // when the debt arose; partition key of the table
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user; // link to owner user
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "counterparty_id")
+    private Counterparty counterparty; // resolved from person
+
+    @PrePersist
+    void stamp() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (occurredAt == null) occurredAt = createdAt;
+    }
+
     // Getters & Setters
     public Long getId() {
         return id;
@@ -61,4 +80,24 @@ public class Debt {
     public void setUser(User user) {
         this.user = user;
     }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Counterparty getCounterparty() {
+        return counterparty;
+    }
+
+    public void setCounterparty(Counterparty counterparty) {
+        this.counterparty = counterparty;
+    }
 }
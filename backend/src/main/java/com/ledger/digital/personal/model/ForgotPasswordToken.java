@@ -5,7 +5,8 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "forgot_password_tokens")
+@Table(name = "forgot_password_tokens",
+        indexes = @Index(name = "idx_forgot_password_tokens_expiry", columnList = "expiry"))
 public class ForgotPasswordToken {
 
     @Id
@@ -0,0 +1,78 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Persistent tier of the idempotency store; written only through IdempotencyRecordRepository's statements
+@Entity
+@Immutable
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    private String scopeKey;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // SHA-256 of method, path and body of the first request
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Integer responseStatus;
+
+    private String contentType;
+
+    private byte[] responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    protected IdempotencyRecord() {
+    }
+
+    // Getters only
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
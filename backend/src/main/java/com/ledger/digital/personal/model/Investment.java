@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_investment_owner_id", columnList = "user_id, id"))
 public class Investment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "investment_seq")
+    @SequenceGenerator(name = "investment_seq", sequenceName = "investment_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Investment name is required")
@@ -21,15 +24,27 @@ public class Investment {
     @NotNull(message = "Investment type is required")
     private String type;
 
-    @ManyToOne
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt; // when it was bought; partition key of the table
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;  // optional, if investment linked to account
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Budget budget;    // optional, if investment linked to budget
 
+    @PrePersist
+    void stamp() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (occurredAt == null) occurredAt = createdAt;
+    }
+
     // Getters & setters
     public Long getId() {
         return id;
@@ -82,4 +97,16 @@ public class Investment {
     public String getType() { return type; }
 
     public void setType(String type) { this.type = type; }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
 }
@@ -0,0 +1,109 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Append-only record of a single balance change on an account or budget.
+// Rows are never updated or deleted: balance = latest BalanceSnapshot + entries after it.
+@Entity
+@Immutable
+@Table(name = "journal_entries",
+        indexes = {
+                @Index(name = "idx_journal_target", columnList = "target, targetId, id"),
+                @Index(name = "idx_journal_user_created", columnList = "userId, createdAt"),
+                @Index(name = "idx_journal_target_occurred", columnList = "target, targetId, occurredAt")
+        })
+public class JournalEntry {
+
+    public enum Target { ACCOUNT, BUDGET }
+
+    public enum Cause { OPENING, ADJUSTMENT, CREDIT, DEBT, INVESTMENT, BUDGET_CLOSE, SETTLEMENT }
+
+    // Not pooled: ids follow insert order across instances, which balance snapshots rely on
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_entries_seq")
+    @SequenceGenerator(name = "journal_entries_seq", sequenceName = "journal_entries_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Target target;
+
+    @Column(nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Signed: positive adds to the balance, negative removes from it
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Cause causeType;
+
+    private Long causeId;
+
+    // When the row was written; balance snapshots order by it, so it is never backdated
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // When the change happened: a catch-up occurrence is dated when it was due. Rollups and history use it.
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    protected JournalEntry() {
+    }
+
+    public JournalEntry(Target target, Long targetId, Long userId, BigDecimal amount, Cause causeType, Long causeId,
+                        LocalDateTime occurredAt) {
+        this.target = target;
+        this.targetId = targetId;
+        this.userId = userId;
+        this.amount = amount;
+        this.causeType = causeType;
+        this.causeId = causeId;
+        this.occurredAt = occurredAt != null ? occurredAt : createdAt;
+    }
+
+    // Getters only, entries are immutable
+    public Long getId() {
+        return id;
+    }
+
+    public Target getTarget() {
+        return target;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Cause getCauseType() {
+        return causeType;
+    }
+
+    public Long getCauseId() {
+        return causeId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,96 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// One row per user with running totals. Only written through NetWorthSummaryRepository's
+// delta/overwrite statements, never through entity updates.
+@Entity
+@Immutable
+@Table(name = "net_worth_summaries")
+public class NetWorthSummary {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private BigDecimal totalBalance;
+
+    @Column(nullable = false)
+    private BigDecimal budgeted;
+
+    // Type -> total for the dashboard breakdowns; types whose total is zero are left out
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, BigDecimal> balanceByType;
+
+    @Column(nullable = false)
+    private BigDecimal invested;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private Map<String, BigDecimal> investedByType;
+
+    @Column(nullable = false)
+    private BigDecimal receivable;
+
+    @Column(nullable = false)
+    private BigDecimal payable;
+
+    // Bumped by every delta and repair
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected NetWorthSummary() {
+    }
+
+    // Getters only, rows change through native statements
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getTotalBalance() {
+        return totalBalance;
+    }
+
+    public BigDecimal getBudgeted() {
+        return budgeted;
+    }
+
+    public Map<String, BigDecimal> getBalanceByType() {
+        return balanceByType;
+    }
+
+    public BigDecimal getInvested() {
+        return invested;
+    }
+
+    public Map<String, BigDecimal> getInvestedByType() {
+        return investedByType;
+    }
+
+    public BigDecimal getReceivable() {
+        return receivable;
+    }
+
+    public BigDecimal getPayable() {
+        return payable;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One row per MaintenanceJob; the row lock decides which instance runs a given period.
+@Entity
+@Table(name = "scheduled_jobs")
+public class ScheduledJob {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+
+    private LocalDateTime lastStartedAt;
+
+    private LocalDateTime lastFinishedAt;
+
+    private Long lastDurationMillis;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private String lastRunBy;
+
+    // Lease of the run in progress; null when the job is idle
+    private LocalDateTime runningUntil;
+
+    // Getters and setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public LocalDateTime getLastStartedAt() {
+        return lastStartedAt;
+    }
+
+    public void setLastStartedAt(LocalDateTime lastStartedAt) {
+        this.lastStartedAt = lastStartedAt;
+    }
+
+    public LocalDateTime getLastFinishedAt() {
+        return lastFinishedAt;
+    }
+
+    public void setLastFinishedAt(LocalDateTime lastFinishedAt) {
+        this.lastFinishedAt = lastFinishedAt;
+    }
+
+    public Long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    public void setLastDurationMillis(Long lastDurationMillis) {
+        this.lastDurationMillis = lastDurationMillis;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getLastRunBy() {
+        return lastRunBy;
+    }
+
+    public void setLastRunBy(String lastRunBy) {
+        this.lastRunBy = lastRunBy;
+    }
+
+    public LocalDateTime getRunningUntil() {
+        return runningUntil;
+    }
+
+    public void setRunningUntil(LocalDateTime runningUntil) {
+        this.runningUntil = runningUntil;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// An applied debt settlement. The debts it closed are gone; this row and its SettlementTransfers
+// are what remains of them.
+@Entity
+@Table(name = "settlements",
+        indexes = @Index(name = "idx_settlements_owner_id", columnList = "user_id, id"))
+public class Settlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlements_seq")
+    @SequenceGenerator(name = "settlements_seq", sequenceName = "settlements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    // Account the user's net share was paid from or into; null when the net share was zero
+    private Long accountId;
+
+    private int debtCount;
+
+    @Column(nullable = false)
+    private BigDecimal grossAmount;
+
+    @Column(nullable = false)
+    private BigDecimal netToUser;
+
+    @Column(nullable = false)
+    private BigDecimal transferredAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime appliedAt = LocalDateTime.now();
+
+    protected Settlement() {
+    }
+
+    public Settlement(Long userId, Long accountId, int debtCount, BigDecimal grossAmount,
+                      BigDecimal netToUser, BigDecimal transferredAmount) {
+        this.userId = userId;
+        this.accountId = accountId;
+        this.debtCount = debtCount;
+        this.grossAmount = grossAmount;
+        this.netToUser = netToUser;
+        this.transferredAmount = transferredAmount;
+    }
+
+    // Getters only
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public int getDebtCount() {
+        return debtCount;
+    }
+
+    public BigDecimal getGrossAmount() {
+        return grossAmount;
+    }
+
+    public BigDecimal getNetToUser() {
+        return netToUser;
+    }
+
+    public BigDecimal getTransferredAmount() {
+        return transferredAmount;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ledger.digital.personal.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+// One payment of an applied settlement. A null counterparty id stands for the user; the names are
+// kept as they were when the settlement was applied.
+@Entity
+@Table(name = "settlement_transfers",
+        indexes = @Index(name = "idx_settlement_transfers_settlement", columnList = "settlement_id"))
+public class SettlementTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "settlement_transfers_seq")
+    @SequenceGenerator(name = "settlement_transfers_seq", sequenceName = "settlement_transfers_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long settlementId;
+
+    private Long fromCounterpartyId;
+
+    private Long toCounterpartyId;
+
+    @Column(nullable = false)
+    private String fromName;
+
+    @Column(nullable = false)
+    private String toName;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    protected SettlementTransfer() {
+    }
+
+    public SettlementTransfer(Long settlementId, Long fromCounterpartyId, String fromName,
+                              Long toCounterpartyId, String toName, BigDecimal amount) {
+        this.settlementId = settlementId;
+        this.fromCounterpartyId = fromCounterpartyId;
+        this.fromName = fromName;
+        this.toCounterpartyId = toCounterpartyId;
+        this.toName = toName;
+        this.amount = amount;
+    }
+
+    // Getters only
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSettlementId() {
+        return settlementId;
+    }
+
+    public Long getFromCounterpartyId() {
+        return fromCounterpartyId;
+    }
+
+    public Long getToCounterpartyId() {
+        return toCounterpartyId;
+    }
+
+    public String getFromName() {
+        return fromName;
+    }
+
+    public String getToName() {
+        return toName;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+}
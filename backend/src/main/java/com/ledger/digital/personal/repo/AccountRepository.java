@@ -2,12 +2,46 @@ package com.ledger.digital.personal.repo;
 
 import com.ledger.digital.personal.model.Account;
 import com.ledger.digital.personal.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, JpaSpecificationExecutor<Account> {
 
 
     List<Account> findByUser(User user);
-}
\ No newline at end of file
+
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    // Ownership checked in the query; the user is never loaded
+    Optional<Account> findByIdAndUserId(Long id, Long userId);
+
+    // Per-type totals, recomputed by the net-worth repair
+    @Query("select a.type as type, coalesce(sum(a.balance), 0) as total from Account a " +
+            "where a.user.id = :userId group by a.type")
+    List<TypeTotal> sumBalanceByType(@Param("userId") Long userId);
+
+    @Query("select coalesce(sum(a.balance), 0) from Account a where a.user.id = :userId")
+    BigDecimal sumBalance(@Param("userId") Long userId);
+
+    // Atomic balance change in the database (no read-modify-write, no lost updates).
+    // Returns 0 when the account does not exist or belongs to another user.
+    @Modifying(flushAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :delta where a.id = :id and a.user.id = :userId")
+    int addToBalance(@Param("id") Long id, @Param("userId") Long userId, @Param("delta") BigDecimal delta);
+
+    // Keyset walk over all accounts for maintenance jobs
+    // Scopes queries on tables keyed by account_id, so they can use their (account_id, ...) indexes
+    @Query("select a.id from Account a where a.user.id = :userId order by a.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select a.id from Account a where a.id > :afterId order by a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+}
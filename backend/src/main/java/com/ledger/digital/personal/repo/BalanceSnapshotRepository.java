@@ -0,0 +1,48 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.BalanceSnapshot;
+import com.ledger.digital.personal.model.JournalEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findTopByTargetAndTargetIdOrderByLastEntryIdDesc(JournalEntry.Target target, Long targetId);
+
+    // Roll every target with new entries forward by one snapshot.
+    // Only entries older than :settledBefore, and older than the oldest transaction still open, are
+    // folded in. An entry not committed yet was written after its transaction began, so a snapshot
+    // taken past it can't skip it however long that transaction runs.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "balance_snapshots"))
+    @Transactional
+    @Query(value = """
+            insert into balance_snapshots (target, target_id, last_entry_id, balance, taken_at)
+            select e.target, e.target_id, max(e.id), coalesce(s.balance, 0) + sum(e.amount), :now
+            from journal_entries e
+            left join lateral (
+                select bs.balance, bs.last_entry_id
+                from balance_snapshots bs
+                where bs.target = e.target and bs.target_id = e.target_id
+                order by bs.last_entry_id desc
+                limit 1
+            ) s on true
+            where e.id > coalesce(s.last_entry_id, 0)
+              and e.created_at < :settledBefore
+              and e.created_at < coalesce((select min(a.xact_start) from pg_stat_activity a
+                                           where a.datname = current_database()
+                                             and a.pid <> pg_backend_pid()
+                                             and a.xact_start is not null), 'infinity')
+            group by e.target, e.target_id, s.balance
+            """, nativeQuery = true)
+    int takeSnapshots(@Param("now") LocalDateTime now, @Param("settledBefore") LocalDateTime settledBefore);
+}
@@ -3,9 +3,25 @@ package com.ledger.digital.personal.repo;
 import com.ledger.digital.personal.model.Budget;
 import com.ledger.digital.personal.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
-public interface BudgetRepository extends JpaRepository<Budget, Long> {
+public interface BudgetRepository extends JpaRepository<Budget, Long>, JpaSpecificationExecutor<Budget> {
     List<Budget> findByUser(User user);
+
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select coalesce(sum(b.amount), 0) from Budget b where b.user.id = :userId")
+    BigDecimal sumAmount(@Param("userId") Long userId);
+
+    // Atomic amount change in the database. Returns 0 when the budget is missing or not the user's.
+    @Modifying(flushAutomatically = true)
+    @Query("update Budget b set b.amount = coalesce(b.amount, 0) + :delta where b.id = :id and b.user.id = :userId")
+    int addToAmount(@Param("id") Long id, @Param("userId") Long userId, @Param("delta") BigDecimal delta);
 }
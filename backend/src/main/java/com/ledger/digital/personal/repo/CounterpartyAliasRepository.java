@@ -0,0 +1,43 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.CounterpartyAlias;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CounterpartyAliasRepository extends JpaRepository<CounterpartyAlias, CounterpartyAlias.Key> {
+
+    @Query("select a.counterpartyId from CounterpartyAlias a where a.userId = :userId and a.aliasKey = :aliasKey")
+    Optional<Long> findCounterpartyId(@Param("userId") Long userId, @Param("aliasKey") String aliasKey);
+
+    List<CounterpartyAlias> findByCounterpartyIdInOrderByAliasKeyAsc(Collection<Long> counterpartyIds);
+
+    // Returns 0 when the alias is already taken. A concurrent claim of the same alias makes this wait
+    // for the other transaction and then report it as taken, never fail.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "counterparty_aliases"))
+    @Query(value = """
+            insert into counterparty_aliases (user_id, alias_key, counterparty_id)
+            values (:userId, :aliasKey, :counterpartyId)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("aliasKey") String aliasKey,
+              @Param("counterpartyId") Long counterpartyId);
+
+    @Modifying
+    @Query("update CounterpartyAlias a set a.counterpartyId = :target where a.counterpartyId = :source")
+    int reassign(@Param("source") Long source, @Param("target") Long target);
+
+    @Modifying
+    @Query("delete from CounterpartyAlias a where a.userId = :userId and a.aliasKey = :aliasKey and a.counterpartyId = :counterpartyId")
+    int release(@Param("userId") Long userId, @Param("aliasKey") String aliasKey,
+                @Param("counterpartyId") Long counterpartyId);
+}
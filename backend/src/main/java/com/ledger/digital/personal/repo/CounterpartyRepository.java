@@ -0,0 +1,23 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.Counterparty;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CounterpartyRepository extends JpaRepository<Counterparty, Long> {
+
+    // Tombstones of merged counterparties are left out of both
+    Optional<Counterparty> findByIdAndUserIdAndMergedIntoIsNull(Long id, Long userId);
+
+    List<Counterparty> findByUserIdAndMergedIntoIsNullOrderByNameAsc(Long userId);
+
+    // Tombstones forwarding to a counterparty that is merged in turn now forward to its target
+    @Modifying
+    @Query("update Counterparty c set c.mergedInto = :target where c.mergedInto = :source")
+    int forwardMerged(@Param("source") Long source, @Param("target") Long target);
+}
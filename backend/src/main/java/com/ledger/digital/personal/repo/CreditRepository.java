@@ -1,11 +1,36 @@
 package com.ledger.digital.personal.repo;
 
+import com.ledger.digital.personal.model.Counterparty;
 import com.ledger.digital.personal.model.Credit;
 import com.ledger.digital.personal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CreditRepository extends JpaRepository<Credit, Long> {
+public interface CreditRepository extends JpaRepository<Credit, Long>, JpaSpecificationExecutor<Credit> {
     List<Credit> findByAccountUser(User user);
+
+    // Ownership checked through the account join; neither account nor user is loaded
+    Optional<Credit> findByIdAndAccountUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("update Credit c set c.counterparty = :target where c.counterparty = :source")
+    int reassignCounterparty(@Param("source") Counterparty source, @Param("target") Counterparty target);
+
+    // Export: rows are pulled from the cursor in pages of 500 inside a read-only transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Credit c where c.account.user.id = :userId order by c.id")
+    Stream<Credit> streamByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,14 +1,57 @@
 package com.ledger.digital.personal.repo;
 
+import com.ledger.digital.personal.model.Counterparty;
 import com.ledger.digital.personal.model.Debt;
 import com.ledger.digital.personal.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface DebtRepository extends JpaRepository<Debt, Long> {
-    Optional<Debt> findByPersonAndUser(String person, User user);
-
+public interface DebtRepository extends JpaRepository<Debt, Long>, JpaSpecificationExecutor<Debt> {
     List<Debt> findByUser(User user);
+
+    Optional<Debt> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select coalesce(sum(case when d.given = true then d.amount else 0 end), 0) as lent, " +
+            "coalesce(sum(case when d.given = false then d.amount else 0 end), 0) as owed " +
+            "from Debt d where d.user.id = :userId")
+    DebtTotals sumTotals(@Param("userId") Long userId);
+
+    // Open debts with one counterparty, locked so concurrent repayments apply one after the other.
+    // Lent debts come first (money coming back from the person most likely repays them), oldest first.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Debt d where d.user.id = :userId and d.counterparty.id = :counterpartyId and d.amount > 0 " +
+            "order by d.given desc, d.occurredAt, d.id")
+    List<Debt> findOpenByCounterparty(@Param("userId") Long userId, @Param("counterpartyId") Long counterpartyId);
+
+    // Everything a settlement can net; the locking variant is used when it is applied
+    @Query("select d from Debt d where d.user.id = :userId and d.counterparty is not null and d.amount > 0 order by d.id")
+    List<Debt> findSettleable(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Debt d where d.user.id = :userId and d.counterparty is not null and d.amount > 0 order by d.id")
+    List<Debt> findSettleableForUpdate(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update Debt d set d.counterparty = :target where d.counterparty = :source")
+    int reassignCounterparty(@Param("source") Counterparty source, @Param("target") Counterparty target);
+
+    // Streamed by ExportService
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select d from Debt d where d.user.id = :userId order by d.id")
+    Stream<Debt> streamByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.ledger.digital.personal.repo;
+
+import java.math.BigDecimal;
+
+// Projection for the lent / owed split of a user's debts
+public interface DebtTotals {
+
+    BigDecimal getLent();
+
+    BigDecimal getOwed();
+}
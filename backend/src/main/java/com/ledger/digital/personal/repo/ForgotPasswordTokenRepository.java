@@ -1,8 +1,16 @@
 package com.ledger.digital.personal.repo;
 
 import com.ledger.digital.personal.model.ForgotPasswordToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface ForgotPasswordTokenRepository extends JpaRepository<ForgotPasswordToken, Long> {
@@ -10,4 +18,12 @@ public interface ForgotPasswordTokenRepository extends JpaRepository<ForgotPassw
     Optional<ForgotPasswordToken> findByToken(String token);
 
     void deleteByToken(String token);
+
+    // Delete at most :limit expired tokens; callers loop until fewer than :limit rows come back
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "forgot_password_tokens"))
+    @Transactional
+    @Query(value = "delete from forgot_password_tokens where id in " +
+            "(select id from forgot_password_tokens where expiry < :now limit :limit)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -0,0 +1,97 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.IdempotencyRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+// Called from IdempotencyFilter outside any service transaction, so each statement commits on its own,
+// except complete() of a successful request, which commits with the request's own changes
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Returns 1 when this caller now owns the key under :token. An expired row, or a claim whose lease ran
+    // out (the instance running it crashed or stopped renewing), is taken over; anything else is left alone.
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            insert into idempotency_keys (scope_key, user_id, fingerprint, completed, claim_token, lease_until,
+                                          created_at, expires_at)
+            values (:scopeKey, :userId, :fingerprint, false, :token, :leaseUntil, :now, :expiresAt)
+            on conflict (scope_key) do update
+            set user_id = excluded.user_id,
+                fingerprint = excluded.fingerprint,
+                completed = false,
+                claim_token = excluded.claim_token,
+                lease_until = excluded.lease_until,
+                response_status = null,
+                content_type = null,
+                response_body = null,
+                created_at = excluded.created_at,
+                expires_at = excluded.expires_at
+            where idempotency_keys.expires_at < :now
+               or (idempotency_keys.completed = false and idempotency_keys.lease_until < :now)
+            """, nativeQuery = true)
+    int claim(@Param("scopeKey") String scopeKey,
+              @Param("userId") Long userId,
+              @Param("fingerprint") String fingerprint,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Extends the leases of claims still running on this instance
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            update idempotency_keys set lease_until = :leaseUntil
+            where claim_token in (:tokens) and completed = false
+            """, nativeQuery = true)
+    int renew(@Param("tokens") Collection<String> tokens, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 0 when the claim was taken over; joins the request's transaction when there is one
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = """
+            update idempotency_keys
+            set completed = true, response_status = :status, content_type = :contentType, response_body = :body,
+                lease_until = null
+            where scope_key = :scopeKey and claim_token = :token and completed = false
+            """, nativeQuery = true)
+    int complete(@Param("scopeKey") String scopeKey,
+                 @Param("token") String token,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    // Give the key back (server error or aborted request) so a retry executes again
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where scope_key = :scopeKey and claim_token = :token and completed = false",
+            nativeQuery = true)
+    int release(@Param("scopeKey") String scopeKey, @Param("token") String token);
+
+    // Not read-only: must be served by the primary, a replica may not have seen the claim yet
+    @Transactional
+    @Query("select r from IdempotencyRecord r where r.scopeKey = :scopeKey")
+    Optional<IdempotencyRecord> findCurrent(@Param("scopeKey") String scopeKey);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "delete from idempotency_keys where scope_key in " +
+            "(select scope_key from idempotency_keys where expires_at < :now limit :limit)", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -2,13 +2,39 @@ package com.ledger.digital.personal.repo;
 
 import com.ledger.digital.personal.model.Investment;
 import com.ledger.digital.personal.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InvestmentRepository extends JpaRepository<Investment, Long> {
+public interface InvestmentRepository extends JpaRepository<Investment, Long>, JpaSpecificationExecutor<Investment> {
     // Fetch all investments for a specific user
     List<Investment> findByUser(User user);
+
+    Optional<Investment> findByIdAndUserId(Long id, Long userId);
+
+    @Query("select i.type as type, coalesce(sum(i.value), 0) as total from Investment i " +
+            "where i.user.id = :userId group by i.type")
+    List<TypeTotal> sumValueByType(@Param("userId") Long userId);
+
+    @Query("select coalesce(sum(i.value), 0) from Investment i where i.user.id = :userId")
+    BigDecimal sumValue(@Param("userId") Long userId);
+
+    // Streamed by ExportService
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i from Investment i where i.user.id = :userId order by i.id")
+    Stream<Investment> streamByUserId(@Param("userId") Long userId);
 }
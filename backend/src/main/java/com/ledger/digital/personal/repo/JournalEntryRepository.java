@@ -0,0 +1,50 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.JournalEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+
+    // History of one account/budget in a time window (index range scan on target, targetId, occurredAt)
+    List<JournalEntry> findByTargetAndTargetIdAndOccurredAtBetweenOrderByIdAsc(JournalEntry.Target target,
+                                                                             Long targetId,
+                                                                             LocalDateTime from,
+                                                                             LocalDateTime to);
+
+    // Sum of the entries written after a snapshot
+    @Query("select coalesce(sum(e.amount), 0) from JournalEntry e " +
+            "where e.target = :target and e.targetId = :targetId and e.id > :afterId")
+    BigDecimal sumAfter(@Param("target") JournalEntry.Target target,
+                        @Param("targetId") Long targetId,
+                        @Param("afterId") Long afterId);
+
+    // Entries of one target written as one statement (bulk import). Ids are drawn in array order as the
+    // rows are inserted, the same as saving them one by one would.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "journal_entries"))
+    @Query(value = """
+            insert into journal_entries (id, target, target_id, user_id, amount, cause_type, cause_id, created_at, occurred_at)
+            select nextval('journal_entries_seq'), :target, :targetId, :userId, p.amount, :cause, p.cause_id, :now, p.occurred_at
+            from unnest(cast(:amounts as numeric[]), cast(:causeIds as bigint[]), cast(:occurredAts as timestamp[]))
+                 with ordinality as p(amount, cause_id, occurred_at, n)
+            order by p.n
+            """, nativeQuery = true)
+    int insertAll(@Param("target") String target,
+                  @Param("targetId") Long targetId,
+                  @Param("userId") Long userId,
+                  @Param("cause") String cause,
+                  @Param("amounts") BigDecimal[] amounts,
+                  @Param("causeIds") Long[] causeIds,
+                  @Param("occurredAts") LocalDateTime[] occurredAts,
+                  @Param("now") LocalDateTime now);
+}
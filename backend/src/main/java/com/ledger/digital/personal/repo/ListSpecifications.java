@@ -0,0 +1,81 @@
+package com.ledger.digital.personal.repo;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Locale;
+
+// Filters for the paged list endpoints. Attribute paths may be dotted ("account.user.id").
+// A filter whose value is absent matches everything, so callers can chain them unconditionally.
+public final class ListSpecifications {
+
+    private ListSpecifications() {
+    }
+
+    public static <T> Specification<T> equalTo(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? cb.conjunction() : cb.equal(path(root, attribute), value);
+    }
+
+    public static <T> Specification<T> equalIgnoreCase(String attribute, String value) {
+        return (root, query, cb) -> value == null || value.isBlank()
+                ? cb.conjunction()
+                : cb.equal(cb.lower(path(root, attribute)), value.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public static <T> Specification<T> in(String attribute, Collection<?> values) {
+        return (root, query, cb) -> values.isEmpty() ? cb.disjunction() : path(root, attribute).in(values);
+    }
+
+    // Matches lower(coalesce(a, '') || ' ' || coalesce(b, '') ...), the expression of the trigram
+    // indexes from V8/V16, so the unanchored LIKE is answered by a GIN scan rather than a row filter
+    public static <T> Specification<T> containsIgnoreCase(String value, String... attributes) {
+        return (root, query, cb) -> {
+            if (value == null || value.isBlank()) return cb.conjunction();
+            // Literals, not bind parameters: the planner only matches an index expression written out in full
+            Expression<String> empty = cb.literal("");
+            Expression<String> text = cb.coalesce(path(root, attributes[0]), empty);
+            for (int i = 1; i < attributes.length; i++) {
+                text = cb.concat(cb.concat(text, cb.literal(" ")), cb.coalesce(path(root, attributes[i]), empty));
+            }
+            String escaped = value.trim().toLowerCase(Locale.ROOT)
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return cb.like(cb.lower(text), "%" + escaped + "%", '\\');
+        };
+    }
+
+    public static <T> Specification<T> between(String attribute, BigDecimal min, BigDecimal max) {
+        return (root, query, cb) -> {
+            Path<BigDecimal> amount = path(root, attribute);
+            if (min != null && max != null) return cb.between(amount, min, max);
+            if (min != null) return cb.greaterThanOrEqualTo(amount, min);
+            if (max != null) return cb.lessThanOrEqualTo(amount, max);
+            return cb.conjunction();
+        };
+    }
+
+    // Half-open [from, to) so consecutive periods never overlap; on a partition key this lets the
+    // planner skip every partition outside the range
+    public static <T, C extends Comparable<? super C>> Specification<T> during(String attribute, C from, C to) {
+        return (root, query, cb) -> {
+            Path<C> value = path(root, attribute);
+            if (from != null && to != null) return cb.and(cb.greaterThanOrEqualTo(value, from), cb.lessThan(value, to));
+            if (from != null) return cb.greaterThanOrEqualTo(value, from);
+            if (to != null) return cb.lessThan(value, to);
+            return cb.conjunction();
+        };
+    }
+
+    public static <X, Y> Path<Y> path(Root<X> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+}
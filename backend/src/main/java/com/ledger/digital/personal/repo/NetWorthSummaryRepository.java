@@ -0,0 +1,122 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.NetWorthSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface NetWorthSummaryRepository extends JpaRepository<NetWorthSummary, Long> {
+
+    // Applied inside the caller's transaction. A user without a row yet is skipped:
+    // the row is built from the source tables on first read or by the repair job.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = """
+            update net_worth_summaries
+            set budgeted = budgeted + :budgeted,
+                receivable = receivable + :receivable,
+                payable = payable + :payable,
+                version = version + 1,
+                updated_at = :now
+            where user_id = :userId
+            """, nativeQuery = true)
+    int addDelta(@Param("userId") Long userId,
+                 @Param("budgeted") BigDecimal budgeted,
+                 @Param("receivable") BigDecimal receivable,
+                 @Param("payable") BigDecimal payable,
+                 @Param("now") LocalDateTime now);
+
+    // Filed under the account's current type. Callers change the balance first, so the account row
+    // is locked and a concurrent type change (moveBalance) is ordered before or after this one.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = """
+            update net_worth_summaries
+            set total_balance = total_balance + :delta,
+                balance_by_type = ledger_add_to_total(balance_by_type,
+                        (select a.type from accounts a where a.id = :accountId), :delta),
+                version = version + 1,
+                updated_at = :now
+            where user_id = :userId
+            """, nativeQuery = true)
+    int addBalance(@Param("userId") Long userId,
+                   @Param("accountId") Long accountId,
+                   @Param("delta") BigDecimal delta,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = """
+            update net_worth_summaries
+            set invested = invested + :delta,
+                invested_by_type = ledger_add_to_total(invested_by_type, cast(:type as text), :delta),
+                version = version + 1,
+                updated_at = :now
+            where user_id = :userId
+            """, nativeQuery = true)
+    int addInvested(@Param("userId") Long userId,
+                    @Param("type") String type,
+                    @Param("delta") BigDecimal delta,
+                    @Param("now") LocalDateTime now);
+
+    // Refiles an account's balance after its type changed from fromType. The caller has flushed the
+    // new type, so the account row is locked and its balance can't move under this statement.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = """
+            update net_worth_summaries s
+            set balance_by_type = ledger_add_to_total(
+                        ledger_add_to_total(s.balance_by_type, cast(:fromType as text), -a.balance),
+                        a.type, a.balance),
+                version = s.version + 1,
+                updated_at = :now
+            from accounts a
+            where s.user_id = :userId and a.id = :accountId and a.balance is not null
+            """, nativeQuery = true)
+    int moveBalance(@Param("userId") Long userId,
+                    @Param("accountId") Long accountId,
+                    @Param("fromType") String fromType,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = "insert into net_worth_summaries (user_id, updated_at) values (:userId, :now) on conflict (user_id) do nothing",
+            nativeQuery = true)
+    void ensureRow(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    // Row lock held while recomputing, so deltas from concurrent mutations queue behind the repair
+    @Query(value = "select * from net_worth_summaries where user_id = :userId for update", nativeQuery = true)
+    NetWorthSummary lockRow(@Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "net_worth_summaries"))
+    @Query(value = """
+            update net_worth_summaries
+            set total_balance = :balance,
+                balance_by_type = cast(:balanceByType as jsonb),
+                budgeted = :budgeted,
+                invested = :invested,
+                invested_by_type = cast(:investedByType as jsonb),
+                receivable = :receivable,
+                payable = :payable,
+                version = version + 1,
+                updated_at = :now
+            where user_id = :userId
+            """, nativeQuery = true)
+    int overwrite(@Param("userId") Long userId,
+                  @Param("balance") BigDecimal balance,
+                  @Param("balanceByType") String balanceByType,
+                  @Param("budgeted") BigDecimal budgeted,
+                  @Param("invested") BigDecimal invested,
+                  @Param("investedByType") String investedByType,
+                  @Param("receivable") BigDecimal receivable,
+                  @Param("payable") BigDecimal payable,
+                  @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.OutboundMail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+    // Oldest pending mails whose retry time has come, locked; rows another sender holds are skipped
+    @Query(value = """
+            select * from outbound_mail
+            where status = 'PENDING' and next_attempt_at <= :now
+            order by id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboundMail> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,51 @@
+package com.ledger.digital.personal.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+// Calls the partition helpers defined in V6. Each call is its own transaction so a lock held by
+// ATTACH/DETACH on one table is released before the next table is touched.
+@Repository
+public class PartitionRepository {
+
+    private final EntityManager entityManager;
+
+    public PartitionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Creates the monthly partition containing the given day; false when it already exists
+    @Transactional
+    public boolean ensureMonth(String table, LocalDate month) {
+        Object created = entityManager.createNativeQuery("select ledger_ensure_month_partition(?1, ?2)")
+                .setParameter(1, table)
+                .setParameter(2, month)
+                .getSingleResult();
+        return Boolean.TRUE.equals(created);
+    }
+
+    // Creates the partitions of the months that have rows in the default partition, moving those rows
+    // in; months before notBefore (null = none) are skipped. Returns how many partitions were created.
+    @Transactional
+    public int drainDefault(String table, LocalDate notBefore) {
+        Query query = notBefore == null
+                ? entityManager.createNativeQuery("select ledger_drain_default_partition(?1)")
+                : entityManager.createNativeQuery("select ledger_drain_default_partition(?1, ?2)").setParameter(2, notBefore);
+        Object created = query.setParameter(1, table).getSingleResult();
+        return ((Number) created).intValue();
+    }
+
+    // Detaches monthly partitions that end on or before the cutoff; returns how many
+    @Transactional
+    public int detachBefore(String table, LocalDate cutoff) {
+        Object detached = entityManager.createNativeQuery("select ledger_detach_partitions_before(?1, ?2)")
+                .setParameter(1, table)
+                .setParameter(2, cutoff)
+                .getSingleResult();
+        return ((Number) detached).intValue();
+    }
+}
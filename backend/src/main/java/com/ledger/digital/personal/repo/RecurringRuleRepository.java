@@ -0,0 +1,45 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.RecurringRule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    List<RecurringRule> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<RecurringRule> findByIdAndUserId(Long id, Long userId);
+
+    // Edits lock the row so they never interleave with a run of the same rule
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RecurringRule r where r.id = :id and r.user.id = :userId")
+    Optional<RecurringRule> findForUpdate(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Rules of one tick that are still due. Rows being run by another instance are skipped rather
+    // than waited for; that instance posts them.
+    @Query(value = "select * from recurring_rules where id in (:ids) and active and next_run_at <= :now " +
+            "order by id for update skip locked", nativeQuery = true)
+    List<RecurringRule> lockDue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Loads the scheduler's wheel, page by page in id order
+    @Query("select r.id as id, r.nextRunAt as nextRunAt from RecurringRule r " +
+            "where r.active = true and r.id > :afterId order by r.id")
+    List<RuleSchedule> findActiveAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Rules created, edited or run since the given time, e.g. on another instance
+    @Query("select r.id as id, r.nextRunAt as nextRunAt from RecurringRule r " +
+            "where r.active = true and r.updatedAt >= :since and r.id > :afterId order by r.id")
+    List<RuleSchedule> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select r.id as id, r.nextRunAt as nextRunAt from RecurringRule r where r.active = true and r.id in :ids")
+    List<RuleSchedule> findSchedules(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,11 @@
+package com.ledger.digital.personal.repo;
+
+import java.time.LocalDateTime;
+
+// Projection of a recurring rule's timing, all RecurringScheduler keeps of it
+public interface RuleSchedule {
+
+    Long getId();
+
+    LocalDateTime getNextRunAt();
+}
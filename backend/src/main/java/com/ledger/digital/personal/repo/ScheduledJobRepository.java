@@ -0,0 +1,54 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.ScheduledJob;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ScheduledJobRepository extends JpaRepository<ScheduledJob, String> {
+
+    // Create the job row once; concurrent starts of several instances are harmless
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduled_jobs"))
+    @Query(value = "insert into scheduled_jobs (name, next_run_at) values (:name, :nextRunAt) on conflict (name) do nothing",
+            nativeQuery = true)
+    int register(@Param("name") String name, @Param("nextRunAt") LocalDateTime nextRunAt);
+
+    // Lock the job row if it is due and no run holds a live lease. Another instance holding the lock
+    // makes this return empty instead of blocking, so exactly one instance claims each period.
+    @Query(value = """
+            select * from scheduled_jobs
+            where name = :name and next_run_at <= :now
+              and (running_until is null or running_until <= :now)
+            for update skip locked
+            """, nativeQuery = true)
+    Optional<ScheduledJob> lockIfDue(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    // Extend the lease of a run this instance still owns; 0 when another instance has taken it over
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduled_jobs"))
+    @Query(value = """
+            update scheduled_jobs set running_until = :until
+            where name = :name and last_run_by = :runBy and running_until is not null
+            """, nativeQuery = true)
+    int renewLease(@Param("name") String name, @Param("runBy") String runBy, @Param("until") LocalDateTime until);
+
+    // Release the lease and record the outcome, unless the run was taken over in the meantime
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduled_jobs"))
+    @Query(value = """
+            update scheduled_jobs
+            set running_until = null, last_finished_at = :finishedAt,
+                last_duration_millis = :durationMillis, last_error = :error
+            where name = :name and last_run_by = :runBy
+            """, nativeQuery = true)
+    int finish(@Param("name") String name, @Param("runBy") String runBy, @Param("finishedAt") LocalDateTime finishedAt,
+               @Param("durationMillis") long durationMillis, @Param("error") String error);
+}
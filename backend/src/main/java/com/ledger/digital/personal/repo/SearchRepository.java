@@ -0,0 +1,126 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.dto.SearchResultDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+// Trigram search over the text columns indexed in V8. A row matches when any term is word-similar
+// (pg_trgm <%) to its text, and ranks by the summed similarity of all terms. The GIN index only
+// narrows each source to its matching rows: ordering by score computes word_similarity for every
+// one of them before the source is cut to `limit`, so cost follows how many rows match the terms
+// (a common word in a large history is the slow case), not the result size. The SQL is built per
+// call because every term needs its own operator for the index to be usable.
+@Repository
+public class SearchRepository {
+
+    public enum Source { CREDIT, DEBT, INVESTMENT, BUDGET }
+
+    private final EntityManager entityManager;
+
+    public SearchRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Applies to the current transaction only
+    public void setThreshold(double threshold) {
+        entityManager.createNativeQuery("select set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", String.valueOf(threshold))
+                .getSingleResult();
+    }
+
+    public List<SearchResultDto> search(Long userId, List<String> terms, Set<Source> sources,
+                                        LocalDateTime from, LocalDateTime to, int limit) {
+        boolean period = from != null || to != null;
+        List<String> branches = new ArrayList<>();
+
+        if (sources.contains(Source.CREDIT)) {
+            branches.add(branch(terms, "lower(coalesce(c.source, '') || ' ' || coalesce(c.note, ''))",
+                    "'CREDIT' as type, c.id, c.source as title, c.note as detail, c.amount, c.occurred_at",
+                    "credits c",
+                    "c.account_id in (select a.id from accounts a where a.user_id = :userId)",
+                    "c.occurred_at", from, to));
+        }
+        if (sources.contains(Source.DEBT)) {
+            branches.add(branch(terms, "lower(coalesce(d.person, ''))",
+                    "'DEBT' as type, d.id, d.person as title, case when d.given then 'lent' else 'borrowed' end as detail, "
+                            + "d.amount, d.occurred_at",
+                    "debts d",
+                    "d.user_id = :userId",
+                    "d.occurred_at", from, to));
+        }
+        if (sources.contains(Source.INVESTMENT)) {
+            branches.add(branch(terms, "lower(coalesce(i.name, ''))",
+                    "'INVESTMENT' as type, i.id, i.name as title, i.type as detail, i.value as amount, i.occurred_at",
+                    "investment i",
+                    "i.user_id = :userId",
+                    "i.occurred_at", from, to));
+        }
+        // Budgets have no date, so a period search leaves them out
+        if (sources.contains(Source.BUDGET) && !period) {
+            branches.add(branch(terms, "lower(coalesce(b.name, ''))",
+                    "'BUDGET' as type, b.id, b.name as title, cast(null as varchar) as detail, b.amount, "
+                            + "cast(null as timestamp) as occurred_at",
+                    "budgets b",
+                    "b.user_id = :userId",
+                    null, null, null));
+        }
+        if (branches.isEmpty()) return List.of();
+
+        String sql = "select * from (" + String.join(" union all ", branches) + ") r "
+                + "order by r.score desc, r.occurred_at desc nulls last, r.id desc limit :limit";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("limit", limit);
+        for (int i = 0; i < terms.size(); i++) {
+            query.setParameter("t" + i, terms.get(i));
+        }
+        if (from != null) query.setParameter("from", from);
+        if (to != null) query.setParameter("to", to);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream().map(SearchRepository::toDto).toList();
+    }
+
+    private static String branch(List<String> terms, String text, String columns, String table, String owner,
+                                 String occurredAt, LocalDateTime from, LocalDateTime to) {
+        StringJoiner match = new StringJoiner(" or ", "(", ")");
+        StringJoiner score = new StringJoiner(" + ", "(", ")");
+        for (int i = 0; i < terms.size(); i++) {
+            match.add(":t" + i + " <% " + text);
+            score.add("word_similarity(:t" + i + ", " + text + ")");
+        }
+
+        StringBuilder sql = new StringBuilder("(select ")
+                .append(columns).append(", ").append(score).append(" as score")
+                .append(" from ").append(table)
+                .append(" where ").append(owner)
+                .append(" and ").append(match);
+        // On the partition key, so only the months in range are scanned
+        if (occurredAt != null && from != null) sql.append(" and ").append(occurredAt).append(" >= :from");
+        if (occurredAt != null && to != null) sql.append(" and ").append(occurredAt).append(" < :to");
+        return sql.append(" order by score desc limit :limit)").toString();
+    }
+
+    private static SearchResultDto toDto(Object[] row) {
+        Object occurredAt = row[5];
+        return new SearchResultDto(
+                (String) row[0],
+                ((Number) row[1]).longValue(),
+                (String) row[2],
+                (String) row[3],
+                (BigDecimal) row[4],
+                occurredAt instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) occurredAt,
+                ((Number) row[6]).doubleValue());
+    }
+}
@@ -0,0 +1,7 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.Settlement;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SettlementRepository extends JpaRepository<Settlement, Long> {
+}
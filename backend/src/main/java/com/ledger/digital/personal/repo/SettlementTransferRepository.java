@@ -0,0 +1,7 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.model.SettlementTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SettlementTransferRepository extends JpaRepository<SettlementTransfer, Long> {
+}
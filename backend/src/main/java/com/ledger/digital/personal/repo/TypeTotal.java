@@ -0,0 +1,11 @@
+package com.ledger.digital.personal.repo;
+
+import java.math.BigDecimal;
+
+// Projection for "group by type" sums (account balances, investment values)
+public interface TypeTotal {
+
+    String getType();
+
+    BigDecimal getTotal();
+}
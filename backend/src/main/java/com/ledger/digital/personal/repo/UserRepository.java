@@ -1,19 +1,37 @@
 package com.ledger.digital.personal.repo;
 
 import com.ledger.digital.personal.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    //    Find user by email for login and registration
+    // Find user by email for login and registration. Always read from the database: the password hash
+    // it carries may have just been changed on another instance
     Optional<User> findByEmail(String email);
 
-    // 🔑 New: Find user using API key for filter authentication
+    // 🔑 New: Find user using API key for filter authentication.
+    // Not query-cached: ApiKeyCache in front of it already serves repeat lookups
     Optional<User> findByApiKey(String apiKey);
 
     //  🔐 New: Find user by reset token for password reset functionality
     Optional<User> findByResetToken(String resetToken);
 
+    // Null out reset tokens that can no longer be redeemed
+    @Modifying
+    @Transactional
+    @Query("update User u set u.resetToken = null, u.resetTokenExpiry = null where u.resetTokenExpiry < :now")
+    int clearExpiredResetTokens(@Param("now") LocalDateTime now);
+
+    // Keyset walk over all users for maintenance jobs
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
 }
@@ -0,0 +1,79 @@
+package com.ledger.digital.personal.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+// Short-lived, HMAC-SHA256 signed access tokens: <keyId>.<payload>.<signature>
+// payload = base64url("userId|expiresAtEpochSeconds|email")
+// Verification is pure CPU work, no database or shared cache involved.
+@Component
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final TokenKeyRing keyRing;
+    private final long ttlSeconds;
+
+    public AccessTokenService(TokenKeyRing keyRing,
+                              @Value("${ledger.auth.token.ttl-seconds:900}") long ttlSeconds) {
+        this.keyRing = keyRing;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public String issue(AuthenticatedUser user) {
+        long expiresAt = Instant.now().getEpochSecond() + ttlSeconds;
+        String payload = user.getId() + "|" + expiresAt + "|" + user.getEmail();
+
+        TokenKeyRing.SigningKey key = keyRing.active();
+        String signed = key.getId() + "." + ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return signed + "." + ENCODER.encodeToString(sign(key, signed));
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    // Empty when the token is malformed, signed by an unknown key, tampered with or expired
+    public Optional<AuthenticatedUser> verify(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) return Optional.empty();
+
+        TokenKeyRing.SigningKey key = keyRing.find(parts[0]);
+        if (key == null) return Optional.empty();
+
+        try {
+            byte[] expected = sign(key, parts[0] + "." + parts[1]);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(parts[2]))) return Optional.empty();
+
+            String[] claims = new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8).split("\\|", 3);
+            if (claims.length != 3) return Optional.empty();
+            if (Long.parseLong(claims[1]) < Instant.now().getEpochSecond()) return Optional.empty();
+
+            return Optional.of(new AuthenticatedUser(Long.parseLong(claims[0]), claims[2]));
+        } catch (IllegalArgumentException e) {
+            // bad base64 or number
+            return Optional.empty();
+        }
+    }
+
+    private static byte[] sign(TokenKeyRing.SigningKey key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key.getSecret(), ALGORITHM));
+            return mac.doFinal(data.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC signing unavailable", e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ledger.digital.personal.security;
+
+import com.ledger.digital.personal.repo.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU + TTL cache of API key -> AuthenticatedUser.
+// A cache hit authenticates a request without touching the database.
+@Component
+public class ApiKeyCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Access-ordered map: the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Entry> entries;
+
+    // Bumped on every invalidation so a lookup racing with it never re-caches a stale user
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ApiKeyCache(UserRepository userRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${ledger.auth.cache.max-size:10000}") int maxSize,
+                       @Value("${ledger.auth.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ApiKeyCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("ledger.auth.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("ledger.auth.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("ledger.auth.cache.evictions", evictions, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("ledger.auth.cache.size", this, ApiKeyCache::size).register(meterRegistry);
+    }
+
+    // Resolve an API key, hitting the database only on a miss or an expired entry
+    public Optional<AuthenticatedUser> resolve(String apiKey) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(apiKey);
+            if (entry != null) {
+                if (entry.expiresAt - now > 0) {
+                    hits.incrementAndGet();
+                    return Optional.of(entry.user);
+                }
+                entries.remove(apiKey);
+            }
+        }
+        misses.incrementAndGet();
+
+        long observedGeneration = generation.get();
+        Optional<AuthenticatedUser> user = userRepository.findByApiKey(apiKey)
+                .map(u -> new AuthenticatedUser(u.getId(), u.getEmail()));
+
+        user.ifPresent(u -> {
+            synchronized (entries) {
+                if (generation.get() == observedGeneration) {
+                    entries.put(apiKey, new Entry(u, now + ttlNanos));
+                }
+            }
+        });
+        return user;
+    }
+
+    // Drop a single key (e.g. after rotation). Deferred until commit when called inside a transaction.
+    public void evict(String apiKey) {
+        afterCommit(() -> {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.remove(apiKey);
+            }
+        });
+    }
+
+    // Drop every key belonging to a user (e.g. after deletion)
+    public void evictUser(Long userId) {
+        afterCommit(() -> {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.values().removeIf(e -> e.user.getId().equals(userId));
+            }
+        });
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Entry {
+        private final AuthenticatedUser user;
+        private final long expiresAt;
+
+        private Entry(AuthenticatedUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
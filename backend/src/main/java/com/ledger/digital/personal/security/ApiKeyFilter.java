@@ -1,22 +1,28 @@
 package com.ledger.digital.personal.security;
 
-import com.ledger.digital.personal.model.User;
-import com.ledger.digital.personal.repo.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 public class ApiKeyFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
+    private static final String BEARER_PREFIX = "Bearer ";
 
-    public ApiKeyFilter(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final ApiKeyCache apiKeyCache;
+    private final AccessTokenService accessTokenService;
+
+    public ApiKeyFilter(ApiKeyCache apiKeyCache, AccessTokenService accessTokenService) {
+        this.apiKeyCache = apiKeyCache;
+        this.accessTokenService = accessTokenService;
     }
 
     @Override
@@ -40,23 +46,41 @@ public class ApiKeyFilter extends OncePerRequestFilter {
             return;
         }
 
-        // everything else requires API key
+        // everything else requires an API key or a signed access token
         String apiKey = request.getHeader("X-API-KEY");
+        String authorization = request.getHeader("Authorization");
 
-        if (apiKey == null || apiKey.isBlank()) {
+        Optional<AuthenticatedUser> user;
+        if (apiKey != null && !apiKey.isBlank()) {
+            // Validate API key (served from cache when possible)
+            user = apiKeyCache.resolve(apiKey);
+            if (user.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("Invalid API key");
+                return;
+            }
+        } else if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            // Validate access token signature and expiry, no database round trip
+            user = accessTokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+            if (user.isEmpty()) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("Invalid or expired access token");
+                return;
+            }
+        } else {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Missing X-API-KEY");
             return;
         }
 
-        // Validate API key
-        Optional<User> user = userRepository.findByApiKey(apiKey);
-        if (user.isEmpty()) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("Invalid API key");
-            return;
+        // Expose the resolved user to controllers via @AuthenticationPrincipal
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user.get(), null, List.of()));
+        SecurityContextHolder.setContext(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
         }
-
-        filterChain.doFilter(request, response);
     }
 }
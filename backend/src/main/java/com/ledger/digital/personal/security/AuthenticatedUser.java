@@ -0,0 +1,22 @@
+package com.ledger.digital.personal.security;
+
+// Identity resolved from the X-API-KEY header.
+// Stored in the SecurityContext so controllers and services never re-query the user.
+public class AuthenticatedUser {
+
+    private final Long id;
+    private final String email;
+
+    public AuthenticatedUser(Long id, String email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
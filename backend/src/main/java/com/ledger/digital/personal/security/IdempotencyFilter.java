@@ -0,0 +1,240 @@
+package com.ledger.digital.personal.security;
+
+import com.ledger.digital.personal.exception.GlobalExceptionHandler;
+import com.ledger.digital.personal.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+// Makes POST/PUT/PATCH/DELETE requests carrying an Idempotency-Key header execute at most once per user and key.
+// Runs after ApiKeyFilter, so the key is scoped to the authenticated user. Replays are answered here,
+// before the controller, with the stored status and body plus "Idempotent-Replayed: true".
+// The request runs in one transaction that the services join, and a successful response is stored in it,
+// so the changes and the stored response commit together; if the claim was taken over meanwhile the
+// changes are rolled back instead of being applied a second time. Failed requests roll back as a whole;
+// their response is only stored when GlobalExceptionHandler marked it final.
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> MUTATING = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final PlatformTransactionManager transactionManager;
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, PlatformTransactionManager transactionManager,
+                             int maxBodyBytes) {
+        this.idempotencyService = idempotencyService;
+        this.transactionManager = transactionManager;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String key = request.getHeader(HEADER);
+        AuthenticatedUser user = currentUser();
+        if (key == null || key.isBlank() || user == null || !MUTATING.contains(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            error(response, HttpServletResponse.SC_BAD_REQUEST, "Operation Failed",
+                    HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // The body is buffered so it can be fingerprinted and still be read by the controller
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            error(response, HttpServletResponse.SC_BAD_REQUEST, "Operation Failed",
+                    HEADER + " is not supported for bodies over " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        String scopeKey = user.getId() + ":" + key;
+        String fingerprint = fingerprint(request, body);
+        IdempotencyService.Claim claim = idempotencyService.claim(scopeKey, user.getId(), fingerprint);
+
+        switch (claim.decision()) {
+            case REPLAY -> replay(response, claim.response());
+            case IN_PROGRESS -> error(response, HttpServletResponse.SC_CONFLICT, "Conflict",
+                    "A request with this " + HEADER + " is still being processed; retry later");
+            case MISMATCH -> error(response, 422, "Idempotency Key Reused",
+                    HEADER + " was already used for a different request");
+            case EXECUTE -> execute(request, response, filterChain, body, scopeKey, fingerprint, claim);
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         byte[] body, String scopeKey, String fingerprint, IdempotencyService.Claim claim)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        TransactionStatus tx = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        IdempotencyService.StoredResponse stored;
+        boolean committed = false;
+        try {
+            filterChain.doFilter(new BufferedBodyRequest(request, body), captured);
+            stored = new IdempotencyService.StoredResponse(captured.getStatus(), captured.getContentType(),
+                    captured.getContentAsByteArray());
+            if (stored.status() < 400 && !tx.isRollbackOnly()
+                    && idempotencyService.completeInTransaction(scopeKey, claim, stored)) {
+                transactionManager.commit(tx);
+                committed = true;
+            } else {
+                transactionManager.rollback(tx);
+            }
+        } catch (ServletException | IOException | RuntimeException e) {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+            idempotencyService.abandon(scopeKey, claim);
+            throw e;
+        }
+
+        if (committed) {
+            idempotencyService.completed(scopeKey, fingerprint, claim, stored);
+        } else if (stored.status() < 400) {
+            // Succeeded but the key was claimed by a retry elsewhere; its changes were rolled back
+            captured.resetBuffer();
+            idempotencyService.abandon(scopeKey, claim);
+            error(captured, HttpServletResponse.SC_CONFLICT, "Conflict",
+                    "This request outlived its " + HEADER + " claim and was rolled back; retry later");
+        } else {
+            idempotencyService.complete(scopeKey, fingerprint, claim, stored,
+                    request.getAttribute(GlobalExceptionHandler.FINAL_OUTCOME) != null);
+        }
+        captured.copyBodyToResponse();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(stored.body());
+    }
+
+    // Same shape as GlobalExceptionHandler's responses
+    private static void error(HttpServletResponse response, int status, String error, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"" + error + "\",\"message\":\"" + message.replace("\"", "\\\"") + "\"}");
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user;
+        }
+        return null;
+    }
+
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is already in memory: it is available at once and ends right after
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
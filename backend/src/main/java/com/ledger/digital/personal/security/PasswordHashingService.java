@@ -0,0 +1,137 @@
+package com.ledger.digital.personal.security;
+
+import com.ledger.digital.personal.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs BCrypt on a dedicated, bounded pool so login storms cannot starve the request threads.
+// - concurrency bounds the CPU spent on hashing, queue-depth bounds the waiting callers
+// - when both are full the call fails fast with 503
+// - the cost factor is calibrated at startup to hit a target latency on this hardware
+@Component
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-Passw0rd";
+
+    private final ThreadPoolExecutor executor;
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(MeterRegistry meterRegistry,
+                                  @Value("${ledger.auth.hashing.concurrency:2}") int concurrency,
+                                  @Value("${ledger.auth.hashing.queue-depth:64}") int queueDepth,
+                                  @Value("${ledger.auth.hashing.target-millis:250}") long targetMillis,
+                                  @Value("${ledger.auth.hashing.min-cost:10}") int minCost,
+                                  @Value("${ledger.auth.hashing.max-cost:16}") int maxCost) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.cost = calibrate(targetMillis, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(cost);
+
+        this.encodeTimer = Timer.builder("ledger.auth.hash.latency").tag("operation", "encode").register(meterRegistry);
+        this.matchTimer = Timer.builder("ledger.auth.hash.latency").tag("operation", "matches").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("ledger.auth.hash.queue.wait").register(meterRegistry);
+        this.rejected = Counter.builder("ledger.auth.hash.rejected").register(meterRegistry);
+        Gauge.builder("ledger.auth.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("ledger.auth.hash.cost", this, s -> s.cost).register(meterRegistry);
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the stored hash was produced with a different cost than the calibrated one
+    public boolean needsRehash(String encodedPassword) {
+        Matcher m = BCRYPT_COST.matcher(encodedPassword);
+        return !m.find() || Integer.parseInt(m.group(1)) != cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Timer latency, Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return latency.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Server is busy, please retry shortly");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    // Highest cost in [minCost, maxCost] whose hash time stays within the target
+    private static int calibrate(long targetMillis, int minCost, int maxCost) {
+        int chosen = minCost;
+        for (int candidate = minCost; candidate <= maxCost; candidate++) {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(candidate);
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (elapsedMillis > targetMillis) break;
+            chosen = candidate;
+            // each step doubles the cost, stop early if the next one would certainly overshoot
+            if (elapsedMillis * 2 > targetMillis) break;
+        }
+        log.info("BCrypt cost calibrated to {} (target {} ms)", chosen, targetMillis);
+        return chosen;
+    }
+}
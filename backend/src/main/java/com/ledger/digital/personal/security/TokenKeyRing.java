@@ -0,0 +1,122 @@
+package com.ledger.digital.personal.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// HMAC signing keys for access tokens.
+// The active key signs new tokens; every key still in the ring verifies them.
+//
+// Configure shared keys with ledger.auth.token.keys=kid1:base64secret,kid2:base64secret and pick the
+// signing one with ledger.auth.token.active-key, so every API node verifies the others' tokens.
+// Without configured keys a random key is generated and rotated in-process (single node only).
+@Component
+public class TokenKeyRing {
+
+    private static final int KEY_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, SigningKey> keys = new ConcurrentHashMap<>();
+    private final boolean generated;
+    private final Duration retention;
+    private volatile SigningKey active;
+
+    public TokenKeyRing(@Value("${ledger.auth.token.keys:}") String configuredKeys,
+                        @Value("${ledger.auth.token.active-key:}") String activeKeyId,
+                        @Value("${ledger.auth.token.ttl-seconds:900}") long ttlSeconds,
+                        @Value("${ledger.auth.token.rotation-minutes:60}") long rotationMinutes) {
+        // A retired key must outlive every token it signed
+        this.retention = Duration.ofMinutes(rotationMinutes).plusSeconds(ttlSeconds);
+
+        if (configuredKeys.isBlank()) {
+            this.generated = true;
+            rotate();
+            return;
+        }
+
+        this.generated = false;
+        SigningKey first = null;
+        for (String entry : configuredKeys.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].contains(".")) {
+                throw new IllegalStateException("Invalid ledger.auth.token.keys entry, expected kid:base64secret");
+            }
+            SigningKey key = new SigningKey(parts[0], Base64.getDecoder().decode(parts[1]), Instant.now());
+            keys.put(key.getId(), key);
+            if (first == null) first = key;
+        }
+        this.active = activeKeyId.isBlank() ? first : keys.get(activeKeyId);
+        if (this.active == null) {
+            throw new IllegalStateException("ledger.auth.token.active-key does not match any configured key");
+        }
+    }
+
+    public SigningKey active() {
+        return active;
+    }
+
+    public SigningKey find(String keyId) {
+        return keys.get(keyId);
+    }
+
+    // Generated rings rotate periodically; retired keys are kept until their tokens have expired
+    @Scheduled(fixedDelayString = "${ledger.auth.token.rotation-minutes:60}",
+            initialDelayString = "${ledger.auth.token.rotation-minutes:60}",
+            timeUnit = TimeUnit.MINUTES)
+    public void scheduledRotation() {
+        if (!generated) return;
+        rotate();
+
+        Instant cutoff = Instant.now().minus(retention);
+        List<String> expired = new ArrayList<>();
+        keys.forEach((id, key) -> {
+            if (key != active && key.getCreatedAt().isBefore(cutoff)) expired.add(id);
+        });
+        expired.forEach(keys::remove);
+    }
+
+    private void rotate() {
+        byte[] secret = new byte[KEY_BYTES];
+        random.nextBytes(secret);
+        byte[] id = new byte[6];
+        random.nextBytes(id);
+
+        SigningKey key = new SigningKey(Base64.getUrlEncoder().withoutPadding().encodeToString(id), secret, Instant.now());
+        keys.put(key.getId(), key);
+        active = key;
+    }
+
+    public static final class SigningKey {
+        private final String id;
+        private final byte[] secret;
+        private final Instant createdAt;
+
+        private SigningKey(String id, byte[] secret, Instant createdAt) {
+            this.id = id;
+            this.secret = secret;
+            this.createdAt = createdAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        byte[] getSecret() {
+            return secret;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
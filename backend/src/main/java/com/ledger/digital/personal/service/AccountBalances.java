@@ -0,0 +1,47 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.repo.AccountRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Single entry point for atomic account balance changes made by the ledger services.
+// Applied immediately, or summed per account while a DeltaBatch is open (ownership is still checked up front).
+@Component
+public class AccountBalances {
+
+    private final AccountRepository accountRepository;
+
+    public AccountBalances(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    public void add(Long accountId, Long userId, BigDecimal delta) {
+        DeltaBatch batch = DeltaBatch.current();
+        if (batch == null) {
+            if (accountRepository.addToBalance(accountId, userId, delta) == 0) {
+                throw new RuntimeException("Account not found");
+            }
+            return;
+        }
+
+        if (!batch.verifiedAccounts.contains(accountId)) {
+            if (!accountRepository.existsByIdAndUserId(accountId, userId)) {
+                throw new RuntimeException("Account not found");
+            }
+            batch.verifiedAccounts.add(accountId);
+        }
+        batch.accountDeltas.merge(accountId, delta, BigDecimal::add);
+    }
+
+    // One UPDATE per touched account
+    void flush(DeltaBatch batch, Long userId) {
+        for (Map.Entry<Long, BigDecimal> entry : batch.accountDeltas.entrySet()) {
+            if (entry.getValue().signum() != 0) {
+                accountRepository.addToBalance(entry.getKey(), userId, entry.getValue());
+            }
+        }
+        batch.accountDeltas.clear();
+    }
+}
@@ -1,14 +1,27 @@
 package com.ledger.digital.personal.service;
 
 import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.BalanceHistoryDto;
+import com.ledger.digital.personal.dto.JournalEntryDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
 import com.ledger.digital.personal.mapper.AccountMapper;
+import com.ledger.digital.personal.mapper.JournalEntryMapper;
 import com.ledger.digital.personal.model.Account;
-import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.model.JournalEntry;
 import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.repo.ListSpecifications;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,75 +29,126 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
+    private final BalanceRollupService balanceRollupService;
 
-    public AccountService(AccountRepository accountRepository, UserRepository userRepository) {
+    public AccountService(AccountRepository accountRepository, UserRepository userRepository,
+                          JournalService journalService, NetWorthService netWorthService,
+                          BalanceRollupService balanceRollupService) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
+        this.balanceRollupService = balanceRollupService;
     }
 
     // Create account
-    public AccountDto createAccount(AccountDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    @Transactional
+    public AccountDto createAccount(AccountDto dto, AuthenticatedUser principal) {
         Account account = new Account();
         account.setAccountName(dto.getAccountName());
         account.setType(dto.getType());
         account.setBalance(dto.getBalance() != null ? dto.getBalance() : account.getBalance());
-        account.setUser(user);
+        account.setUser(userRepository.getReferenceById(principal.getId()));
 
-        accountRepository.save(account);
+        // Flushed now: the rollup row written with the opening entry is a native insert that references it
+        accountRepository.saveAndFlush(account);
+        journalService.recordAccount(account.getId(), principal.getId(), account.getBalance(), JournalEntry.Cause.OPENING, null);
+        netWorthService.addBalance(principal.getId(), account.getId(), account.getBalance());
         return AccountMapper.toDto(account);
     }
 
     // Get all accounts
-    public List<AccountDto> getAllAccounts(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return accountRepository.findByUser(user)
+    @Transactional(readOnly = true)
+    public List<AccountDto> getAllAccounts(AuthenticatedUser principal) {
+        return accountRepository.findByUser(userRepository.getReferenceById(principal.getId()))
                 .stream()
                 .map(AccountMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    // Get account by id
-    public AccountDto getAccount(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // One page of accounts (amount = balance)
+    @Transactional(readOnly = true)
+    public PageDto<AccountDto> page(ListQueryDto query, AuthenticatedUser principal) {
+        return KeysetPagination.page(accountRepository,
+                ListSpecifications.<Account>equalTo("user.id", principal.getId())
+                        .and(ListSpecifications.equalIgnoreCase("type", query.getType()))
+                        .and(ListSpecifications.containsIgnoreCase(query.getQ(), "accountName"))
+                        .and(ListSpecifications.between("balance", query.getMinAmount(), query.getMaxAmount())),
+                query, "balance", Account::getId, Account::getBalance, AccountMapper::toDto);
+    }
 
-        Account account = accountRepository.findById(id)
-                .filter(a -> a.getUser().getId().equals(user.getId()))
+    // Get account by id
+    @Transactional(readOnly = true)
+    public AccountDto getAccount(Long id, AuthenticatedUser principal) {
+        Account account = accountRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
         return AccountMapper.toDto(account);
     }
 
     // Update account
-    public AccountDto updateAccount(Long id, AccountDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Account account = accountRepository.findById(id)
-                .filter(a -> a.getUser().getId().equals(user.getId()))
+    @Transactional
+    public AccountDto updateAccount(Long id, AccountDto dto, AuthenticatedUser principal) {
+        Account account = accountRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
+        String previousType = account.getType();
         account.setAccountName(dto.getAccountName());
         account.setType(dto.getType());
-        account.setBalance(dto.getBalance());
-        accountRepository.save(account);
-        return AccountMapper.toDto(account);
+        // Flushed now: the row stays locked while the summary refiles the balance under the new type
+        accountRepository.saveAndFlush(account);
+        if (!Objects.equals(previousType, account.getType())) {
+            netWorthService.moveBalance(principal.getId(), id, previousType);
+        }
+
+        // A manual balance edit is applied and journaled as an adjustment of the difference,
+        // so credits/debts landing concurrently are kept instead of overwritten
+        AccountDto result = AccountMapper.toDto(account);
+        if (account.getBalance() != null && dto.getBalance() != null) {
+            BigDecimal delta = dto.getBalance().subtract(account.getBalance());
+            if (delta.signum() != 0) {
+                accountRepository.addToBalance(id, principal.getId(), delta);
+                journalService.recordAccount(id, principal.getId(), delta, JournalEntry.Cause.ADJUSTMENT, null);
+                netWorthService.addBalance(principal.getId(), id, delta);
+            }
+            result.setBalance(dto.getBalance());
+        }
+        return result;
     }
 
-    // Delete account
-    public void deleteAccount(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // Balance history of an account
+    @Transactional(readOnly = true)
+    public List<JournalEntryDto> getJournal(Long id, LocalDateTime from, LocalDateTime to, AuthenticatedUser principal) {
+        accountRepository.findByIdAndUserId(id, principal.getId())
+                .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        Account account = accountRepository.findById(id)
-                .filter(a -> a.getUser().getId().equals(user.getId()))
+        return journalService.history(JournalEntry.Target.ACCOUNT, id, from, to)
+                .stream()
+                .map(JournalEntryMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    // Daily closing balances and flows, read from the rollup rather than the journal
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceHistoryDto getBalanceHistory(Long id, LocalDate from, LocalDate to, AuthenticatedUser principal) {
+        accountRepository.findByIdAndUserId(id, principal.getId())
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+
+        return balanceRollupService.history(id, from, to);
+    }
+
+    // Delete account
+    @Transactional
+    public void deleteAccount(Long id, AuthenticatedUser principal) {
+        Account account = accountRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
+        // Taken out while the row still exists, the summary reads the type from it
+        if (account.getBalance() != null) {
+            netWorthService.addBalance(principal.getId(), id, account.getBalance().negate());
+        }
         accountRepository.delete(account);
     }
 }
@@ -5,34 +5,51 @@ import com.ledger.digital.personal.dto.LoginDto;
 import com.ledger.digital.personal.dto.LoginResponseDto;
 import com.ledger.digital.personal.dto.RegisterDto;
 import com.ledger.digital.personal.model.ForgotPasswordToken;
+import com.ledger.digital.personal.model.OutboundMail;
 import com.ledger.digital.personal.model.User;
 import com.ledger.digital.personal.repo.ForgotPasswordTokenRepository;
+import com.ledger.digital.personal.repo.OutboundMailRepository;
 import com.ledger.digital.personal.repo.UserRepository;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.ledger.digital.personal.security.AccessTokenService;
+import com.ledger.digital.personal.security.ApiKeyCache;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.ledger.digital.personal.security.PasswordHashingService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.regex.Pattern;
 
+// BCrypt work (hundreds of ms) is kept outside transactions so it never holds a pooled connection;
+// the database writes of each call then commit together through transactionTemplate.
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final JavaMailSender mailSender;
+    private final PasswordHashingService passwordHashing;
+    private final OutboundMailRepository outboundMailRepository;
     private final ForgotPasswordTokenRepository tokenRepository;
+    private final ApiKeyCache apiKeyCache;
+    private final AccessTokenService accessTokenService;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(UserRepository userRepository,
-                       PasswordEncoder encoder,
-                       JavaMailSender mailSender,
-                       ForgotPasswordTokenRepository tokenRepository) {
+                       PasswordHashingService passwordHashing,
+                       OutboundMailRepository outboundMailRepository,
+                       ForgotPasswordTokenRepository tokenRepository,
+                       ApiKeyCache apiKeyCache,
+                       AccessTokenService accessTokenService,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.passwordEncoder = encoder;
-        this.mailSender = mailSender;
+        this.passwordHashing = passwordHashing;
+        this.outboundMailRepository = outboundMailRepository;
         this.tokenRepository = tokenRepository;
+        this.apiKeyCache = apiKeyCache;
+        this.accessTokenService = accessTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // 🟢 Helper Method: Validate Password Rules
@@ -67,10 +84,16 @@ public class AuthService {
         user.setFirstName(dto.getFirstName());
         user.setLastName(dto.getLastName());
         user.setEmail(dto.getEmail());
-        user.setPassword(passwordEncoder.encode(dto.getPassword()));
+        user.setPassword(passwordHashing.encode(dto.getPassword()));
         user.setApiKey(UUID.randomUUID().toString().replace("-", ""));
 
-        userRepository.save(user);
+        // Existence re-checked in the same transaction as the insert
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
+                throw new RuntimeException("User already exists with this email");
+            }
+            userRepository.save(user);
+        });
 
         return new LoginResponseDto(
                 "Registration successful",
@@ -84,23 +107,40 @@ public class AuthService {
         User user = userRepository.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(dto.getPassword(), user.getPassword())) {
+        if (!passwordHashing.matches(dto.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
-        return new LoginResponseDto(
+        // Transparently upgrade hashes produced with an older cost factor
+        if (passwordHashing.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashing.encode(dto.getPassword()));
+            userRepository.save(user);
+        }
+
+        LoginResponseDto response = new LoginResponseDto(
                 "Login successful",
                 user.getEmail(),
                 user.getApiKey()
         );
+        response.setAccessToken(accessTokenService.issue(new AuthenticatedUser(user.getId(), user.getEmail())));
+        response.setAccessTokenExpiresIn(accessTokenService.getTtlSeconds());
+        return response;
+    }
+
+    // REFRESH ACCESS TOKEN (caller authenticated with the API key)
+    public LoginResponseDto refreshAccessToken(AuthenticatedUser principal) {
+        LoginResponseDto response = new LoginResponseDto("Token issued", principal.getEmail(), null);
+        response.setAccessToken(accessTokenService.issue(principal));
+        response.setAccessTokenExpiresIn(accessTokenService.getTtlSeconds());
+        return response;
     }
 
     // CHANGE PASSWORD
-    public void changePassword(String email, ChangePasswordDto dto) {
-        User user = userRepository.findByEmail(email)
+    public void changePassword(AuthenticatedUser principal, ChangePasswordDto dto) {
+        User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (!passwordEncoder.matches(dto.getOldPassword(), user.getPassword())) {
+        if (!passwordHashing.matches(dto.getOldPassword(), user.getPassword())) {
             throw new RuntimeException("Old password is incorrect");
         }
 
@@ -111,11 +151,13 @@ public class AuthService {
             throw new RuntimeException("New passwords do not match");
         }
 
-        user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
+        user.setPassword(passwordHashing.encode(dto.getNewPassword()));
         userRepository.save(user);
     }
 
     // FORGOT PASSWORD LINK
+    // Only records the token and an outbox row; MailOutboxDispatcher delivers the mail
+    @Transactional
     public void sendForgotPasswordLink(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -133,12 +175,11 @@ public class AuthService {
         // Note: For production, change localhost to your deployed frontend URL if different
         String resetLink = "http://localhost:5173/reset-password?token=" + token;
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(user.getEmail());
-        message.setSubject("Password Reset Request");
-        message.setText("Click this link to reset your password (valid 5 minutes): " + resetLink);
-        // message.setFrom("your-email@example.com"); // Configure in application.properties
-        mailSender.send(message);
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(user.getEmail());
+        mail.setSubject("Password Reset Request");
+        mail.setBody("Click this link to reset your password (valid 5 minutes): " + resetLink);
+        outboundMailRepository.save(mail);
     }
 
     // RESET PASSWORD
@@ -161,13 +202,32 @@ public class AuthService {
             throw new RuntimeException("Passwords do not match");
         }
 
-        user.setPassword(passwordEncoder.encode(dto.getNewPassword()));
-        userRepository.save(user);
-        tokenRepository.delete(fpt);
+        user.setPassword(passwordHashing.encode(dto.getNewPassword()));
+
+        // New password and token consumption commit together
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            tokenRepository.delete(fpt);
+        });
     }
 
-    public User getUserByApiKey(String apiKey) {
-        return userRepository.findByApiKey(apiKey)
-                .orElseThrow(() -> new RuntimeException("Invalid API key"));
+    // ROTATE API KEY
+    @Transactional
+    public LoginResponseDto rotateApiKey(AuthenticatedUser principal) {
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        String oldKey = user.getApiKey();
+        user.setApiKey(UUID.randomUUID().toString().replace("-", ""));
+        userRepository.save(user);
+
+        // The old key must stop authenticating immediately
+        apiKeyCache.evict(oldKey);
+
+        return new LoginResponseDto(
+                "API key rotated",
+                user.getEmail(),
+                user.getApiKey()
+        );
     }
 }
\ No newline at end of file
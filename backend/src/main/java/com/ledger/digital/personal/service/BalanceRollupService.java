@@ -0,0 +1,91 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.BalanceHistoryDto;
+import com.ledger.digital.personal.model.AccountDailyBalance;
+import com.ledger.digital.personal.repo.AccountDailyBalanceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.List;
+
+// Maintains account_daily_balances and serves balance time series from it.
+// JournalService feeds every account entry through record(); BalanceRollupJob backfills and repairs.
+@Service
+public class BalanceRollupService {
+
+    private final AccountDailyBalanceRepository rollupRepository;
+    private final int maxDays;
+
+    public BalanceRollupService(AccountDailyBalanceRepository rollupRepository,
+                                @Value("${ledger.rollups.max-days:3660}") int maxDays) {
+        this.rollupRepository = rollupRepository;
+        this.maxDays = maxDays;
+    }
+
+    // Same transaction as the journal entry, so the day's totals never disagree with the journal.
+    // A change dated in the past also moves the closing balance of every later day.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long accountId, Long userId, BigDecimal delta, LocalDateTime at) {
+        recordDay(accountId, userId, at.toLocalDate(),
+                delta.max(BigDecimal.ZERO), delta.negate().max(BigDecimal.ZERO));
+    }
+
+    // A day's worth of entries at once. Days whose entries are already in the journal must be recorded
+    // oldest first: a later day would otherwise open from a journal sum that counts the earlier ones,
+    // then be shifted by them again.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDay(Long accountId, Long userId, LocalDate day, BigDecimal credits, BigDecimal debits) {
+        LocalDateTime now = LocalDateTime.now();
+        rollupRepository.addDelta(accountId, userId, day, credits, debits, now);
+        if (day.isBefore(now.toLocalDate())) {
+            rollupRepository.shiftAfter(accountId, day, credits.subtract(debits), now);
+        }
+    }
+
+    // Dense series: days without activity carry the previous closing balance forward.
+    // REPEATABLE_READ keeps the offset and the rows on one snapshot; callers that open the
+    // transaction themselves must ask for it too, as an inner isolation level is ignored.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceHistoryDto history(Long accountId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new RuntimeException("Date range is limited to " + maxDays + " days");
+        }
+
+        BigDecimal offset = rollupRepository.balanceOffset(accountId);
+        BigDecimal closing = rollupRepository.findTopByAccountIdAndDayLessThanOrderByDayDesc(accountId, from)
+                .map(AccountDailyBalance::getClosingBalance)
+                .orElse(BigDecimal.ZERO);
+        List<AccountDailyBalance> rows = rollupRepository.findByAccountIdAndDayBetweenOrderByDayAsc(accountId, from, to);
+
+        BalanceHistoryDto history = new BalanceHistoryDto();
+        history.setAccountId(accountId);
+        history.setFrom(from);
+        history.setTo(to);
+
+        Iterator<AccountDailyBalance> it = rows.iterator();
+        AccountDailyBalance next = it.hasNext() ? it.next() : null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            BigDecimal credits = BigDecimal.ZERO;
+            BigDecimal debits = BigDecimal.ZERO;
+            if (next != null && next.getDay().equals(day)) {
+                credits = next.getCredits();
+                debits = next.getDebits();
+                closing = next.getClosingBalance();
+                next = it.hasNext() ? it.next() : null;
+            }
+            history.getPoints().add(new BalanceHistoryDto.Point(day, credits, debits, closing.add(offset)));
+        }
+        return history;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.BatchOperationDto;
+import com.ledger.digital.personal.dto.BatchRequestDto;
+import com.ledger.digital.personal.dto.BatchResultDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Applies a client's queued mutations in one transaction through the regular services, so each
+// operation keeps its usual validation, journaling and debt handling. Account balance and net-worth
+// deltas are collected in a DeltaBatch and written once per account / user before commit.
+// All or nothing: the first failing operation rolls back the whole batch and is named in the error.
+@Service
+public class BatchService {
+
+    private final CreditService creditService;
+    private final BudgetService budgetService;
+    private final DebtService debtService;
+    private final AccountBalances accountBalances;
+    private final NetWorthService netWorthService;
+    private final int maxOperations;
+
+    public BatchService(CreditService creditService,
+                        BudgetService budgetService,
+                        DebtService debtService,
+                        AccountBalances accountBalances,
+                        NetWorthService netWorthService,
+                        @Value("${ledger.batch.max-operations:500}") int maxOperations) {
+        this.creditService = creditService;
+        this.budgetService = budgetService;
+        this.debtService = debtService;
+        this.accountBalances = accountBalances;
+        this.netWorthService = netWorthService;
+        this.maxOperations = maxOperations;
+    }
+
+    @Transactional
+    public BatchResultDto execute(BatchRequestDto request, AuthenticatedUser principal) {
+        List<BatchOperationDto> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new RuntimeException("Batch contains no operations");
+        }
+        if (operations.size() > maxOperations) {
+            throw new RuntimeException("Batch is limited to " + maxOperations + " operations");
+        }
+
+        DeltaBatch batch = DeltaBatch.open();
+        try {
+            BatchResultDto result = new BatchResultDto();
+            for (int i = 0; i < operations.size(); i++) {
+                BatchOperationDto operation = operations.get(i);
+                try {
+                    result.getResults().add(new BatchResultDto.Item(i, operation.getType(), apply(operation, principal)));
+                } catch (RuntimeException e) {
+                    throw new RuntimeException("Operation " + i + " (" + operation.getType() + ") failed: " + e.getMessage());
+                }
+            }
+
+            accountBalances.flush(batch, principal.getId());
+            netWorthService.flush(batch);
+            return result;
+        } finally {
+            batch.close();
+        }
+    }
+
+    private Object apply(BatchOperationDto op, AuthenticatedUser principal) {
+        if (op.getType() == null) throw new RuntimeException("type is required");
+
+        return switch (op.getType()) {
+            case CREDIT_ADD -> {
+                require(op.getAccountId(), "accountId");
+                require(op.getCredit(), "credit");
+                require(op.getCredit().getAmount(), "credit.amount");
+                yield creditService.addCredit(op.getAccountId(), op.getCredit(), principal);
+            }
+            case BUDGET_CREATE -> {
+                require(op.getBudget(), "budget");
+                yield budgetService.createBudget(op.getBudget(), principal);
+            }
+            case BUDGET_UPDATE -> {
+                require(op.getId(), "id");
+                require(op.getBudget(), "budget");
+                yield budgetService.updateBudget(op.getId(), op.getBudget(), principal);
+            }
+            case BUDGET_CLOSE -> {
+                require(op.getId(), "id");
+                budgetService.closeBudget(op.getId(), principal, op.isAddRemainingToAccount(), op.getAccountId());
+                yield null;
+            }
+            case DEBT_ADD -> {
+                require(op.getDebt(), "debt");
+                require(op.getDebt().getAmount(), "debt.amount");
+                require(op.getDebt().getGiven(), "debt.given");
+                yield debtService.addDebt(op.getDebt(), principal, op.getAccountId());
+            }
+            case DEBT_UPDATE -> {
+                require(op.getId(), "id");
+                require(op.getDebt(), "debt");
+                require(op.getDebt().getAmount(), "debt.amount");
+                require(op.getDebt().getGiven(), "debt.given");
+                yield debtService.updateDebt(op.getId(), op.getDebt(), principal, op.getAccountId());
+            }
+            case DEBT_CLOSE -> {
+                require(op.getId(), "id");
+                debtService.closeDebt(op.getId(), principal, op.getAccountId());
+                yield null;
+            }
+        };
+    }
+
+    private static void require(Object value, String field) {
+        if (value == null) throw new RuntimeException(field + " is required");
+    }
+}
@@ -1,15 +1,20 @@
 package com.ledger.digital.personal.service;
 
 import com.ledger.digital.personal.dto.BudgetDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
 import com.ledger.digital.personal.mapper.BudgetMapper;
-import com.ledger.digital.personal.model.Account;
 import com.ledger.digital.personal.model.Budget;
-import com.ledger.digital.personal.model.User;
-import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.model.JournalEntry;
 import com.ledger.digital.personal.repo.BudgetRepository;
+import com.ledger.digital.personal.repo.ListSpecifications;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -18,68 +23,104 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
-    private final AccountRepository accountRepository;
+    private final AccountBalances accountBalances;
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
 
     public BudgetService(BudgetRepository budgetRepository, UserRepository userRepository,
-                         AccountRepository accountRepository) {
+                         AccountBalances accountBalances, JournalService journalService,
+                         NetWorthService netWorthService) {
         this.budgetRepository = budgetRepository;
         this.userRepository = userRepository;
-        this.accountRepository = accountRepository;
+        this.accountBalances = accountBalances;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
     }
 
-    public BudgetDto createBudget(BudgetDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    @Transactional
+    public BudgetDto createBudget(BudgetDto dto, AuthenticatedUser principal) {
         Budget budget = BudgetMapper.toEntity(dto);
-        budget.setUser(user);
+        budget.setUser(userRepository.getReferenceById(principal.getId()));
         budgetRepository.save(budget);
+        journalService.recordBudget(budget.getId(), principal.getId(), budget.getAmount(), JournalEntry.Cause.OPENING, null);
+        netWorthService.addBudgeted(principal.getId(), budget.getAmount());
 
         return BudgetMapper.toDto(budget);
     }
 
-    public BudgetDto updateBudget(Long id, BudgetDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Budget budget = budgetRepository.findById(id)
-                .filter(b -> b.getUser().getId().equals(user.getId()))
+    @Transactional
+    public BudgetDto updateBudget(Long id, BudgetDto dto, AuthenticatedUser principal) {
+        Budget budget = budgetRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
 
         budget.setName(dto.getName());
-        budget.setAmount(dto.getAmount());
         budgetRepository.save(budget);
 
-        return BudgetMapper.toDto(budget);
+        // Amount edits go through the same atomic delta as investments
+        BudgetDto result = BudgetMapper.toDto(budget);
+        if (dto.getAmount() != null) {
+            BigDecimal current = budget.getAmount() != null ? budget.getAmount() : BigDecimal.ZERO;
+            BigDecimal delta = dto.getAmount().subtract(current);
+            if (delta.signum() != 0) {
+                budgetRepository.addToAmount(id, principal.getId(), delta);
+                journalService.recordBudget(id, principal.getId(), delta, JournalEntry.Cause.ADJUSTMENT, null);
+                netWorthService.addBudgeted(principal.getId(), delta);
+            }
+            result.setAmount(dto.getAmount());
+        }
+
+        return result;
     }
 
-    public void closeBudget(Long id, String userEmail, boolean addRemainingToAccount, Long accountId) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // Adds money to a budget, taken out of an account when one is given (recurring top-ups).
+    // The journal entries are dated `at`, when the occurrence being posted was due.
+    @Transactional
+    public void allocate(Long id, BigDecimal amount, Long accountId, LocalDateTime at, AuthenticatedUser principal) {
+        if (accountId != null) {
+            accountBalances.add(accountId, principal.getId(), amount.negate());
+            journalService.recordAccount(accountId, principal.getId(), amount.negate(), JournalEntry.Cause.ADJUSTMENT, id, at);
+            netWorthService.addBalance(principal.getId(), accountId, amount.negate());
+        }
+        if (budgetRepository.addToAmount(id, principal.getId(), amount) == 0) {
+            throw new RuntimeException("Budget not found");
+        }
+        journalService.recordBudget(id, principal.getId(), amount, JournalEntry.Cause.ADJUSTMENT, null, at);
+        netWorthService.addBudgeted(principal.getId(), amount);
+    }
 
-        Budget budget = budgetRepository.findById(id)
-                .filter(b -> b.getUser().getId().equals(user.getId()))
+    @Transactional
+    public void closeBudget(Long id, AuthenticatedUser principal, boolean addRemainingToAccount, Long accountId) {
+        Budget budget = budgetRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
 
-        if (addRemainingToAccount && accountId != null) {
-            Account account = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-            if (!account.getUser().getId().equals(user.getId()))
-                throw new RuntimeException("Account does not belong to user");
-
-            account.setBalance(account.getBalance().add(budget.getAmount()));
-            accountRepository.save(account);
+        if (addRemainingToAccount && accountId != null && budget.getAmount() != null) {
+            accountBalances.add(accountId, principal.getId(), budget.getAmount());
+            journalService.recordAccount(accountId, principal.getId(), budget.getAmount(),
+                    JournalEntry.Cause.BUDGET_CLOSE, budget.getId());
+            netWorthService.addBalance(principal.getId(), accountId, budget.getAmount());
         }
 
+        // The budget's remaining amount leaves it with the close, whether or not it went to an account
+        if (budget.getAmount() != null) {
+            journalService.recordBudget(id, principal.getId(), budget.getAmount().negate(), JournalEntry.Cause.BUDGET_CLOSE, budget.getId());
+            netWorthService.addBudgeted(principal.getId(), budget.getAmount().negate());
+        }
         budgetRepository.delete(budget);
     }
 
-    public List<BudgetDto> getBudgets(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return budgetRepository.findByUser(user).stream()
+    @Transactional(readOnly = true)
+    public List<BudgetDto> getBudgets(AuthenticatedUser principal) {
+        return budgetRepository.findByUser(userRepository.getReferenceById(principal.getId())).stream()
                 .map(BudgetMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    public PageDto<BudgetDto> page(ListQueryDto query, AuthenticatedUser principal) {
+        return KeysetPagination.page(budgetRepository,
+                ListSpecifications.<Budget>equalTo("user.id", principal.getId())
+                        .and(ListSpecifications.containsIgnoreCase(query.getQ(), "name"))
+                        .and(ListSpecifications.between("amount", query.getMinAmount(), query.getMaxAmount())),
+                query, "amount", Budget::getId, Budget::getAmount, BudgetMapper::toDto);
+    }
 }
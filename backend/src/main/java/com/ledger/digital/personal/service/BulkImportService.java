@@ -0,0 +1,422 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.BulkImportResultDto;
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.DebtDto;
+import com.ledger.digital.personal.mapper.CreditMapper;
+import com.ledger.digital.personal.mapper.DebtMapper;
+import com.ledger.digital.personal.model.Counterparty;
+import com.ledger.digital.personal.model.Credit;
+import com.ledger.digital.personal.model.Debt;
+import com.ledger.digital.personal.model.JournalEntry;
+import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.repo.CreditRepository;
+import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Streams a JSON array or CSV body row by row and writes it in chunks of ledger.bulk.batch-size.
+// Each chunk is one transaction: rows are inserted through Hibernate JDBC batching (pooled sequence ids),
+// their journal entries with one insert and the rollup once per day, the account balance is adjusted
+// once for the whole chunk, and the persistence context is cleared. Rows keep their own occurredAt.
+// Invalid rows are skipped and reported. Chunks committed before a fatal error (malformed body, failed
+// chunk) stay committed; the result then says so with complete=false and the row number the saved rows
+// reach, so the client can resume after it. Sent with an Idempotency-Key, the chunks join the request's
+// transaction instead: the import is then all or nothing, and a stopped one reports no saved rows.
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final AccountRepository accountRepository;
+    private final CreditRepository creditRepository;
+    private final DebtRepository debtRepository;
+    private final UserRepository userRepository;
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
+    private final CounterpartyService counterpartyService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final int batchSize;
+
+    public BulkImportService(AccountRepository accountRepository,
+                             CreditRepository creditRepository,
+                             DebtRepository debtRepository,
+                             UserRepository userRepository,
+                             JournalService journalService,
+                             NetWorthService netWorthService,
+                             CounterpartyService counterpartyService,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             JsonMapper jsonMapper,
+                             @Value("${ledger.bulk.batch-size:500}") int batchSize) {
+        this.accountRepository = accountRepository;
+        this.creditRepository = creditRepository;
+        this.debtRepository = debtRepository;
+        this.userRepository = userRepository;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
+        this.counterpartyService = counterpartyService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.batchSize = batchSize;
+    }
+
+    // Credits into one account. Rows: source, amount, note (bulk rows never repay debts).
+    public BulkImportResultDto importCredits(Long accountId, InputStream body, String contentType,
+                                             AuthenticatedUser principal) {
+        requireAccount(accountId, principal);
+
+        BulkImportResultDto result = new BulkImportResultDto();
+        List<CreditDto> chunk = new ArrayList<>(batchSize);
+
+        try {
+            int rows = readRows(body, contentType, CreditDto.class, BulkImportService::creditFromCsv, result, (rowNumber, row) -> {
+                String error = validateCredit(row);
+                if (error != null) {
+                    reject(result, rowNumber, error);
+                    return;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    writeCredits(accountId, chunk, principal, result);
+                    result.setCommittedThroughRow(rowNumber);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                writeCredits(accountId, chunk, principal, result);
+            }
+            result.setCommittedThroughRow(rows);
+        } catch (RuntimeException e) {
+            stopped(result, e);
+        }
+        return result;
+    }
+
+    // Debts, optionally settled through one account. Rows: person, amount, given.
+    public BulkImportResultDto importDebts(Long accountId, InputStream body, String contentType,
+                                           AuthenticatedUser principal) {
+        if (accountId != null) {
+            requireAccount(accountId, principal);
+        }
+
+        BulkImportResultDto result = new BulkImportResultDto();
+        List<DebtDto> chunk = new ArrayList<>(batchSize);
+
+        try {
+            int rows = readRows(body, contentType, DebtDto.class, BulkImportService::debtFromCsv, result, (rowNumber, row) -> {
+                String error = validateDebt(row);
+                if (error != null) {
+                    reject(result, rowNumber, error);
+                    return;
+                }
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    writeDebts(accountId, chunk, principal, result);
+                    result.setCommittedThroughRow(rowNumber);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                writeDebts(accountId, chunk, principal, result);
+            }
+            result.setCommittedThroughRow(rows);
+        } catch (RuntimeException e) {
+            stopped(result, e);
+        }
+        return result;
+    }
+
+    private void writeCredits(Long accountId, List<CreditDto> rows, AuthenticatedUser principal,
+                              BulkImportResultDto result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Credit> credits = new ArrayList<>(rows.size());
+            Map<String, Counterparty> counterparties = new HashMap<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (CreditDto row : rows) {
+                Credit credit = CreditMapper.toEntity(row);
+                credit.setId(null);
+                credit.setAccount(accountRepository.getReferenceById(accountId));
+                credit.setCounterparty(counterparty(counterparties, principal.getId(), credit.getSource()));
+                credits.add(credit);
+                total = total.add(row.getAmount());
+            }
+            creditRepository.saveAll(credits);
+
+            List<JournalService.Posting> postings = new ArrayList<>(credits.size());
+            for (Credit credit : credits) {
+                postings.add(new JournalService.Posting(credit.getAmount(), credit.getId(), credit.getOccurredAt()));
+            }
+            journalService.recordAccount(accountId, principal.getId(), JournalEntry.Cause.CREDIT, postings);
+
+            // One balance update for the whole chunk
+            if (accountRepository.addToBalance(accountId, principal.getId(), total) == 0) {
+                throw new RuntimeException("Account not found");
+            }
+            netWorthService.addBalance(principal.getId(), accountId, total);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        result.setImported(result.getImported() + rows.size());
+        rows.clear();
+    }
+
+    private void writeDebts(Long accountId, List<DebtDto> rows, AuthenticatedUser principal,
+                            BulkImportResultDto result) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Debt> debts = new ArrayList<>(rows.size());
+            Map<String, Counterparty> counterparties = new HashMap<>();
+            for (DebtDto row : rows) {
+                Debt debt = DebtMapper.toEntity(row);
+                debt.setId(null);
+                debt.setUser(userRepository.getReferenceById(principal.getId()));
+                debt.setCounterparty(counterparty(counterparties, principal.getId(), debt.getPerson()));
+                debts.add(debt);
+            }
+            debtRepository.saveAll(debts);
+
+            BigDecimal lent = BigDecimal.ZERO;
+            BigDecimal owed = BigDecimal.ZERO;
+            for (Debt debt : debts) {
+                if (debt.getGiven()) lent = lent.add(debt.getAmount());
+                else owed = owed.add(debt.getAmount());
+            }
+            netWorthService.apply(principal.getId(), null, lent, owed);
+
+            if (accountId != null) {
+                BigDecimal total = BigDecimal.ZERO;
+                List<JournalService.Posting> postings = new ArrayList<>(debts.size());
+                for (Debt debt : debts) {
+                    // Lent -> money leaves the account, borrowed -> money enters it
+                    BigDecimal delta = debt.getGiven() ? debt.getAmount().negate() : debt.getAmount();
+                    postings.add(new JournalService.Posting(delta, debt.getId(), debt.getOccurredAt()));
+                    total = total.add(delta);
+                }
+                journalService.recordAccount(accountId, principal.getId(), JournalEntry.Cause.DEBT, postings);
+                if (accountRepository.addToBalance(accountId, principal.getId(), total) == 0) {
+                    throw new RuntimeException("Account not found");
+                }
+                netWorthService.addBalance(principal.getId(), accountId, total);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        result.setImported(result.getImported() + rows.size());
+        rows.clear();
+    }
+
+    // Each distinct name is resolved once per chunk, however many rows carry it
+    private Counterparty counterparty(Map<String, Counterparty> resolved, Long userId, String name) {
+        String key = CounterpartyService.normalize(name);
+        if (key == null) return null;
+        return resolved.computeIfAbsent(key, k -> counterpartyService.resolve(userId, name));
+    }
+
+    // Rows of the chunk in flight were rolled back; committedThroughRow still points past the last saved chunk
+    private static void stopped(BulkImportResultDto result, RuntimeException e) {
+        result.setComplete(false);
+        result.setError(e.getMessage());
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The chunks only joined the caller's transaction, which is rolled back with this result
+            result.setImported(0);
+            result.setCommittedThroughRow(0);
+        }
+    }
+
+    private void requireAccount(Long accountId, AuthenticatedUser principal) {
+        if (!accountRepository.existsByIdAndUserId(accountId, principal.getId())) {
+            throw new RuntimeException("Account not found");
+        }
+    }
+
+    // ---- Row parsing ----
+
+    private interface RowHandler<T> {
+        void accept(int rowNumber, T row);
+    }
+
+    // Returns the number of data rows read
+    private <T> int readRows(InputStream body, String contentType, Class<T> type,
+                              Function<Map<String, String>, T> csvMapper,
+                              BulkImportResultDto result, RowHandler<T> handler) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+            return readCsv(body, csvMapper, result, handler);
+        }
+        return readJson(body, type, result, handler);
+    }
+
+    private <T> int readJson(InputStream body, Class<T> type, BulkImportResultDto result, RowHandler<T> handler) {
+        try (JsonParser parser = jsonMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Expected a JSON array of rows");
+            }
+            int rowNumber = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                rowNumber++;
+                // Read each element as a tree first so a bad field only rejects its own row.
+                // From the parser, not jsonMapper.readTree(parser): that expects the element to end the input.
+                JsonNode node = parser.readValueAsTree();
+                T row;
+                try {
+                    row = jsonMapper.treeToValue(node, type);
+                } catch (JacksonException e) {
+                    reject(result, rowNumber, "invalid value");
+                    continue;
+                }
+                handler.accept(rowNumber, row);
+            }
+            return rowNumber;
+        } catch (JacksonException e) {
+            throw new RuntimeException("Malformed JSON body: " + e.getOriginalMessage());
+        }
+    }
+
+    // Minimal RFC 4180 reader: header row required, quoted fields allowed (no embedded line breaks)
+    private <T> int readCsv(InputStream body, Function<Map<String, String>, T> csvMapper,
+                             BulkImportResultDto result, RowHandler<T> handler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) return 0;
+            List<String> header = splitCsvLine(headerLine.replace("\uFEFF", ""));
+
+            int rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                rowNumber++;
+                List<String> values = splitCsvLine(line);
+                Map<String, String> columns = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), values.get(i));
+                }
+                T row;
+                try {
+                    row = csvMapper.apply(columns);
+                } catch (IllegalArgumentException e) {
+                    reject(result, rowNumber, "invalid value");
+                    continue;
+                }
+                handler.accept(rowNumber, row);
+            }
+            return rowNumber;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static CreditDto creditFromCsv(Map<String, String> columns) {
+        CreditDto dto = new CreditDto();
+        dto.setSource(columns.get("source"));
+        dto.setAmount(decimal(columns.get("amount")));
+        dto.setNote(columns.get("note"));
+        dto.setOccurredAt(timestamp(columns.get("occurredat")));
+        return dto;
+    }
+
+    private static DebtDto debtFromCsv(Map<String, String> columns) {
+        DebtDto dto = new DebtDto();
+        dto.setPerson(columns.get("person"));
+        dto.setAmount(decimal(columns.get("amount")));
+        String given = columns.get("given");
+        if (given != null && !given.isBlank()) {
+            if (!given.trim().equalsIgnoreCase("true") && !given.trim().equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("given must be true or false");
+            }
+            dto.setGiven(Boolean.parseBoolean(given.trim()));
+        }
+        dto.setOccurredAt(timestamp(columns.get("occurredat")));
+        return dto;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null || value.isBlank() ? null : new BigDecimal(value.trim());
+    }
+
+    // Same ISO format the CSV export writes
+    private static LocalDateTime timestamp(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("occurredAt must be an ISO date-time", e);
+        }
+    }
+
+    // ---- Validation ----
+
+    private static String validateCredit(CreditDto row) {
+        if (row.getSource() == null || row.getSource().isBlank()) return "source is required";
+        if (row.getAmount() == null || row.getAmount().signum() <= 0) return "amount must be positive";
+        return null;
+    }
+
+    private static String validateDebt(DebtDto row) {
+        if (row.getPerson() == null || row.getPerson().isBlank()) return "person is required";
+        if (row.getAmount() == null || row.getAmount().signum() <= 0) return "amount must be positive";
+        if (row.getGiven() == null) return "given is required";
+        return null;
+    }
+
+    private static void reject(BulkImportResultDto result, int rowNumber, String error) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("row " + rowNumber + ": " + error);
+        }
+    }
+}
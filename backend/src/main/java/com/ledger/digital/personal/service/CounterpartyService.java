@@ -0,0 +1,155 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.CounterpartyDto;
+import com.ledger.digital.personal.mapper.CounterpartyMapper;
+import com.ledger.digital.personal.model.Counterparty;
+import com.ledger.digital.personal.model.CounterpartyAlias;
+import com.ledger.digital.personal.repo.CounterpartyAliasRepository;
+import com.ledger.digital.personal.repo.CounterpartyRepository;
+import com.ledger.digital.personal.repo.CreditRepository;
+import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Maps the free-text names on debts and credits to counterparties. A name resolves through its
+// normalized form with one primary-key lookup in counterparty_aliases, always against the database, so
+// an alias removed or merged on one instance stops resolving on every instance at once; a new counterparty
+// is created the first time a name is seen. A merged counterparty stays behind as a tombstone (mergedInto),
+// so a write that resolved a name just before the merge committed still points at a valid row.
+@Service
+public class CounterpartyService {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final CounterpartyRepository counterpartyRepository;
+    private final CounterpartyAliasRepository aliasRepository;
+    private final DebtRepository debtRepository;
+    private final CreditRepository creditRepository;
+    private final UserRepository userRepository;
+
+    public CounterpartyService(CounterpartyRepository counterpartyRepository,
+                               CounterpartyAliasRepository aliasRepository,
+                               DebtRepository debtRepository,
+                               CreditRepository creditRepository,
+                               UserRepository userRepository) {
+        this.counterpartyRepository = counterpartyRepository;
+        this.aliasRepository = aliasRepository;
+        this.debtRepository = debtRepository;
+        this.creditRepository = creditRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Must stay in step with the backfill in V9
+    public static String normalize(String name) {
+        if (name == null) return null;
+        String key = WHITESPACE.matcher(name).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    // Counterparty for a name, created on first use; null for a blank name
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Counterparty resolve(Long userId, String name) {
+        String key = normalize(name);
+        if (key == null) return null;
+
+        Long id = aliasRepository.findCounterpartyId(userId, key).orElseGet(() -> create(userId, name, key));
+        return counterpartyRepository.getReferenceById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CounterpartyDto> list(AuthenticatedUser principal) {
+        List<Counterparty> counterparties = counterpartyRepository.findByUserIdAndMergedIntoIsNullOrderByNameAsc(principal.getId());
+        Map<Long, List<String>> aliases = aliasRepository
+                .findByCounterpartyIdInOrderByAliasKeyAsc(counterparties.stream().map(Counterparty::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(CounterpartyAlias::getCounterpartyId,
+                        Collectors.mapping(CounterpartyAlias::getAliasKey, Collectors.toList())));
+
+        return counterparties.stream()
+                .map(c -> CounterpartyMapper.toDto(c, aliases.getOrDefault(c.getId(), List.of())))
+                .toList();
+    }
+
+    @Transactional
+    public CounterpartyDto addAlias(Long id, String alias, AuthenticatedUser principal) {
+        Counterparty counterparty = owned(id, principal);
+        String key = normalize(alias);
+        if (key == null) {
+            throw new RuntimeException("Alias is required");
+        }
+
+        if (aliasRepository.claim(principal.getId(), key, id) == 0) {
+            Long owner = aliasRepository.findCounterpartyId(principal.getId(), key).orElse(null);
+            if (!id.equals(owner)) {
+                throw new RuntimeException("Alias already belongs to another counterparty; merge them instead");
+            }
+        }
+        return toDto(counterparty);
+    }
+
+    @Transactional
+    public CounterpartyDto removeAlias(Long id, String alias, AuthenticatedUser principal) {
+        Counterparty counterparty = owned(id, principal);
+        String key = normalize(alias);
+        if (Objects.equals(key, counterparty.getNormalizedKey())) {
+            throw new RuntimeException("A counterparty's own name cannot be removed");
+        }
+        if (key == null || aliasRepository.release(principal.getId(), key, id) == 0) {
+            throw new RuntimeException("Alias not found");
+        }
+        return toDto(counterparty);
+    }
+
+    // Folds `sourceId` into `id`: its aliases, debts and credits move over and it becomes a tombstone
+    @Transactional
+    public CounterpartyDto merge(Long id, Long sourceId, AuthenticatedUser principal) {
+        if (id.equals(sourceId)) {
+            throw new RuntimeException("Cannot merge a counterparty into itself");
+        }
+        Counterparty target = owned(id, principal);
+        Counterparty source = owned(sourceId, principal);
+
+        aliasRepository.reassign(source.getId(), target.getId());
+        debtRepository.reassignCounterparty(source, target);
+        creditRepository.reassignCounterparty(source, target);
+        counterpartyRepository.forwardMerged(source.getId(), target.getId());
+        source.setMergedInto(target.getId());
+        return toDto(target);
+    }
+
+    private Long create(Long userId, String name, String key) {
+        Counterparty counterparty = counterpartyRepository.saveAndFlush(
+                new Counterparty(userRepository.getReferenceById(userId), WHITESPACE.matcher(name).replaceAll(" ").trim(), key));
+        if (aliasRepository.claim(userId, key, counterparty.getId()) == 1) {
+            return counterparty.getId();
+        }
+
+        // Another transaction registered the same name first; use its counterparty
+        counterpartyRepository.delete(counterparty);
+        return aliasRepository.findCounterpartyId(userId, key)
+                .orElseThrow(() -> new RuntimeException("Counterparty not found"));
+    }
+
+    private Counterparty owned(Long id, AuthenticatedUser principal) {
+        return counterpartyRepository.findByIdAndUserIdAndMergedIntoIsNull(id, principal.getId())
+                .orElseThrow(() -> new RuntimeException("Counterparty not found"));
+    }
+
+    private CounterpartyDto toDto(Counterparty counterparty) {
+        List<String> aliases = aliasRepository.findByCounterpartyIdInOrderByAliasKeyAsc(List.of(counterparty.getId()))
+                .stream()
+                .map(CounterpartyAlias::getAliasKey)
+                .toList();
+        return CounterpartyMapper.toDto(counterparty, aliases);
+    }
+}
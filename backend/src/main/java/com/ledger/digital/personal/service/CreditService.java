@@ -1,16 +1,21 @@
 package com.ledger.digital.personal.service;
 
 import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
 import com.ledger.digital.personal.mapper.CreditMapper;
-import com.ledger.digital.personal.model.Account;
+import com.ledger.digital.personal.model.Counterparty;
 import com.ledger.digital.personal.model.Credit;
 import com.ledger.digital.personal.model.Debt;
-import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.model.JournalEntry;
 import com.ledger.digital.personal.repo.AccountRepository;
 import com.ledger.digital.personal.repo.CreditRepository;
 import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.ListSpecifications;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -23,90 +28,110 @@ public class CreditService {
     private final AccountRepository accountRepository;
     private final DebtRepository debtRepository;
     private final UserRepository userRepository;
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
+    private final AccountBalances accountBalances;
+    private final CounterpartyService counterpartyService;
 
     public CreditService(CreditRepository creditRepository,
                          AccountRepository accountRepository,
                          DebtRepository debtRepository,
-                         UserRepository userRepository) {
+                         UserRepository userRepository,
+                         JournalService journalService,
+                         NetWorthService netWorthService,
+                         AccountBalances accountBalances,
+                         CounterpartyService counterpartyService) {
         this.creditRepository = creditRepository;
         this.accountRepository = accountRepository;
         this.debtRepository = debtRepository;
         this.userRepository = userRepository;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
+        this.accountBalances = accountBalances;
+        this.counterpartyService = counterpartyService;
     }
 
-    public CreditDto addCredit(Long accountId, CreditDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Account account = accountRepository.findById(accountId)
-                .filter(a -> a.getUser().getId().equals(user.getId()))
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+    @Transactional
+    public CreditDto addCredit(Long accountId, CreditDto dto, AuthenticatedUser principal) {
+        // Update account balance atomically (also checks ownership)
+        accountBalances.add(accountId, principal.getId(), dto.getAmount());
 
         Credit credit = new Credit();
-        credit.setAccount(account);
+        credit.setAccount(accountRepository.getReferenceById(accountId));
         credit.setSource(dto.getSource());
         credit.setAmount(dto.getAmount());
         credit.setNote(dto.getNote());
+        credit.setOccurredAt(dto.getOccurredAt());
 
-        // 1️⃣ Check if a debt exists from/to this person
-        Debt debt = debtRepository.findByPersonAndUser(dto.getSource(), user).orElse(null);
-
-        if (debt != null && dto.isRepayDebt()) {
-            if (debt.getGiven()) {
-                // If user had given debt to this person, receiving money reduces debt
-                BigDecimal newDebt = debt.getAmount().subtract(dto.getAmount());
-                debt.setAmount(newDebt.max(BigDecimal.ZERO));
-                if (newDebt.compareTo(BigDecimal.ZERO) <= 0) {
-                    debtRepository.delete(debt);
-                } else {
-                    debtRepository.save(debt);
-                }
-            } else {
-                // If user had taken debt from this person, paying back reduces debt
-                BigDecimal newDebt = debt.getAmount().subtract(dto.getAmount());
-                debt.setAmount(newDebt.max(BigDecimal.ZERO));
-                if (newDebt.compareTo(BigDecimal.ZERO) <= 0) {
-                    debtRepository.delete(debt);
-                } else {
-                    debtRepository.save(debt);
-                }
-            }
+        // The source is matched to a counterparty by normalized name or alias, not by exact spelling
+        Counterparty counterparty = counterpartyService.resolve(principal.getId(), dto.getSource());
+        credit.setCounterparty(counterparty);
+
+        if (counterparty != null && dto.isRepayDebt()) {
+            repayDebts(principal.getId(), counterparty.getId(), dto.getAmount());
         }
 
-        // 2️⃣ Update account balance
-        account.setBalance(account.getBalance().add(dto.getAmount()));
-        accountRepository.save(account);
+        Credit saved = creditRepository.save(credit);
 
-        return CreditMapper.toDto(creditRepository.save(credit));
+        journalService.recordAccount(accountId, principal.getId(), dto.getAmount(), JournalEntry.Cause.CREDIT, saved.getId(),
+                saved.getOccurredAt());
+        netWorthService.addBalance(principal.getId(), accountId, dto.getAmount());
+
+        return CreditMapper.toDto(saved);
     }
 
-    // List all credits of a user
-    public List<CreditDto> list(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // Receiving money from the person reduces their open debts one after another, oldest first,
+    // deleting each one it pays off, until the credit is used up
+    private void repayDebts(Long userId, Long counterpartyId, BigDecimal amount) {
+        BigDecimal remaining = amount;
+        for (Debt debt : debtRepository.findOpenByCounterparty(userId, counterpartyId)) {
+            if (remaining.signum() <= 0) break;
 
-        return creditRepository.findByAccountUser(user).stream()
+            BigDecimal repaid = debt.getAmount().min(remaining);
+            netWorthService.addDebt(userId, debt.getGiven(), repaid.negate());
+            remaining = remaining.subtract(repaid);
+
+            BigDecimal newDebt = debt.getAmount().subtract(repaid);
+            if (newDebt.signum() <= 0) {
+                debtRepository.delete(debt);
+            } else {
+                debt.setAmount(newDebt);
+                debtRepository.save(debt);
+            }
+        }
+    }
+
+    // List all credits of a user
+    @Transactional(readOnly = true)
+    public List<CreditDto> list(AuthenticatedUser principal) {
+        return creditRepository.findByAccountUser(userRepository.getReferenceById(principal.getId())).stream()
                 .map(CreditMapper::toDto)
                 .collect(Collectors.toList());
     }
 
-    public CreditDto get(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // One page of the user's credits, filtered and ordered in SQL. Scoped by the user's account ids
+    // rather than a join to accounts, so the (account_id, ...) indexes of credits apply.
+    @Transactional(readOnly = true)
+    public PageDto<CreditDto> page(ListQueryDto query, AuthenticatedUser principal) {
+        return KeysetPagination.page(creditRepository,
+                ListSpecifications.<Credit>in("account.id", accountRepository.findIdsByUserId(principal.getId()))
+                        .and(ListSpecifications.containsIgnoreCase(query.getQ(), "source", "note"))
+                        .and(ListSpecifications.between("amount", query.getMinAmount(), query.getMaxAmount()))
+                        .and(ListSpecifications.during("occurredAt", query.getFrom(), query.getTo())),
+                query, "amount", Credit::getId, Credit::getAmount, CreditMapper::toDto);
+    }
 
-        Credit credit = creditRepository.findById(id)
-                .filter(c -> c.getAccount().getUser().getId().equals(user.getId()))
+    @Transactional(readOnly = true)
+    public CreditDto get(Long id, AuthenticatedUser principal) {
+        Credit credit = creditRepository.findByIdAndAccountUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Credit not found"));
 
         return CreditMapper.toDto(credit);
     }
 
-    public void delete(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Credit credit = creditRepository.findById(id)
-                .filter(c -> c.getAccount().getUser().getId().equals(user.getId()))
+    @Transactional
+    public void delete(Long id, AuthenticatedUser principal) {
+        Credit credit = creditRepository.findByIdAndAccountUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Credit not found"));
 
         // Optionally: revert account balance and/or debt if needed
@@ -0,0 +1,32 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.DashboardDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+
+// Everything on the dashboard, per-type breakdowns included, comes from the user's
+// net_worth_summaries row: one primary-key read.
+@Service
+public class DashboardService {
+
+    private final NetWorthService netWorthService;
+
+    public DashboardService(NetWorthService netWorthService) {
+        this.netWorthService = netWorthService;
+    }
+
+    public DashboardDto getDashboard(AuthenticatedUser principal) {
+        NetWorthService.Totals summary = netWorthService.get(principal.getId());
+
+        DashboardDto dto = new DashboardDto();
+        dto.setTotalBalance(summary.totalBalance());
+        dto.setBalanceByAccountType(summary.balanceByType());
+        dto.setBudgetRemaining(summary.budgeted());
+        dto.setInvestedTotal(summary.invested());
+        dto.setInvestedByType(summary.investedByType());
+        dto.setLentTotal(summary.receivable());
+        dto.setOwedTotal(summary.payable());
+        dto.setNetWorth(summary.netWorth());
+        return dto;
+    }
+}
@@ -1,13 +1,15 @@
 package com.ledger.digital.personal.service;
 
 import com.ledger.digital.personal.dto.DebtDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
 import com.ledger.digital.personal.mapper.DebtMapper;
-import com.ledger.digital.personal.model.Account;
 import com.ledger.digital.personal.model.Debt;
-import com.ledger.digital.personal.model.User;
-import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.model.JournalEntry;
 import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.ListSpecifications;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,115 +22,159 @@ public class DebtService {
 
     private final DebtRepository debtRepository;
     private final UserRepository userRepository;
-    private final AccountRepository accountRepository;
-
-    public DebtService(DebtRepository debtRepository, UserRepository userRepository, AccountRepository accountRepository) {
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
+    private final AccountBalances accountBalances;
+    private final CounterpartyService counterpartyService;
+
+    public DebtService(DebtRepository debtRepository, UserRepository userRepository, AccountBalances accountBalances,
+                       JournalService journalService, NetWorthService netWorthService,
+                       CounterpartyService counterpartyService) {
         this.debtRepository = debtRepository;
         this.userRepository = userRepository;
-        this.accountRepository = accountRepository;
+        this.accountBalances = accountBalances;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
+        this.counterpartyService = counterpartyService;
     }
 
     @Transactional
-    public DebtDto addDebt(DebtDto dto, String userEmail, Long accountId) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public DebtDto addDebt(DebtDto dto, AuthenticatedUser principal, Long accountId) {
         Debt debt = DebtMapper.toEntity(dto);
-        debt.setUser(user);
+        debt.setUser(userRepository.getReferenceById(principal.getId()));
+        debt.setCounterparty(counterpartyService.resolve(principal.getId(), debt.getPerson()));
+        debtRepository.save(debt);
+        netWorthService.addDebt(principal.getId(), debt.getGiven(), debt.getAmount());
 
         // Update Account on Create
         if (accountId != null) {
-            Account account = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-
+            BigDecimal delta;
             if (debt.getGiven()) {
                 // I Lent money -> Money leaves my account
-                account.setBalance(account.getBalance().subtract(debt.getAmount()));
+                delta = debt.getAmount().negate();
             } else {
                 // I Borrowed money -> Money enters my account
-                account.setBalance(account.getBalance().add(debt.getAmount()));
+                delta = debt.getAmount();
             }
-            accountRepository.save(account);
+            applyToAccount(accountId, principal, delta, debt.getId());
         }
 
-        debtRepository.save(debt);
         return DebtMapper.toDto(debt);
     }
 
     @Transactional
-    public DebtDto updateDebt(Long id, DebtDto dto, String userEmail, Long accountId) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Debt debt = debtRepository.findById(id)
-                .filter(d -> d.getUser().getId().equals(user.getId()))
+    public DebtDto updateDebt(Long id, DebtDto dto, AuthenticatedUser principal, Long accountId) {
+        Debt debt = debtRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Debt not found"));
 
         // 1. Calculate the difference (New - Old)
         BigDecimal oldAmount = debt.getAmount();
         BigDecimal newAmount = dto.getAmount();
         BigDecimal diff = newAmount.subtract(oldAmount);
+        boolean oldGiven = debt.getGiven();
 
         // 2. Update Debt Record
         debt.setPerson(dto.getPerson());
+        debt.setCounterparty(counterpartyService.resolve(principal.getId(), dto.getPerson()));
         debt.setAmount(newAmount);
         debt.setGiven(dto.getGiven());
         debtRepository.save(debt);
 
+        // Moved out of the old side and into the new one, since an edit can flip lent/borrowed
+        netWorthService.addDebt(principal.getId(), oldGiven, oldAmount.negate());
+        netWorthService.addDebt(principal.getId(), debt.getGiven(), newAmount);
+
         // 3. Update Account Balance based on the difference
         if (accountId != null && diff.compareTo(BigDecimal.ZERO) != 0) {
-            Account account = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-
-            if (!account.getUser().getId().equals(user.getId()))
-                throw new RuntimeException("Account does not belong to user");
-
+            BigDecimal delta;
             if (debt.getGiven()) {
                 // I Lent (Asset).
                 // If diff is positive (Lent More) -> Money leaves account.
                 // If diff is negative (Partial Repay) -> Money returns to account.
-                account.setBalance(account.getBalance().subtract(diff));
+                delta = diff.negate();
             } else {
                 // I Owe (Liability).
                 // If diff is positive (Borrowed More) -> Money enters account.
                 // If diff is negative (Partial Repay) -> Money leaves account.
-                account.setBalance(account.getBalance().add(diff));
+                delta = diff;
             }
-            accountRepository.save(account);
+            applyToAccount(accountId, principal, delta, debt.getId());
         }
 
         return DebtMapper.toDto(debt);
     }
 
     @Transactional
-    public void closeDebt(Long id, String userEmail, Long accountId) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Debt debt = debtRepository.findById(id)
-                .filter(d -> d.getUser().getId().equals(user.getId()))
+    public void closeDebt(Long id, AuthenticatedUser principal, Long accountId) {
+        Debt debt = debtRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Debt not found"));
 
         // If closing with an account link, settle the remaining balance
         if (accountId != null && debt.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            Account account = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-
+            BigDecimal delta;
             if (debt.getGiven()) {
                 // Collection: Money comes back to account
-                account.setBalance(account.getBalance().add(debt.getAmount()));
+                delta = debt.getAmount();
             } else {
                 // Repayment: Money leaves account
-                account.setBalance(account.getBalance().subtract(debt.getAmount()));
+                delta = debt.getAmount().negate();
             }
-            accountRepository.save(account);
+            applyToAccount(accountId, principal, delta, debt.getId());
         }
 
         debtRepository.delete(debt);
+        netWorthService.addDebt(principal.getId(), debt.getGiven(), debt.getAmount().negate());
     }
 
-    public List<DebtDto> getDebts(String userEmail) {
-        User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new RuntimeException("User not found"));
-        return debtRepository.findByUser(user).stream().map(DebtMapper::toDto).collect(Collectors.toList());
+    // Closes the given debts as one settlement. Only the user's net share of the transfers moves money,
+    // through the account, journaled against the settlement; transfers between counterparties settle
+    // outside the ledger and are kept with the settlement.
+    @Transactional
+    public void settle(List<Debt> debts, BigDecimal netToUser, AuthenticatedUser principal, Long accountId,
+                       Long settlementId) {
+        if (netToUser.signum() != 0) {
+            // Closing the debts without moving the net share would write it off
+            if (accountId == null) {
+                throw new RuntimeException("accountId is required: the settlement "
+                        + (netToUser.signum() > 0 ? "pays you " : "costs you ") + netToUser.abs());
+            }
+            accountBalances.add(accountId, principal.getId(), netToUser);
+            journalService.recordAccount(accountId, principal.getId(), netToUser, JournalEntry.Cause.SETTLEMENT, settlementId);
+            netWorthService.addBalance(principal.getId(), accountId, netToUser);
+        }
+        for (Debt debt : debts) {
+            netWorthService.addDebt(principal.getId(), debt.getGiven(), debt.getAmount().negate());
+        }
+        debtRepository.deleteAll(debts);
+    }
+
+    // Atomic balance change on one of the user's accounts, journaled against the debt
+    private void applyToAccount(Long accountId, AuthenticatedUser principal, BigDecimal delta, Long debtId) {
+        accountBalances.add(accountId, principal.getId(), delta);
+        journalService.recordAccount(accountId, principal.getId(), delta, JournalEntry.Cause.DEBT, debtId);
+        netWorthService.addBalance(principal.getId(), accountId, delta);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DebtDto> getDebts(AuthenticatedUser principal) {
+        return debtRepository.findByUser(userRepository.getReferenceById(principal.getId())).stream().map(DebtMapper::toDto).collect(Collectors.toList());
+    }
+
+    // One page of the user's debts; type = lent | borrowed
+    @Transactional(readOnly = true)
+    public PageDto<DebtDto> page(ListQueryDto query, AuthenticatedUser principal) {
+        Boolean given = null;
+        if (query.getType() != null && !query.getType().isBlank()) {
+            if ("lent".equalsIgnoreCase(query.getType())) given = true;
+            else if ("borrowed".equalsIgnoreCase(query.getType())) given = false;
+            else throw new RuntimeException("Debt type must be lent or borrowed");
+        }
+        return KeysetPagination.page(debtRepository,
+                ListSpecifications.<Debt>equalTo("user.id", principal.getId())
+                        .and(ListSpecifications.equalTo("given", given))
+                        .and(ListSpecifications.containsIgnoreCase(query.getQ(), "person"))
+                        .and(ListSpecifications.between("amount", query.getMinAmount(), query.getMaxAmount()))
+                        .and(ListSpecifications.during("occurredAt", query.getFrom(), query.getTo())),
+                query, "amount", Debt::getId, Debt::getAmount, DebtMapper::toDto);
     }
 }
\ No newline at end of file
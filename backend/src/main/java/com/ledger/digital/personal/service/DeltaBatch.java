@@ -0,0 +1,40 @@
+package com.ledger.digital.personal.service;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Per-transaction buffer used by BatchService. While one is bound, AccountBalances and NetWorthService
+// sum their deltas here instead of updating the same rows once per operation; BatchService applies the
+// totals at the end of its transaction. Deltas are plain additions, so deferring them changes no result.
+final class DeltaBatch {
+
+    final Map<Long, BigDecimal> accountDeltas = new LinkedHashMap<>();
+    final Set<Long> verifiedAccounts = new HashSet<>();
+    // userId -> {budgeted, receivable, payable}
+    final Map<Long, BigDecimal[]> netWorthDeltas = new LinkedHashMap<>();
+    // userId -> accountId -> balance and userId -> investment type -> invested, kept apart so the
+    // summary's per-type totals can be updated too
+    final Map<Long, Map<Long, BigDecimal>> netWorthBalanceDeltas = new LinkedHashMap<>();
+    final Map<Long, Map<String, BigDecimal>> netWorthInvestedDeltas = new LinkedHashMap<>();
+
+    static DeltaBatch current() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                ? (DeltaBatch) TransactionSynchronizationManager.getResource(DeltaBatch.class)
+                : null;
+    }
+
+    static DeltaBatch open() {
+        DeltaBatch batch = new DeltaBatch();
+        TransactionSynchronizationManager.bindResource(DeltaBatch.class, batch);
+        return batch;
+    }
+
+    void close() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(DeltaBatch.class);
+    }
+}
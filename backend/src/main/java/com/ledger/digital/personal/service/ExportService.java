@@ -0,0 +1,152 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.DebtDto;
+import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.mapper.CreditMapper;
+import com.ledger.digital.personal.mapper.DebtMapper;
+import com.ledger.digital.personal.mapper.InvestmentMapper;
+import com.ledger.digital.personal.repo.CreditRepository;
+import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.InvestmentRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Full-history export. Rows come from a server-side cursor (fetch size 500) inside a read-only
+// transaction, are written straight to the response and detached right away,
+// so memory use does not depend on how many rows the user has.
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final CreditRepository creditRepository;
+    private final DebtRepository debtRepository;
+    private final InvestmentRepository investmentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final JsonMapper jsonMapper;
+
+    public ExportService(CreditRepository creditRepository,
+                         DebtRepository debtRepository,
+                         InvestmentRepository investmentRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         JsonMapper jsonMapper) {
+        this.creditRepository = creditRepository;
+        this.debtRepository = debtRepository;
+        this.investmentRepository = investmentRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    public StreamingResponseBody exportCredits(AuthenticatedUser principal, Format format) {
+        return export(creditRepository::streamByUserId, principal.getId(), CreditMapper::toDto, format,
+                new String[]{"id", "source", "amount", "note", "occurredAt"},
+                (CreditDto c) -> new Object[]{c.getId(), c.getSource(), c.getAmount(), c.getNote(), c.getOccurredAt()});
+    }
+
+    public StreamingResponseBody exportDebts(AuthenticatedUser principal, Format format) {
+        return export(debtRepository::streamByUserId, principal.getId(), DebtMapper::toDto, format,
+                new String[]{"id", "person", "amount", "given", "occurredAt"},
+                (DebtDto d) -> new Object[]{d.getId(), d.getPerson(), d.getAmount(), d.getGiven(), d.getOccurredAt()});
+    }
+
+    public StreamingResponseBody exportInvestments(AuthenticatedUser principal, Format format) {
+        return export(investmentRepository::streamByUserId, principal.getId(), InvestmentMapper::toDto, format,
+                new String[]{"id", "name", "type", "value", "accountId", "budgetId", "occurredAt"},
+                (InvestmentDto i) -> new Object[]{i.getId(), i.getName(), i.getType(), i.getValue(),
+                        i.getAccountId(), i.getBudgetId(), i.getOccurredAt()});
+    }
+
+    private <E, D> StreamingResponseBody export(Function<Long, Stream<E>> query, Long userId,
+                                                Function<E, D> toDto, Format format,
+                                                String[] csvHeader, Function<D, Object[]> csvRow) {
+        // Runs on the MVC async thread after the controller returns, so the transaction is opened here
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            readOnlyTx.executeWithoutResult(status -> {
+                if (format == Format.CSV) {
+                    writeLine(writer, csvLine(csvHeader));
+                }
+                try (Stream<E> rows = query.apply(userId)) {
+                    rows.forEach(entity -> {
+                        D dto = toDto.apply(entity);
+                        entityManager.detach(entity);
+                        writeLine(writer, format == Format.CSV
+                                ? csvLine(csvRow.apply(dto))
+                                : jsonMapper.writeValueAsString(dto));
+                    });
+                }
+            });
+            writer.flush();
+        };
+    }
+
+    private static void writeLine(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvLine(Object[] values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
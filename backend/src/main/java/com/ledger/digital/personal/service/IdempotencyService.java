@@ -0,0 +1,224 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.model.IdempotencyRecord;
+import com.ledger.digital.personal.repo.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Result store behind the Idempotency-Key header. Three tiers are checked in order:
+// a bounded in-memory LRU of finished responses, the requests currently running on this instance
+// (duplicates wait on their future), and the idempotency_keys table shared by all instances.
+// A claim is owned through a random token and a lease that is renewed while the request runs; completing
+// or releasing the key checks the token, so a claim that was taken over can't touch the new owner's row.
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    public enum Decision { EXECUTE, REPLAY, IN_PROGRESS, MISMATCH }
+
+    // What the filter should do with a request. For EXECUTE the caller must finish with
+    // completeInTransaction() and completed(), or with complete() or abandon().
+    public record Claim(Decision decision, StoredResponse response, CompletableFuture<StoredResponse> future,
+                        String token) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<StoredResponse> future, String token) {
+    }
+
+    private record Remembered(String fingerprint, StoredResponse response, long expiresAt) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final long waitMillis;
+    private final int memoryMaxSize;
+    private final long memoryTtlNanos;
+
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    // Access-ordered: the eldest entry is the least recently replayed
+    private final LinkedHashMap<String, Remembered> memory;
+
+    private final Counter replays;
+    private final Counter executions;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              MeterRegistry meterRegistry,
+                              @Value("${ledger.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${ledger.idempotency.lease-seconds:60}") long leaseSeconds,
+                              @Value("${ledger.idempotency.wait-seconds:30}") long waitSeconds,
+                              @Value("${ledger.idempotency.memory.max-size:10000}") int memoryMaxSize,
+                              @Value("${ledger.idempotency.memory.ttl-seconds:600}") long memoryTtlSeconds) {
+        this.repository = repository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.waitMillis = TimeUnit.SECONDS.toMillis(waitSeconds);
+        this.memoryMaxSize = memoryMaxSize;
+        this.memoryTtlNanos = TimeUnit.SECONDS.toNanos(memoryTtlSeconds);
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Remembered> eldest) {
+                return size() > IdempotencyService.this.memoryMaxSize;
+            }
+        };
+        this.replays = Counter.builder("ledger.idempotency.requests").tag("outcome", "replay").register(meterRegistry);
+        this.executions = Counter.builder("ledger.idempotency.requests").tag("outcome", "execute").register(meterRegistry);
+    }
+
+    public Claim claim(String scopeKey, Long userId, String fingerprint) {
+        Remembered remembered = remembered(scopeKey);
+        if (remembered != null) {
+            return replay(remembered.fingerprint(), remembered.response(), fingerprint);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        String token = UUID.randomUUID().toString();
+        InFlight running = inFlight.putIfAbsent(scopeKey, new InFlight(fingerprint, mine, token));
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) return new Claim(Decision.MISMATCH, null, null, null);
+            return awaitDuplicate(running.future());
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            if (repository.claim(scopeKey, userId, fingerprint, token, now, now.plus(lease), now.plus(ttl)) == 1) {
+                executions.increment();
+                return new Claim(Decision.EXECUTE, null, mine, token);
+            }
+
+            // Someone else holds the key: a finished row is replayed, a running one is reported busy
+            IdempotencyRecord record = repository.findCurrent(scopeKey).orElse(null);
+            if (record == null || !record.isCompleted()) {
+                release(scopeKey, mine, null);
+                return new Claim(Decision.IN_PROGRESS, null, null, null);
+            }
+            StoredResponse stored = toResponse(record);
+            remember(scopeKey, record.getFingerprint(), stored);
+            // Local duplicates carry this request's fingerprint, so they only get the result if it matches
+            release(scopeKey, mine, record.getFingerprint().equals(fingerprint) ? stored : null);
+            return replay(record.getFingerprint(), stored, fingerprint);
+        } catch (RuntimeException e) {
+            release(scopeKey, mine, null);
+            throw e;
+        }
+    }
+
+    // Stores a successful response inside the request's own transaction, so the changes and the stored
+    // response commit together. False when the claim was taken over: the caller must then roll back.
+    public boolean completeInTransaction(String scopeKey, Claim claim, StoredResponse response) {
+        return repository.complete(scopeKey, claim.token(), response.status(), response.contentType(), response.body()) == 1;
+    }
+
+    // After the transaction of completeInTransaction() committed
+    public void completed(String scopeKey, String fingerprint, Claim claim, StoredResponse response) {
+        remember(scopeKey, fingerprint, response);
+        release(scopeKey, claim.future(), response);
+    }
+
+    // For a request whose changes were rolled back. Only a final client error (finalOutcome: the exception
+    // handler marked it as the request's own fault) is stored; anything else, a deadlock or a pool timeout
+    // included, gives the key back so the client's retry runs the request again.
+    public void complete(String scopeKey, String fingerprint, Claim claim, StoredResponse response,
+                         boolean finalOutcome) {
+        boolean store = finalOutcome && response.status() < 500;
+        try {
+            if (store) {
+                store = repository.complete(scopeKey, claim.token(), response.status(), response.contentType(),
+                        response.body()) == 1;
+                if (store) remember(scopeKey, fingerprint, response);
+            } else {
+                repository.release(scopeKey, claim.token());
+            }
+        } finally {
+            release(scopeKey, claim.future(), store ? response : null);
+        }
+    }
+
+    public void abandon(String scopeKey, Claim claim) {
+        try {
+            repository.release(scopeKey, claim.token());
+        } finally {
+            release(scopeKey, claim.future(), null);
+        }
+    }
+
+    // Keeps the claims of requests still running here from being taken over by a retry elsewhere
+    @Scheduled(fixedDelayString = "${ledger.idempotency.renew-seconds:20}", timeUnit = TimeUnit.SECONDS)
+    public void renewLeases() {
+        List<String> tokens = inFlight.values().stream().map(InFlight::token).toList();
+        if (tokens.isEmpty()) return;
+        try {
+            repository.renew(tokens, LocalDateTime.now().plus(lease));
+        } catch (RuntimeException e) {
+            log.warn("Could not renew {} idempotency claims: {}", tokens.size(), e.getMessage());
+        }
+    }
+
+    private Claim awaitDuplicate(CompletableFuture<StoredResponse> future) {
+        try {
+            StoredResponse response = future.get(waitMillis, TimeUnit.MILLISECONDS);
+            if (response == null) return new Claim(Decision.IN_PROGRESS, null, null, null);
+            replays.increment();
+            return new Claim(Decision.REPLAY, response, null, null);
+        } catch (TimeoutException | ExecutionException e) {
+            return new Claim(Decision.IN_PROGRESS, null, null, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Claim(Decision.IN_PROGRESS, null, null, null);
+        }
+    }
+
+    private Claim replay(String storedFingerprint, StoredResponse response, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) return new Claim(Decision.MISMATCH, null, null, null);
+        replays.increment();
+        return new Claim(Decision.REPLAY, response, null, null);
+    }
+
+    // Wakes local duplicates; a null result tells them the key is free or still busy elsewhere
+    private void release(String scopeKey, CompletableFuture<StoredResponse> future, StoredResponse result) {
+        inFlight.computeIfPresent(scopeKey, (key, running) -> running.future() == future ? null : running);
+        future.complete(result);
+    }
+
+    private Remembered remembered(String scopeKey) {
+        synchronized (memory) {
+            Remembered remembered = memory.get(scopeKey);
+            if (remembered == null) return null;
+            if (remembered.expiresAt() - System.nanoTime() > 0) return remembered;
+            memory.remove(scopeKey);
+            return null;
+        }
+    }
+
+    private void remember(String scopeKey, String fingerprint, StoredResponse response) {
+        synchronized (memory) {
+            memory.put(scopeKey, new Remembered(fingerprint, response, System.nanoTime() + memoryTtlNanos));
+        }
+    }
+
+    private static StoredResponse toResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getResponseStatus(), record.getContentType(),
+                record.getResponseBody() != null ? record.getResponseBody() : new byte[0]);
+    }
+}
@@ -1,18 +1,22 @@
 package com.ledger.digital.personal.service;
 
 import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
 import com.ledger.digital.personal.mapper.InvestmentMapper;
-import com.ledger.digital.personal.model.Account;
-import com.ledger.digital.personal.model.Budget;
 import com.ledger.digital.personal.model.Investment;
-import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.model.JournalEntry;
 import com.ledger.digital.personal.repo.AccountRepository;
 import com.ledger.digital.personal.repo.BudgetRepository;
 import com.ledger.digital.personal.repo.InvestmentRepository;
+import com.ledger.digital.personal.repo.ListSpecifications;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -23,123 +27,151 @@ public class InvestmentService {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final BudgetRepository budgetRepository;
+    private final JournalService journalService;
+    private final NetWorthService netWorthService;
+    private final AccountBalances accountBalances;
 
     public InvestmentService(InvestmentRepository investmentRepository,
                              UserRepository userRepository,
                              AccountRepository accountRepository,
-                             BudgetRepository budgetRepository) {
+                             BudgetRepository budgetRepository,
+                             JournalService journalService,
+                             NetWorthService netWorthService,
+                             AccountBalances accountBalances) {
         this.investmentRepository = investmentRepository;
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.budgetRepository = budgetRepository;
+        this.journalService = journalService;
+        this.netWorthService = netWorthService;
+        this.accountBalances = accountBalances;
     }
 
     // Create a new investment
-    public InvestmentDto createInvestment(InvestmentDto dto, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    @Transactional
+    public InvestmentDto createInvestment(InvestmentDto dto, AuthenticatedUser principal) {
         Investment investment = InvestmentMapper.toEntity(dto);
-        investment.setUser(user);
+        investment.setUser(userRepository.getReferenceById(principal.getId()));
 
         // Deduct from account if linked
         if (dto.getAccountId() != null) {
-            Account account = accountRepository.findById(dto.getAccountId())
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-
-            if (!account.getUser().getId().equals(user.getId()))
-                throw new RuntimeException("Account does not belong to user");
-
-            investment.setAccount(account);
-            account.setBalance(account.getBalance().subtract(dto.getValue()));
-            accountRepository.save(account);
+            deductFromAccount(dto.getAccountId(), dto.getValue(), principal);
+            investment.setAccount(accountRepository.getReferenceById(dto.getAccountId()));
         }
 
         // Deduct from budget if linked
         if (dto.getBudgetId() != null) {
-            Budget budget = budgetRepository.findById(dto.getBudgetId())
-                    .orElseThrow(() -> new RuntimeException("Budget not found"));
-
-            if (!budget.getUser().getId().equals(user.getId()))
-                throw new RuntimeException("Budget does not belong to user");
-
-            investment.setBudget(budget);
-            budget.setAmount(budget.getAmount().subtract(dto.getValue()));
-            budgetRepository.save(budget);
+            deductFromBudget(dto.getBudgetId(), dto.getValue(), principal);
+            investment.setBudget(budgetRepository.getReferenceById(dto.getBudgetId()));
         }
 
-        return InvestmentMapper.toDto(investmentRepository.save(investment));
+        Investment saved = investmentRepository.save(investment);
+        netWorthService.addInvested(principal.getId(), saved.getType(), saved.getValue());
+        if (dto.getAccountId() != null) {
+            journalService.recordAccount(dto.getAccountId(), principal.getId(), dto.getValue().negate(),
+                    JournalEntry.Cause.INVESTMENT, saved.getId());
+        }
+        if (dto.getBudgetId() != null) {
+            journalService.recordBudget(dto.getBudgetId(), principal.getId(), dto.getValue().negate(),
+                    JournalEntry.Cause.INVESTMENT, saved.getId());
+        }
+        return InvestmentMapper.toDto(saved);
     }
 
     // List all investments of a user
-    public List<InvestmentDto> listInvestments(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        return investmentRepository.findByUser(user)
+    @Transactional(readOnly = true)
+    public List<InvestmentDto> listInvestments(AuthenticatedUser principal) {
+        return investmentRepository.findByUser(userRepository.getReferenceById(principal.getId()))
                 .stream()
                 .map(InvestmentMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    // One page of the user's investments, filtered and ordered in SQL (amount = value)
+    @Transactional(readOnly = true)
+    public PageDto<InvestmentDto> page(ListQueryDto query, AuthenticatedUser principal) {
+        return KeysetPagination.page(investmentRepository,
+                ListSpecifications.<Investment>equalTo("user.id", principal.getId())
+                        .and(ListSpecifications.equalIgnoreCase("type", query.getType()))
+                        .and(ListSpecifications.containsIgnoreCase(query.getQ(), "name"))
+                        .and(ListSpecifications.between("value", query.getMinAmount(), query.getMaxAmount()))
+                        .and(ListSpecifications.during("occurredAt", query.getFrom(), query.getTo())),
+                query, "value", Investment::getId, Investment::getValue, InvestmentMapper::toDto);
+    }
+
     // Update investment by adding or removing amount
+    @Transactional
     public InvestmentDto updateInvestment(Long id, BigDecimal changeAmount,
                                           boolean addToAccount, Long accountId,
-                                          Long budgetId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                                          Long budgetId, AuthenticatedUser principal) {
+        return updateInvestment(id, changeAmount, addToAccount, accountId, budgetId, null, principal);
+    }
 
-        Investment investment = investmentRepository.findById(id)
-                .filter(i -> i.getUser().getId().equals(user.getId()))
+    // at dates the journal entries (a recurring contribution posted late); null = now
+    @Transactional
+    public InvestmentDto updateInvestment(Long id, BigDecimal changeAmount,
+                                          boolean addToAccount, Long accountId,
+                                          Long budgetId, LocalDateTime at, AuthenticatedUser principal) {
+        Investment investment = investmentRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Investment not found"));
 
         // Add to investment
         investment.setValue(investment.getValue().add(changeAmount));
+        netWorthService.addInvested(principal.getId(), investment.getType(), changeAmount);
 
         // Deduct from account if specified
         if (accountId != null) {
-            Account account = accountRepository.findById(accountId)
-                    .orElseThrow(() -> new RuntimeException("Account not found"));
-
-            account.setBalance(account.getBalance().subtract(changeAmount));
-            accountRepository.save(account);
+            deductFromAccount(accountId, changeAmount, principal);
+            journalService.recordAccount(accountId, principal.getId(), changeAmount.negate(),
+                    JournalEntry.Cause.INVESTMENT, investment.getId(), at);
 
             // link account to investment if not already
-            investment.setAccount(account);
+            investment.setAccount(accountRepository.getReferenceById(accountId));
         }
 
         // Deduct from budget if specified
         if (budgetId != null) {
-            Budget budget = budgetRepository.findById(budgetId)
-                    .orElseThrow(() -> new RuntimeException("Budget not found"));
-
-            budget.setAmount(budget.getAmount().subtract(changeAmount));
-            budgetRepository.save(budget);
+            deductFromBudget(budgetId, changeAmount, principal);
+            journalService.recordBudget(budgetId, principal.getId(), changeAmount.negate(),
+                    JournalEntry.Cause.INVESTMENT, investment.getId(), at);
 
             // link budget to investment if not already
-            investment.setBudget(budget);
+            investment.setBudget(budgetRepository.getReferenceById(budgetId));
         }
 
         return InvestmentMapper.toDto(investmentRepository.save(investment));
     }
 
     // Close investment
-    public InvestmentDto closeInvestment(Long id, boolean addToAccount, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Investment investment = investmentRepository.findById(id)
-                .filter(i -> i.getUser().getId().equals(user.getId()))
+    @Transactional
+    public InvestmentDto closeInvestment(Long id, boolean addToAccount, AuthenticatedUser principal) {
+        Investment investment = investmentRepository.findByIdAndUserId(id, principal.getId())
                 .orElseThrow(() -> new RuntimeException("Investment not found"));
 
         // Add back to account if requested
         if (addToAccount && investment.getAccount() != null) {
-            Account account = investment.getAccount();
-            account.setBalance(account.getBalance().add(investment.getValue()));
-            accountRepository.save(account);
+            Long accountId = investment.getAccount().getId();
+            accountBalances.add(accountId, principal.getId(), investment.getValue());
+            journalService.recordAccount(accountId, principal.getId(), investment.getValue(),
+                    JournalEntry.Cause.INVESTMENT, investment.getId());
+            netWorthService.addBalance(principal.getId(), accountId, investment.getValue());
         }
 
         investmentRepository.delete(investment);
+        netWorthService.addInvested(principal.getId(), investment.getType(), investment.getValue().negate());
         return InvestmentMapper.toDto(investment);
     }
+
+    // Atomic deductions; a zero row count means the target is missing or not the user's
+    private void deductFromAccount(Long accountId, BigDecimal amount, AuthenticatedUser principal) {
+        accountBalances.add(accountId, principal.getId(), amount.negate());
+        netWorthService.addBalance(principal.getId(), accountId, amount.negate());
+    }
+
+    private void deductFromBudget(Long budgetId, BigDecimal amount, AuthenticatedUser principal) {
+        if (budgetRepository.addToAmount(budgetId, principal.getId(), amount.negate()) == 0) {
+            throw new RuntimeException("Budget not found");
+        }
+        netWorthService.addBudgeted(principal.getId(), amount.negate());
+    }
 }
@@ -0,0 +1,121 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.model.BalanceSnapshot;
+import com.ledger.digital.personal.model.JournalEntry;
+import com.ledger.digital.personal.repo.BalanceSnapshotRepository;
+import com.ledger.digital.personal.repo.JournalEntryRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Writes the append-only journal next to every Account.balance / Budget.amount change.
+// Callers invoke it inside their own transaction so the entry commits (or rolls back) with the change.
+@Service
+public class JournalService {
+
+    // One entry of a batch against a single target; occurredAt null = now
+    public record Posting(BigDecimal delta, Long causeId, LocalDateTime occurredAt) {
+    }
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final BalanceRollupService balanceRollupService;
+
+    public JournalService(JournalEntryRepository journalEntryRepository,
+                          BalanceSnapshotRepository balanceSnapshotRepository,
+                          BalanceRollupService balanceRollupService) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.balanceRollupService = balanceRollupService;
+    }
+
+    // MANDATORY: an entry written in its own transaction could outlive a rolled-back balance change
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccount(Long accountId, Long userId, BigDecimal delta, JournalEntry.Cause cause, Long causeId) {
+        recordAccount(accountId, userId, delta, cause, causeId, null);
+    }
+
+    // occurredAt dates a change that happened earlier (recurring catch-up, backdated credit); null = now
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccount(Long accountId, Long userId, BigDecimal delta, JournalEntry.Cause cause, Long causeId,
+                              LocalDateTime occurredAt) {
+        JournalEntry entry = record(JournalEntry.Target.ACCOUNT, accountId, userId, delta, cause, causeId, occurredAt);
+        if (entry != null) {
+            balanceRollupService.record(accountId, userId, delta, entry.getOccurredAt());
+        }
+    }
+
+    // Many entries against one account (bulk import): a single insert for all of them, then one rollup
+    // update per day they fall on instead of one per entry
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAccount(Long accountId, Long userId, JournalEntry.Cause cause, List<Posting> postings) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Posting> entries = postings.stream().filter(p -> p.delta() != null && p.delta().signum() != 0).toList();
+        if (entries.isEmpty()) return;
+
+        BigDecimal[] amounts = new BigDecimal[entries.size()];
+        Long[] causeIds = new Long[entries.size()];
+        LocalDateTime[] occurredAts = new LocalDateTime[entries.size()];
+        // day -> {credits, debits}, oldest first as recordDay requires
+        SortedMap<LocalDate, BigDecimal[]> days = new TreeMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Posting posting = entries.get(i);
+            amounts[i] = posting.delta();
+            causeIds[i] = posting.causeId();
+            occurredAts[i] = posting.occurredAt() != null ? posting.occurredAt() : now;
+
+            BigDecimal[] flows = days.computeIfAbsent(occurredAts[i].toLocalDate(),
+                    day -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+            if (posting.delta().signum() > 0) {
+                flows[0] = flows[0].add(posting.delta());
+            } else {
+                flows[1] = flows[1].subtract(posting.delta());
+            }
+        }
+
+        journalEntryRepository.insertAll(JournalEntry.Target.ACCOUNT.name(), accountId, userId, cause.name(),
+                amounts, causeIds, occurredAts, now);
+        days.forEach((day, flows) -> balanceRollupService.recordDay(accountId, userId, day, flows[0], flows[1]));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBudget(Long budgetId, Long userId, BigDecimal delta, JournalEntry.Cause cause, Long causeId) {
+        recordBudget(budgetId, userId, delta, cause, causeId, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBudget(Long budgetId, Long userId, BigDecimal delta, JournalEntry.Cause cause, Long causeId,
+                             LocalDateTime occurredAt) {
+        record(JournalEntry.Target.BUDGET, budgetId, userId, delta, cause, causeId, occurredAt);
+    }
+
+    // Balance rebuilt from the journal: latest snapshot + entries after it
+    @Transactional(readOnly = true)
+    public BigDecimal reconstructBalance(JournalEntry.Target target, Long targetId) {
+        BalanceSnapshot snapshot = balanceSnapshotRepository
+                .findTopByTargetAndTargetIdOrderByLastEntryIdDesc(target, targetId)
+                .orElse(null);
+
+        BigDecimal base = snapshot != null ? snapshot.getBalance() : BigDecimal.ZERO;
+        long afterId = snapshot != null ? snapshot.getLastEntryId() : 0L;
+        return base.add(journalEntryRepository.sumAfter(target, targetId, afterId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<JournalEntry> history(JournalEntry.Target target, Long targetId, LocalDateTime from, LocalDateTime to) {
+        return journalEntryRepository.findByTargetAndTargetIdAndOccurredAtBetweenOrderByIdAsc(target, targetId, from, to);
+    }
+
+    private JournalEntry record(JournalEntry.Target target, Long targetId, Long userId,
+                                BigDecimal delta, JournalEntry.Cause cause, Long causeId, LocalDateTime occurredAt) {
+        if (delta == null || delta.signum() == 0) return null;
+        return journalEntryRepository.save(new JournalEntry(target, targetId, userId, delta, cause, causeId, occurredAt));
+    }
+}
@@ -0,0 +1,107 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.dto.PageDto;
+import com.ledger.digital.personal.repo.ListSpecifications;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Cursor pagination over (id) or (amount, id). The cursor carries the sort key of the last row,
+// so each page is "WHERE key < :last ORDER BY key LIMIT n+1" on an index instead of an OFFSET scan,
+// and latency stays flat however deep the client pages.
+public final class KeysetPagination {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private KeysetPagination() {
+    }
+
+    public static <T, D> PageDto<D> page(JpaSpecificationExecutor<T> repository, Specification<T> filters,
+                                         ListQueryDto query, String amountAttribute,
+                                         Function<T, Long> idOf, Function<T, BigDecimal> amountOf,
+                                         Function<T, D> toDto) {
+        int limit = query.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(MAX_LIMIT, query.getLimit()));
+
+        boolean byAmount = "amount".equalsIgnoreCase(query.getSort());
+        if (query.getSort() != null && !byAmount && !"id".equalsIgnoreCase(query.getSort())) {
+            throw new RuntimeException("Unsupported sort: " + query.getSort());
+        }
+        boolean ascending = "asc".equalsIgnoreCase(query.getDirection());
+
+        Cursor after = query.getCursor() == null || query.getCursor().isBlank()
+                ? null
+                : Cursor.decode(query.getCursor(), byAmount);
+
+        Specification<T> spec = filters.and(keyset(after, byAmount, ascending, amountAttribute));
+        List<T> rows = repository.findBy(spec, q -> q.limit(limit + 1).all());
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            T last = rows.get(limit - 1);
+            nextCursor = new Cursor(amountOf.apply(last), idOf.apply(last)).encode(byAmount);
+        }
+        return new PageDto<>(rows.stream().map(toDto).toList(), nextCursor);
+    }
+
+    // Orders on the raw columns so the (owner, amount, id) and (owner, id) indexes can return rows in
+    // order. Postgres sorts nulls as the largest value (last ascending, first descending), which is
+    // also how the btree stores them, so a null amount is handled as "above every number".
+    private static <T> Specification<T> keyset(Cursor after, boolean byAmount, boolean ascending, String amountAttribute) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Path<BigDecimal> amount = ListSpecifications.path(root, amountAttribute);
+
+            if (byAmount) {
+                query.orderBy(ascending ? cb.asc(amount) : cb.desc(amount), ascending ? cb.asc(id) : cb.desc(id));
+            } else {
+                query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+            }
+
+            if (after == null) return cb.conjunction();
+
+            Predicate idAfter = ascending ? cb.greaterThan(id, after.id) : cb.lessThan(id, after.id);
+            if (!byAmount) return idAfter;
+
+            if (after.amount == null) {
+                // Ascending, the nulls come last: only nulls are left. Descending, they came first: all numbers are left.
+                Predicate nullsAfter = cb.and(cb.isNull(amount), idAfter);
+                return ascending ? nullsAfter : cb.or(nullsAfter, cb.isNotNull(amount));
+            }
+            Predicate amountAfter = ascending ? cb.greaterThan(amount, after.amount) : cb.lessThan(amount, after.amount);
+            Predicate next = cb.or(amountAfter, cb.and(cb.equal(amount, after.amount), idAfter));
+            return ascending ? cb.or(next, cb.isNull(amount)) : next;
+        };
+    }
+
+    private record Cursor(BigDecimal amount, Long id) {
+
+        String encode(boolean byAmount) {
+            // A null amount is encoded as an empty first field
+            String raw = byAmount ? (amount != null ? amount.toPlainString() : "") + "|" + id : String.valueOf(id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, boolean byAmount) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                if (!byAmount) return new Cursor(null, Long.parseLong(raw));
+
+                int sep = raw.indexOf('|');
+                BigDecimal amount = sep == 0 ? null : new BigDecimal(raw.substring(0, sep));
+                return new Cursor(amount, Long.parseLong(raw.substring(sep + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+    }
+}
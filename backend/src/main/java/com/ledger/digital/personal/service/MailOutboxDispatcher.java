@@ -0,0 +1,151 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.job.MaintenanceJob;
+import com.ledger.digital.personal.model.OutboundMail;
+import com.ledger.digital.personal.repo.OutboundMailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Drains the outbound_mail table in the background.
+// Each batch is sent through one SMTP connection (JavaMailSender.send(SimpleMailMessage...)),
+// failures are retried with exponential backoff until max-attempts.
+// Runs as a MaintenanceJob so only one instance drains the outbox at a time. Each batch is also claimed
+// row by row before it is sent (next_attempt_at pushed past the send), so a mail is never picked up
+// twice even by an overlapping run; if this instance dies mid-send the mails come due again.
+@Service
+public class MailOutboxDispatcher implements MaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffSeconds;
+    private final Duration pollInterval;
+    private final long claimSeconds;
+    private final TransactionTemplate tx;
+
+    public MailOutboxDispatcher(OutboundMailRepository outboundMailRepository,
+                                JavaMailSender mailSender,
+                                @Value("${ledger.mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${ledger.mail.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${ledger.mail.outbox.backoff-seconds:30}") long backoffSeconds,
+                                @Value("${ledger.mail.outbox.poll-millis:2000}") long pollMillis,
+                                @Value("${ledger.mail.outbox.claim-seconds:300}") long claimSeconds,
+                                PlatformTransactionManager transactionManager) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffSeconds = backoffSeconds;
+        this.pollInterval = Duration.ofMillis(pollMillis);
+        this.claimSeconds = claimSeconds;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String name() {
+        return "mail-outbox";
+    }
+
+    @Override
+    public Duration interval() {
+        return pollInterval;
+    }
+
+    @Override
+    public void run() {
+        List<OutboundMail> batch;
+        int sent;
+        do {
+            batch = claim();
+            sent = batch.isEmpty() ? 0 : dispatch(batch);
+            // keep going only while full batches are getting through
+        } while (batch.size() == batchSize && sent > 0);
+    }
+
+    private List<OutboundMail> claim() {
+        List<OutboundMail> batch = tx.execute(s -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboundMail> due = outboundMailRepository.lockDue(now, batchSize);
+            due.forEach(mail -> mail.setNextAttemptAt(now.plusSeconds(claimSeconds)));
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    // Send one batch and record the outcome of every mail in it
+    int dispatch(List<OutboundMail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundMail mail = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getRecipient());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Per-message failures; an empty map means the whole batch failed (e.g. connect error)
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) batchFailure = e;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int sent = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundMail mail = batch.get(i);
+            Exception error = batchFailure != null ? batchFailure : failures.get(messages[i]);
+            if (error == null) {
+                mail.setStatus(OutboundMail.Status.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                sent++;
+            } else {
+                markFailed(mail, error, now);
+            }
+        }
+        outboundMailRepository.saveAll(batch);
+
+        if (sent < batch.size()) {
+            log.warn("Mail outbox: {} of {} messages failed", batch.size() - sent, batch.size());
+        }
+        return sent;
+    }
+
+    private void markFailed(OutboundMail mail, Exception error, LocalDateTime now) {
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        mail.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(OutboundMail.Status.FAILED);
+        } else {
+            // 30s, 60s, 120s, ... capped at 2^10 steps
+            long delay = backoffSeconds << Math.min(attempts - 1, 10);
+            mail.setNextAttemptAt(now.plusSeconds(delay));
+        }
+    }
+}
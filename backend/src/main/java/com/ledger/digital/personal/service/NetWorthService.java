@@ -0,0 +1,226 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.model.NetWorthSummary;
+import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.repo.BudgetRepository;
+import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.DebtTotals;
+import com.ledger.digital.personal.repo.InvestmentRepository;
+import com.ledger.digital.personal.repo.NetWorthSummaryRepository;
+import com.ledger.digital.personal.repo.TypeTotal;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps net_worth_summaries in step with the ledger. Mutating services call the add* methods
+// inside their own transaction, so a summary delta commits or rolls back with the change it describes.
+// rebuild() recomputes a row from the source tables and is what the repair job and first reads use.
+// Balances and investment values are also totalled per type for the dashboard breakdowns.
+@Service
+public class NetWorthService {
+
+    public record Totals(BigDecimal totalBalance, Map<String, BigDecimal> balanceByType, BigDecimal budgeted,
+                         BigDecimal invested, Map<String, BigDecimal> investedByType,
+                         BigDecimal receivable, BigDecimal payable, boolean drifted) {
+
+        public BigDecimal netWorth() {
+            return totalBalance.add(invested).add(receivable).subtract(payable);
+        }
+    }
+
+    private final NetWorthSummaryRepository summaryRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetRepository budgetRepository;
+    private final InvestmentRepository investmentRepository;
+    private final DebtRepository debtRepository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public NetWorthService(NetWorthSummaryRepository summaryRepository,
+                           AccountRepository accountRepository,
+                           BudgetRepository budgetRepository,
+                           InvestmentRepository investmentRepository,
+                           DebtRepository debtRepository,
+                           JsonMapper jsonMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.accountRepository = accountRepository;
+        this.budgetRepository = budgetRepository;
+        this.investmentRepository = investmentRepository;
+        this.debtRepository = debtRepository;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Deltas are only valid inside the transaction of the change they describe.
+    // The balance is filed under the account's type, so callers change the account first.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBalance(Long userId, Long accountId, BigDecimal delta) {
+        if (isZero(delta)) return;
+
+        DeltaBatch batch = DeltaBatch.current();
+        if (batch != null) {
+            batch.netWorthBalanceDeltas.computeIfAbsent(userId, id -> new LinkedHashMap<>())
+                    .merge(accountId, delta, BigDecimal::add);
+            return;
+        }
+        summaryRepository.addBalance(userId, accountId, delta, LocalDateTime.now());
+    }
+
+    // After an account's type changed from fromType; the new type must already be flushed
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveBalance(Long userId, Long accountId, String fromType) {
+        summaryRepository.moveBalance(userId, accountId, fromType, LocalDateTime.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addBudgeted(Long userId, BigDecimal delta) {
+        apply(userId, delta, null, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addInvested(Long userId, String type, BigDecimal delta) {
+        if (isZero(delta)) return;
+
+        DeltaBatch batch = DeltaBatch.current();
+        if (batch != null) {
+            batch.netWorthInvestedDeltas.computeIfAbsent(userId, id -> new LinkedHashMap<>())
+                    .merge(type, delta, BigDecimal::add);
+            return;
+        }
+        summaryRepository.addInvested(userId, type, delta, LocalDateTime.now());
+    }
+
+    // given = money lent out (receivable), otherwise money borrowed (payable)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addDebt(Long userId, boolean given, BigDecimal delta) {
+        if (given) {
+            apply(userId, null, delta, null);
+        } else {
+            apply(userId, null, null, delta);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long userId, BigDecimal budgeted, BigDecimal receivable, BigDecimal payable) {
+        if (isZero(budgeted) && isZero(receivable) && isZero(payable)) {
+            return;
+        }
+
+        DeltaBatch batch = DeltaBatch.current();
+        if (batch != null) {
+            BigDecimal[] sums = batch.netWorthDeltas.computeIfAbsent(userId, id -> new BigDecimal[]{
+                    BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO});
+            BigDecimal[] deltas = {budgeted, receivable, payable};
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] = sums[i].add(orZero(deltas[i]));
+            }
+            return;
+        }
+
+        summaryRepository.addDelta(userId, orZero(budgeted), orZero(receivable), orZero(payable), LocalDateTime.now());
+    }
+
+    // Applies what a DeltaBatch collected: one summary update per user, plus one per account and
+    // investment type whose total moved
+    void flush(DeltaBatch batch) {
+        LocalDateTime now = LocalDateTime.now();
+        batch.netWorthDeltas.forEach((userId, sums) -> {
+            if (sums[0].signum() != 0 || sums[1].signum() != 0 || sums[2].signum() != 0) {
+                summaryRepository.addDelta(userId, sums[0], sums[1], sums[2], now);
+            }
+        });
+        batch.netWorthBalanceDeltas.forEach((userId, byAccount) -> byAccount.forEach((accountId, delta) -> {
+            if (delta.signum() != 0) {
+                summaryRepository.addBalance(userId, accountId, delta, now);
+            }
+        }));
+        batch.netWorthInvestedDeltas.forEach((userId, byType) -> byType.forEach((type, delta) -> {
+            if (delta.signum() != 0) {
+                summaryRepository.addInvested(userId, type, delta, now);
+            }
+        }));
+        batch.netWorthDeltas.clear();
+        batch.netWorthBalanceDeltas.clear();
+        batch.netWorthInvestedDeltas.clear();
+    }
+
+    // Primary-key read; a user without a row yet gets one built on the spot
+    public Totals get(Long userId) {
+        return summaryRepository.findById(userId)
+                .map(s -> new Totals(s.getTotalBalance(), s.getBalanceByType(), s.getBudgeted(),
+                        s.getInvested(), s.getInvestedByType(), s.getReceivable(), s.getPayable(), false))
+                .orElseGet(() -> rebuild(userId));
+    }
+
+    // Locks the row before aggregating. Every delta writer updates the same row, so it either
+    // committed before the lock (and is in the aggregates) or waits and applies on top of the result.
+    public Totals rebuild(Long userId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            summaryRepository.ensureRow(userId, now);
+            NetWorthSummary current = summaryRepository.lockRow(userId);
+
+            BigDecimal balance = accountRepository.sumBalance(userId);
+            Map<String, BigDecimal> balanceByType = byType(accountRepository.sumBalanceByType(userId));
+            BigDecimal budgeted = budgetRepository.sumAmount(userId);
+            BigDecimal invested = investmentRepository.sumValue(userId);
+            Map<String, BigDecimal> investedByType = byType(investmentRepository.sumValueByType(userId));
+            DebtTotals debts = debtRepository.sumTotals(userId);
+
+            // Version 0 is a row that was just created, not one that drifted
+            boolean drifted = current.getVersion() > 0 && (
+                    differs(current.getTotalBalance(), balance)
+                            || differs(current.getBalanceByType(), balanceByType)
+                            || differs(current.getBudgeted(), budgeted)
+                            || differs(current.getInvested(), invested)
+                            || differs(current.getInvestedByType(), investedByType)
+                            || differs(current.getReceivable(), debts.getLent())
+                            || differs(current.getPayable(), debts.getOwed()));
+
+            summaryRepository.overwrite(userId, balance, jsonMapper.writeValueAsString(balanceByType), budgeted,
+                    invested, jsonMapper.writeValueAsString(investedByType), debts.getLent(), debts.getOwed(), now);
+            return new Totals(balance, balanceByType, budgeted, invested, investedByType,
+                    debts.getLent(), debts.getOwed(), drifted);
+        });
+    }
+
+    // Same shape the deltas keep: untyped rows under "Other", zero totals left out
+    private static Map<String, BigDecimal> byType(List<TypeTotal> totals) {
+        Map<String, BigDecimal> map = new LinkedHashMap<>();
+        for (TypeTotal total : totals) {
+            map.merge(total.getType() != null ? total.getType() : "Other", total.getTotal(), BigDecimal::add);
+        }
+        map.values().removeIf(total -> total.signum() == 0);
+        return map;
+    }
+
+    private static boolean isZero(BigDecimal value) {
+        return value == null || value.signum() == 0;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    private static boolean differs(BigDecimal a, BigDecimal b) {
+        return orZero(a).compareTo(orZero(b)) != 0;
+    }
+
+    private static boolean differs(Map<String, BigDecimal> a, Map<String, BigDecimal> b) {
+        if (a == null || a.size() != b.size()) return true;
+        for (Map.Entry<String, BigDecimal> entry : b.entrySet()) {
+            if (differs(a.get(entry.getKey()), entry.getValue())) return true;
+        }
+        return false;
+    }
+}
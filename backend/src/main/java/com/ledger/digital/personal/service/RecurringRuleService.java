@@ -0,0 +1,432 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.RecurringRuleDto;
+import com.ledger.digital.personal.mapper.RecurringRuleMapper;
+import com.ledger.digital.personal.model.RecurringRule;
+import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.repo.BudgetRepository;
+import com.ledger.digital.personal.repo.InvestmentRepository;
+import com.ledger.digital.personal.repo.RecurringRuleRepository;
+import com.ledger.digital.personal.repo.RuleSchedule;
+import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Recurring credits, budget top-ups and investment contributions. Occurrences are posted through the
+// regular services, so each one is journaled and counted in net worth like a hand-entered operation.
+// RecurringScheduler hands over every rule due in a tick at once; they are posted in one transaction
+// with balance and net-worth deltas summed per user (DeltaBatch), each missed occurrence at its own time.
+@Service
+public class RecurringRuleService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringRuleService.class);
+
+    // A due rule locked by another instance is being posted there; look again this much later
+    private static final long BUSY_RETRY_SECONDS = 5;
+
+    // Next time a rule is due; null when it is no longer scheduled (paused, ended, deleted)
+    public record Next(Long ruleId, LocalDateTime at) {
+    }
+
+    private final RecurringRuleRepository recurringRuleRepository;
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final BudgetRepository budgetRepository;
+    private final InvestmentRepository investmentRepository;
+    private final CreditService creditService;
+    private final BudgetService budgetService;
+    private final InvestmentService investmentService;
+    private final AccountBalances accountBalances;
+    private final NetWorthService netWorthService;
+    private final RecurringWheel recurringWheel;
+    private final TransactionTemplate tx;
+    private final MeterRegistry meterRegistry;
+    private final int maxCatchUp;
+    private final int maxFailures;
+    private final long retrySeconds;
+    private final int maxBackfillDays;
+    private final Duration minInterval;
+
+    public RecurringRuleService(RecurringRuleRepository recurringRuleRepository,
+                                UserRepository userRepository,
+                                AccountRepository accountRepository,
+                                BudgetRepository budgetRepository,
+                                InvestmentRepository investmentRepository,
+                                CreditService creditService,
+                                BudgetService budgetService,
+                                InvestmentService investmentService,
+                                AccountBalances accountBalances,
+                                NetWorthService netWorthService,
+                                RecurringWheel recurringWheel,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${ledger.recurring.max-catch-up:120}") int maxCatchUp,
+                                @Value("${ledger.recurring.max-failures:5}") int maxFailures,
+                                @Value("${ledger.recurring.retry-seconds:300}") long retrySeconds,
+                                @Value("${ledger.recurring.max-backfill-days:366}") int maxBackfillDays,
+                                @Value("${ledger.recurring.min-interval-minutes:60}") long minIntervalMinutes) {
+        this.recurringRuleRepository = recurringRuleRepository;
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.budgetRepository = budgetRepository;
+        this.investmentRepository = investmentRepository;
+        this.creditService = creditService;
+        this.budgetService = budgetService;
+        this.investmentService = investmentService;
+        this.accountBalances = accountBalances;
+        this.netWorthService = netWorthService;
+        this.recurringWheel = recurringWheel;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxCatchUp = maxCatchUp;
+        this.maxFailures = maxFailures;
+        this.retrySeconds = retrySeconds;
+        this.maxBackfillDays = maxBackfillDays;
+        this.minInterval = Duration.ofMinutes(minIntervalMinutes);
+    }
+
+    @Transactional
+    public RecurringRuleDto create(RecurringRuleDto dto, AuthenticatedUser principal) {
+        if (dto.getKind() == null) throw new RuntimeException("kind is required");
+        requirePositive(dto.getAmount());
+        checkTargets(dto, principal.getId());
+
+        RecurringRule rule = new RecurringRule();
+        rule.setUser(userRepository.getReferenceById(principal.getId()));
+        rule.setKind(dto.getKind());
+        rule.setAccountId(dto.getAccountId());
+        rule.setBudgetId(dto.getKind() == RecurringRule.Kind.CREDIT ? null : dto.getBudgetId());
+        rule.setInvestmentId(dto.getKind() == RecurringRule.Kind.INVESTMENT ? dto.getInvestmentId() : null);
+        rule.setAmount(dto.getAmount());
+        rule.setSource(dto.getSource());
+        rule.setNote(dto.getNote());
+        rule.setEndAt(dto.getEndAt());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime startAt = dto.getStartAt() != null ? dto.getStartAt() : now;
+        if (startAt.isBefore(now.minusDays(maxBackfillDays))) {
+            throw new RuntimeException("startAt can be at most " + maxBackfillDays + " days in the past");
+        }
+        rule.setStartAt(startAt);
+
+        boolean hasCron = dto.getCron() != null && !dto.getCron().isBlank();
+        boolean hasPeriod = dto.getPeriod() != null && !dto.getPeriod().isBlank();
+        if (hasCron == hasPeriod) throw new RuntimeException("Set exactly one of cron and period");
+        LocalDateTime first;
+        if (hasCron) {
+            rule.setCron(dto.getCron().trim());
+            // next() is strictly after its argument; startAt itself counts when it matches
+            first = cron(rule.getCron()).next(startAt.minusNanos(1));
+            requireMinInterval(cron(rule.getCron()), first);
+        } else {
+            rule.setPeriod(period(dto.getPeriod().trim()).toString());
+            first = startAt;
+        }
+        if (first == null || (rule.getEndAt() != null && first.isAfter(rule.getEndAt()))) {
+            throw new RuntimeException("Schedule has no occurrence before endAt");
+        }
+        rule.setNextRunAt(first);
+
+        RecurringRule saved = recurringRuleRepository.save(rule);
+        reschedule(saved);
+        return RecurringRuleMapper.toDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecurringRuleDto> list(AuthenticatedUser principal) {
+        return recurringRuleRepository.findByUserIdOrderByIdAsc(principal.getId()).stream()
+                .map(RecurringRuleMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public RecurringRuleDto get(Long id, AuthenticatedUser principal) {
+        return RecurringRuleMapper.toDto(recurringRuleRepository.findByIdAndUserId(id, principal.getId())
+                .orElseThrow(() -> new RuntimeException("Recurring rule not found")));
+    }
+
+    // Amount, source, note and endAt can change; a different schedule is a new rule
+    @Transactional
+    public RecurringRuleDto update(Long id, RecurringRuleDto dto, AuthenticatedUser principal) {
+        RecurringRule rule = lockOwned(id, principal);
+        if (dto.getAmount() != null) {
+            requirePositive(dto.getAmount());
+            rule.setAmount(dto.getAmount());
+        }
+        rule.setSource(dto.getSource());
+        rule.setNote(dto.getNote());
+        rule.setEndAt(dto.getEndAt());
+        if (rule.getEndAt() != null && rule.getNextRunAt().isAfter(rule.getEndAt())) {
+            rule.setActive(false);
+        }
+        reschedule(rule);
+        return RecurringRuleMapper.toDto(rule);
+    }
+
+    @Transactional
+    public RecurringRuleDto pause(Long id, AuthenticatedUser principal) {
+        RecurringRule rule = lockOwned(id, principal);
+        rule.setActive(false);
+        reschedule(rule);
+        return RecurringRuleMapper.toDto(rule);
+    }
+
+    // Occurrences that passed while paused are skipped, not posted
+    @Transactional
+    public RecurringRuleDto resume(Long id, AuthenticatedUser principal) {
+        RecurringRule rule = lockOwned(id, principal);
+        if (rule.isActive()) return RecurringRuleMapper.toDto(rule);
+
+        rule.setActive(true);
+        rule.setFailures(0);
+        rule.setLastError(null);
+        LocalDateTime now = LocalDateTime.now();
+        while (rule.isActive() && rule.getNextRunAt().isBefore(now)) {
+            advance(rule);
+        }
+        if (!rule.isActive()) throw new RuntimeException("Recurring rule has ended");
+
+        reschedule(rule);
+        return RecurringRuleMapper.toDto(rule);
+    }
+
+    @Transactional
+    public void delete(Long id, AuthenticatedUser principal) {
+        RecurringRule rule = lockOwned(id, principal);
+        recurringRuleRepository.delete(rule);
+        afterCommit(() -> recurringWheel.remove(id));
+    }
+
+    // Posts everything the given rules owe up to now and returns when each is due next. Runs in one
+    // transaction; if any rule fails, the rules are rerun one by one so the others still go through.
+    public List<Next> runDue(List<Long> ruleIds, LocalDateTime now) {
+        try {
+            return tx.execute(status -> post(ruleIds, now));
+        } catch (RuntimeException e) {
+            if (ruleIds.size() == 1) return List.of(failed(ruleIds.get(0), e, now));
+
+            List<Next> next = new ArrayList<>();
+            for (Long id : ruleIds) {
+                next.addAll(runDue(List.of(id), now));
+            }
+            return next;
+        }
+    }
+
+    private List<Next> post(List<Long> ruleIds, LocalDateTime now) {
+        List<RecurringRule> rules = recurringRuleRepository.lockDue(ruleIds, now);
+        Map<Long, List<RecurringRule>> byUser = rules.stream()
+                .collect(Collectors.groupingBy(r -> r.getUser().getId(), LinkedHashMap::new, Collectors.toList()));
+
+        List<Next> next = new ArrayList<>();
+        for (Map.Entry<Long, List<RecurringRule>> entry : byUser.entrySet()) {
+            // Each account and the user's net-worth row are updated once for all their occurrences
+            DeltaBatch batch = DeltaBatch.open();
+            try {
+                for (RecurringRule rule : entry.getValue()) {
+                    catchUp(rule, now);
+                    next.add(new Next(rule.getId(), rule.isActive() ? rule.getNextRunAt() : null));
+                }
+                accountBalances.flush(batch, entry.getKey());
+                netWorthService.flush(batch);
+            } finally {
+                batch.close();
+            }
+        }
+
+        // The others were not due after all: edited, paused, deleted, or being run by another instance
+        Set<Long> posted = rules.stream().map(RecurringRule::getId).collect(Collectors.toSet());
+        List<Long> rest = ruleIds.stream().filter(id -> !posted.contains(id)).toList();
+        if (!rest.isEmpty()) {
+            for (RuleSchedule schedule : recurringRuleRepository.findSchedules(rest)) {
+                LocalDateTime at = schedule.getNextRunAt().isAfter(now)
+                        ? schedule.getNextRunAt()
+                        : now.plusSeconds(BUSY_RETRY_SECONDS);
+                next.add(new Next(schedule.getId(), at));
+            }
+        }
+        return next;
+    }
+
+    // Missed occurrences are posted in order, each dated when it was due. A rule further behind than
+    // max-catch-up stays due and continues on the next tick.
+    private void catchUp(RecurringRule rule, LocalDateTime now) {
+        AuthenticatedUser principal = new AuthenticatedUser(rule.getUser().getId(), rule.getUser().getEmail());
+        int posted = 0;
+        while (rule.isActive() && !rule.getNextRunAt().isAfter(now) && posted < maxCatchUp) {
+            postOccurrence(rule, rule.getNextRunAt(), principal);
+            advance(rule);
+            posted++;
+        }
+        Counter.builder("ledger.recurring.posted").tag("kind", rule.getKind().name()).register(meterRegistry)
+                .increment(posted);
+        rule.setLastRunAt(now);
+        rule.setFailures(0);
+        rule.setLastError(null);
+    }
+
+    private void postOccurrence(RecurringRule rule, LocalDateTime at, AuthenticatedUser principal) {
+        switch (rule.getKind()) {
+            case CREDIT -> {
+                CreditDto credit = new CreditDto();
+                credit.setSource(rule.getSource());
+                credit.setAmount(rule.getAmount());
+                credit.setNote(rule.getNote());
+                credit.setOccurredAt(at);
+                creditService.addCredit(rule.getAccountId(), credit, principal);
+            }
+            case BUDGET -> budgetService.allocate(rule.getBudgetId(), rule.getAmount(), rule.getAccountId(), at, principal);
+            case INVESTMENT -> investmentService.updateInvestment(rule.getInvestmentId(), rule.getAmount(), false,
+                    rule.getAccountId(), rule.getBudgetId(), at, principal);
+        }
+    }
+
+    // Recorded in its own transaction after the run rolled back. The rule is retried after
+    // retry-seconds and switched off after max-failures failed runs in a row.
+    private Next failed(Long ruleId, RuntimeException error, LocalDateTime now) {
+        log.warn("Recurring rule {} failed: {}", ruleId, error.getMessage());
+        Counter.builder("ledger.recurring.failures").register(meterRegistry).increment();
+
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        String lastError = message.length() > 1000 ? message.substring(0, 1000) : message;
+        return tx.execute(status -> recurringRuleRepository.findById(ruleId)
+                .map(rule -> {
+                    rule.setFailures(rule.getFailures() + 1);
+                    rule.setLastError(lastError);
+                    if (rule.getFailures() >= maxFailures) rule.setActive(false);
+                    return new Next(ruleId, rule.isActive() ? now.plusSeconds(retrySeconds) : null);
+                })
+                .orElse(new Next(ruleId, null)));
+    }
+
+    // Moves nextRunAt to the following occurrence, or ends the rule when there is none before endAt
+    private static void advance(RecurringRule rule) {
+        rule.setOccurrences(rule.getOccurrences() + 1);
+        LocalDateTime next = rule.getCron() != null
+                ? cron(rule.getCron()).next(rule.getNextRunAt())
+                // Counted from startAt rather than the last occurrence, so the 31st stays the 31st after February
+                : rule.getStartAt().plus(period(rule.getPeriod()).multipliedBy(Math.toIntExact(rule.getOccurrences())));
+        if (next == null || (rule.getEndAt() != null && next.isAfter(rule.getEndAt()))) {
+            rule.setActive(false);
+        } else {
+            rule.setNextRunAt(next);
+        }
+    }
+
+    private void checkTargets(RecurringRuleDto dto, Long userId) {
+        switch (dto.getKind()) {
+            case CREDIT -> {
+                if (dto.getAccountId() == null) throw new RuntimeException("accountId is required");
+            }
+            case BUDGET -> {
+                if (dto.getBudgetId() == null) throw new RuntimeException("budgetId is required");
+            }
+            case INVESTMENT -> {
+                if (dto.getInvestmentId() == null) throw new RuntimeException("investmentId is required");
+                if (investmentRepository.findByIdAndUserId(dto.getInvestmentId(), userId).isEmpty()) {
+                    throw new RuntimeException("Investment not found");
+                }
+            }
+        }
+        if (dto.getAccountId() != null && !accountRepository.existsByIdAndUserId(dto.getAccountId(), userId)) {
+            throw new RuntimeException("Account not found");
+        }
+        if (dto.getKind() != RecurringRule.Kind.CREDIT && dto.getBudgetId() != null
+                && budgetRepository.findByIdAndUserId(dto.getBudgetId(), userId).isEmpty()) {
+            throw new RuntimeException("Budget not found");
+        }
+    }
+
+    private RecurringRule lockOwned(Long id, AuthenticatedUser principal) {
+        return recurringRuleRepository.findForUpdate(id, principal.getId())
+                .orElseThrow(() -> new RuntimeException("Recurring rule not found"));
+    }
+
+    // The wheel only learns about committed changes
+    private void reschedule(RecurringRule rule) {
+        Long id = rule.getId();
+        LocalDateTime at = rule.isActive() ? rule.getNextRunAt() : null;
+        afterCommit(() -> {
+            if (at != null) {
+                recurringWheel.schedule(id, at);
+            } else {
+                recurringWheel.remove(id);
+            }
+        });
+    }
+
+    // Walks a year of occurrences: a cron can fire densely on some days only (e.g. every minute on the 1st).
+    // Periods are whole days at least, so they always pass.
+    private void requireMinInterval(CronExpression cron, LocalDateTime first) {
+        if (first == null) return;
+        LocalDateTime until = first.plusYears(1);
+        LocalDateTime previous = first;
+        for (LocalDateTime at = cron.next(first); at != null && !at.isAfter(until); at = cron.next(at)) {
+            if (Duration.between(previous, at).compareTo(minInterval) < 0) {
+                throw new RuntimeException("Occurrences must be at least " + minInterval.toMinutes() + " minutes apart");
+            }
+            previous = at;
+        }
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) throw new RuntimeException("amount must be positive");
+    }
+
+    private static CronExpression cron(String expression) {
+        try {
+            return CronExpression.parse(expression);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cron expression: " + expression);
+        }
+    }
+
+    private static Period period(String value) {
+        Period period;
+        try {
+            period = Period.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid period: " + value);
+        }
+        if (period.isZero() || period.isNegative()) throw new RuntimeException("period must be positive");
+        return period;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
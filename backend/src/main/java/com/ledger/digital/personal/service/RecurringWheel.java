@@ -0,0 +1,72 @@
+package com.ledger.digital.personal.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// When each active recurring rule is next due, kept in memory on a TimingWheel so scheduling a rule
+// costs O(1) however many are pending. Only a hint: the rule row decides. An entry left stale by an
+// edit or a run on another instance just makes RecurringRuleService look at the rule, find it not
+// due and report its real time.
+@Component
+public class RecurringWheel {
+
+    // 64 buckets per level
+    private static final int BITS = 6;
+
+    private record Due(Long ruleId, long atMillis) {
+    }
+
+    private final TimingWheel<Due> wheel;
+
+    // ruleId -> deadline of its live entry; wheel entries that don't match it are stale and dropped
+    private final Map<Long, Long> scheduled = new HashMap<>();
+
+    public RecurringWheel(MeterRegistry meterRegistry,
+                          @Value("${ledger.recurring.tick-millis:1000}") long tickMillis,
+                          @Value("${ledger.recurring.wheel-levels:4}") int levels) {
+        this.wheel = new TimingWheel<>(tickMillis, BITS, levels, System.currentTimeMillis());
+        Gauge.builder("ledger.recurring.scheduled", this, RecurringWheel::size).register(meterRegistry);
+    }
+
+    public synchronized void schedule(Long ruleId, LocalDateTime at) {
+        long atMillis = toMillis(at);
+        Long current = scheduled.put(ruleId, atMillis);
+        if (current == null || current != atMillis) {
+            wheel.add(new Due(ruleId, atMillis), atMillis);
+        }
+    }
+
+    public synchronized void remove(Long ruleId) {
+        scheduled.remove(ruleId);
+    }
+
+    // Rules that came due up to now, each once. They leave the wheel until they are scheduled again.
+    public synchronized List<Long> due(LocalDateTime now) {
+        List<Long> due = new ArrayList<>();
+        for (Due entry : wheel.advance(toMillis(now))) {
+            Long live = scheduled.get(entry.ruleId);
+            if (live != null && live == entry.atMillis) {
+                scheduled.remove(entry.ruleId);
+                due.add(entry.ruleId);
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return scheduled.size();
+    }
+
+    private static long toMillis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,74 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.SearchResultDto;
+import com.ledger.digital.personal.repo.SearchRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Free-text search across credits, debts, investments and budgets of one user
+@Service
+public class SearchService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchRepository searchRepository;
+    private final double threshold;
+    private final int maxTerms;
+
+    public SearchService(SearchRepository searchRepository,
+                         @Value("${ledger.search.similarity-threshold:0.5}") double threshold,
+                         @Value("${ledger.search.max-terms:8}") int maxTerms) {
+        this.searchRepository = searchRepository;
+        this.threshold = threshold;
+        this.maxTerms = Math.max(1, maxTerms);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SearchResultDto> search(String q, List<String> types, LocalDateTime from, LocalDateTime to,
+                                        Integer limit, AuthenticatedUser principal) {
+        List<String> terms = terms(q);
+        if (terms.isEmpty()) {
+            throw new RuntimeException("Search query must contain a word of at least 2 characters");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new RuntimeException("from must be before to");
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(MAX_LIMIT, limit));
+
+        searchRepository.setThreshold(threshold);
+        return searchRepository.search(principal.getId(), terms, sources(types), from, to, size);
+    }
+
+    // Lower-cased words, punctuation dropped, each searched on its own
+    private List<String> terms(String q) {
+        if (q == null) return List.of();
+        return Arrays.stream(q.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> term.length() >= 2)
+                .distinct()
+                .limit(maxTerms)
+                .toList();
+    }
+
+    private static Set<SearchRepository.Source> sources(List<String> types) {
+        if (types == null || types.isEmpty()) return EnumSet.allOf(SearchRepository.Source.class);
+        Set<SearchRepository.Source> sources = EnumSet.noneOf(SearchRepository.Source.class);
+        for (String type : types) {
+            try {
+                sources.add(SearchRepository.Source.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported search type: " + type);
+            }
+        }
+        return sources;
+    }
+}
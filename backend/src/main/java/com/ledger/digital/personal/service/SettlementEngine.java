@@ -0,0 +1,58 @@
+package com.ledger.digital.personal.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Min-cash-flow settlement of a debt graph. Only each participant's net position matters, so the graph
+// is collapsed to one balance per participant; then the largest creditor is repeatedly paid by the
+// largest debtor. Every transfer zeroes at least one of the two, so n participants settle in at most
+// n - 1 transfers, in O(n log n). (The true minimum is NP-hard; greedy is the standard answer.)
+public final class SettlementEngine {
+
+    // Money moving from a debtor to a creditor
+    public record Transfer<P>(P from, P to, BigDecimal amount) {
+    }
+
+    private record Position<P>(P participant, BigDecimal amount) {
+    }
+
+    private SettlementEngine() {
+    }
+
+    // balances: positive = is owed money, negative = owes money. They must sum to zero.
+    public static <P> List<Transfer<P>> settle(Map<P, BigDecimal> balances) {
+        Comparator<Position<P>> largestFirst = Comparator.comparing(Position<P>::amount).reversed();
+        PriorityQueue<Position<P>> creditors = new PriorityQueue<>(largestFirst);
+        PriorityQueue<Position<P>> debtors = new PriorityQueue<>(largestFirst);
+
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Map.Entry<P, BigDecimal> e : balances.entrySet()) {
+            BigDecimal amount = e.getValue();
+            sum = sum.add(amount);
+            if (amount.signum() > 0) creditors.add(new Position<>(e.getKey(), amount));
+            if (amount.signum() < 0) debtors.add(new Position<>(e.getKey(), amount.negate()));
+        }
+        if (sum.signum() != 0) {
+            throw new IllegalArgumentException("Balances do not sum to zero: " + sum);
+        }
+
+        List<Transfer<P>> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            Position<P> creditor = creditors.poll();
+            Position<P> debtor = debtors.poll();
+            BigDecimal amount = creditor.amount().min(debtor.amount());
+            transfers.add(new Transfer<>(debtor.participant(), creditor.participant(), amount));
+
+            // Whoever is not fully settled goes back with what is left
+            BigDecimal creditLeft = creditor.amount().subtract(amount);
+            BigDecimal debtLeft = debtor.amount().subtract(amount);
+            if (creditLeft.signum() > 0) creditors.add(new Position<>(creditor.participant(), creditLeft));
+            if (debtLeft.signum() > 0) debtors.add(new Position<>(debtor.participant(), debtLeft));
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.dto.SettlementDto;
+import com.ledger.digital.personal.model.Counterparty;
+import com.ledger.digital.personal.model.Debt;
+import com.ledger.digital.personal.model.Settlement;
+import com.ledger.digital.personal.model.SettlementTransfer;
+import com.ledger.digital.personal.repo.CounterpartyRepository;
+import com.ledger.digital.personal.repo.DebtRepository;
+import com.ledger.digital.personal.repo.SettlementRepository;
+import com.ledger.digital.personal.repo.SettlementTransferRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Nets a user's open debts across counterparties. Every debt is an edge between the user and one
+// counterparty; SettlementEngine turns the resulting balances into the fewest payments it can find,
+// including payments between counterparties that cancel out what the user owes one and is owed by another.
+@Service
+public class SettlementService {
+
+    // Stands for the user in the engine; counterparty ids start at 1
+    private static final Long SELF = 0L;
+
+    private final DebtRepository debtRepository;
+    private final CounterpartyRepository counterpartyRepository;
+    private final SettlementRepository settlementRepository;
+    private final SettlementTransferRepository settlementTransferRepository;
+    private final DebtService debtService;
+
+    public SettlementService(DebtRepository debtRepository,
+                             CounterpartyRepository counterpartyRepository,
+                             SettlementRepository settlementRepository,
+                             SettlementTransferRepository settlementTransferRepository,
+                             DebtService debtService) {
+        this.debtRepository = debtRepository;
+        this.counterpartyRepository = counterpartyRepository;
+        this.settlementRepository = settlementRepository;
+        this.settlementTransferRepository = settlementTransferRepository;
+        this.debtService = debtService;
+    }
+
+    // counterpartyIds limits the settlement to one group of people; empty = every counterparty
+    @Transactional(readOnly = true)
+    public SettlementDto preview(List<Long> counterpartyIds, AuthenticatedUser principal) {
+        List<Debt> debts = included(debtRepository.findSettleable(principal.getId()), counterpartyIds);
+        return plan(debts);
+    }
+
+    // Recomputed from locked rows, so what is applied matches the debts as they are now.
+    // The plan is stored with the settlement; accountId is required unless the user's net share is zero.
+    @Transactional
+    public SettlementDto apply(List<Long> counterpartyIds, Long accountId, AuthenticatedUser principal) {
+        List<Debt> debts = included(debtRepository.findSettleableForUpdate(principal.getId()), counterpartyIds);
+        SettlementDto settlement = plan(debts);
+        if (debts.isEmpty()) return settlement;
+
+        BigDecimal net = settlement.getNetToYou();
+        Settlement record = settlementRepository.save(new Settlement(principal.getId(),
+                net.signum() != 0 ? accountId : null, settlement.getDebtCount(), settlement.getGrossAmount(),
+                net, settlement.getTransferredAmount()));
+        settlementTransferRepository.saveAll(settlement.getTransfers().stream()
+                .map(t -> new SettlementTransfer(record.getId(), t.getFromCounterpartyId(), t.getFromName(),
+                        t.getToCounterpartyId(), t.getToName(), t.getAmount()))
+                .toList());
+
+        debtService.settle(debts, net, principal, accountId, record.getId());
+        settlement.setSettlementId(record.getId());
+        settlement.setApplied(true);
+        return settlement;
+    }
+
+    private SettlementDto plan(List<Debt> debts) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        BigDecimal gross = BigDecimal.ZERO;
+        for (Debt debt : debts) {
+            Long counterpartyId = debt.getCounterparty().getId();
+            // Lent: the counterparty owes the user. Borrowed: the user owes the counterparty.
+            BigDecimal owedToUser = debt.getGiven() ? debt.getAmount() : debt.getAmount().negate();
+            balances.merge(SELF, owedToUser, BigDecimal::add);
+            balances.merge(counterpartyId, owedToUser.negate(), BigDecimal::add);
+            gross = gross.add(debt.getAmount());
+        }
+
+        List<SettlementEngine.Transfer<Long>> transfers = SettlementEngine.settle(balances);
+
+        Set<Long> ids = new HashSet<>(balances.keySet());
+        ids.remove(SELF);
+        Map<Long, String> names = counterpartyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Counterparty::getId, Counterparty::getName));
+        Function<Long, Long> idOf = id -> SELF.equals(id) ? null : id;
+        Function<Long, String> nameOf = id -> SELF.equals(id) ? "You" : names.get(id);
+
+        SettlementDto settlement = new SettlementDto();
+        settlement.setDebtCount(debts.size());
+        settlement.setGrossAmount(gross);
+        settlement.setNetToYou(balances.getOrDefault(SELF, BigDecimal.ZERO));
+        BigDecimal transferred = BigDecimal.ZERO;
+        for (SettlementEngine.Transfer<Long> t : transfers) {
+            settlement.getTransfers().add(new SettlementDto.Transfer(
+                    idOf.apply(t.from()), nameOf.apply(t.from()), idOf.apply(t.to()), nameOf.apply(t.to()), t.amount()));
+            transferred = transferred.add(t.amount());
+        }
+        settlement.setTransferredAmount(transferred);
+        return settlement;
+    }
+
+    private static List<Debt> included(List<Debt> debts, List<Long> counterpartyIds) {
+        if (counterpartyIds == null || counterpartyIds.isEmpty()) return debts;
+        Set<Long> group = new HashSet<>(counterpartyIds);
+        return debts.stream().filter(d -> group.contains(d.getCounterparty().getId())).toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.ledger.digital.personal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel. Level 0 has one bucket per tick and every level above has buckets
+// 2^bits times wider, so `levels` levels cover 2^(bits * levels) ticks. Adding is O(1): the distance
+// to the deadline picks the level, the deadline's tick number the bucket. Advancing a tick empties one
+// level-0 bucket; each time a level wraps, the matching bucket of the level above is cascaded down
+// and its entries move to finer buckets, reaching level 0 on their own tick.
+// Deadlines beyond the top level wait in an overflow list that is re-sorted whenever the top level wraps.
+// Not thread-safe.
+public final class TimingWheel<T> {
+
+    private record Entry<T>(T item, long tick) {
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final List<Entry<T>>[][] buckets;
+    private List<Entry<T>> overflow = new ArrayList<>();
+
+    // First tick not expired yet
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, int bits, int levels, long startMillis) {
+        if (tickMillis <= 0 || bits < 1 || levels < 1 || bits * levels > 62) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + "ms, "
+                    + levels + " levels of 2^" + bits);
+        }
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.levels = levels;
+        this.buckets = new List[levels][1 << bits];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // A deadline already passed comes due on the next advance
+    public void add(T item, long deadlineMillis) {
+        // Rounded up, so nothing comes due before its deadline
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick);
+        place(new Entry<>(item, tick));
+        size++;
+    }
+
+    // Expires every tick up to the one containing nowMillis and returns what came due, tick by tick
+    public List<T> advance(long nowMillis) {
+        long target = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        while (currentTick <= target) {
+            if (size == 0) {
+                currentTick = target + 1;
+                break;
+            }
+            cascade();
+            int slot = (int) currentTick & mask;
+            List<Entry<T>> bucket = buckets[0][slot];
+            if (bucket != null) {
+                buckets[0][slot] = null;
+                for (Entry<T> entry : bucket) {
+                    due.add(entry.item);
+                }
+                size -= bucket.size();
+            }
+            currentTick++;
+        }
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.tick - currentTick;
+        for (int level = 0; level < levels; level++) {
+            if (delta >>> (bits * (level + 1)) == 0) {
+                int slot = (int) (entry.tick >>> (bits * level)) & mask;
+                List<Entry<T>> bucket = buckets[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayList<>();
+                    buckets[level][slot] = bucket;
+                }
+                bucket.add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    // Runs before level 0 is expired, from the highest wrapping level down, so entries cascaded
+    // from a coarse bucket can still land in the level-0 bucket of this very tick
+    private void cascade() {
+        int top = 0;
+        while (top < levels && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        if (top == levels) {
+            List<Entry<T>> waiting = overflow;
+            overflow = new ArrayList<>();
+            waiting.forEach(this::place);
+            top = levels - 1;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) (currentTick >>> (bits * level)) & mask;
+            List<Entry<T>> bucket = buckets[level][slot];
+            if (bucket != null) {
+                buckets[level][slot] = null;
+                bucket.forEach(this::place);
+            }
+        }
+    }
+}
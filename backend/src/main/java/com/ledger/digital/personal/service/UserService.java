@@ -4,6 +4,7 @@ import com.ledger.digital.personal.dto.UserDto;
 import com.ledger.digital.personal.mapper.UserMapper;
 import com.ledger.digital.personal.model.User;
 import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.ApiKeyCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,9 +16,11 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository repo;
+    private final ApiKeyCache apiKeyCache;
 
-    public UserService(UserRepository repo) {
+    public UserService(UserRepository repo, ApiKeyCache apiKeyCache) {
         this.repo = repo;
+        this.apiKeyCache = apiKeyCache;
     }
 
     // Create user
@@ -26,11 +29,13 @@ public class UserService {
     }
 
     // List all users
+    @Transactional(readOnly = true)
     public List<UserDto> list() {
         return repo.findAll().stream().map(UserMapper::toDto).collect(Collectors.toList());
     }
 
     // Get single user
+    @Transactional(readOnly = true)
     public UserDto get(Long id) {
         return repo.findById(id).map(UserMapper::toDto).orElse(null);
     }
@@ -49,5 +54,6 @@ public class UserService {
     public void deleteUser(Long id) {
         User user = repo.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
         repo.delete(user);
+        apiKeyCache.evictUser(id); // applied once the delete commits
     }
 }
@@ -0,0 +1,36 @@
+-- Recurring rules: a salary credit, a budget top-up or an investment contribution posted on a schedule.
+-- Exactly one of cron / period is set. next_run_at is the next occurrence still to post; the
+-- scheduler keeps every active rule in memory by it and locks the row when it posts.
+create sequence if not exists recurring_rules_seq start with 1 increment by 50;
+
+create table if not exists recurring_rules (
+    id            bigint primary key,
+    user_id       bigint not null references users (id) on delete cascade,
+    kind          varchar(16) not null,
+    account_id    bigint references accounts (id) on delete cascade,
+    budget_id     bigint references budgets (id) on delete cascade,
+    -- investment is keyed by (id, occurred_at) since it was partitioned, so there is no foreign key;
+    -- a rule whose investment is gone fails and is deactivated by the scheduler
+    investment_id bigint,
+    amount        numeric(38, 2) not null,
+    source        varchar(255),
+    note          varchar(255),
+    cron          varchar(120),
+    period        varchar(32),
+    start_at      timestamp(6) not null,
+    end_at        timestamp(6),
+    next_run_at   timestamp(6) not null,
+    occurrences   bigint not null default 0,
+    active        boolean not null default true,
+    failures      integer not null default 0,
+    last_error    varchar(1000),
+    last_run_at   timestamp(6),
+    created_at    timestamp(6) not null,
+    updated_at    timestamp(6) not null,
+    constraint recurring_rules_one_schedule check ((cron is null) <> (period is null))
+);
+
+create index if not exists idx_recurring_rules_owner_id on recurring_rules (user_id, id);
+
+-- Rules changed on other instances are picked up by updated_at
+create index if not exists idx_recurring_rules_updated on recurring_rules (updated_at);
@@ -0,0 +1,4 @@
+-- A claimed job run holds its row until running_until. The instance running it keeps pushing the
+-- lease forward, so no other instance starts the same job while it runs however long it takes.
+-- A crashed instance stops renewing and the job is free again once the lease runs out.
+alter table scheduled_jobs add column if not exists running_until timestamp(6);
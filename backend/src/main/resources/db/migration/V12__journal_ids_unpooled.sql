@@ -0,0 +1,5 @@
+-- Journal ids are drawn one at a time at insert. With blocks of 50 cached per instance, an entry could
+-- get an id far below ids other instances had already committed, and the balance snapshot, which rolls
+-- forward by the highest id folded in, would never count it. The pooled optimizer only handed out ids
+-- up to the current sequence value, so continuing one by one from there is safe.
+alter sequence journal_entries_seq increment by 1;
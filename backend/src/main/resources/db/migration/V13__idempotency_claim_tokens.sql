@@ -0,0 +1,7 @@
+-- Every claim of a key gets its own token; completing or releasing the key only touches the row while it
+-- still carries that token, so a request whose claim was taken over can't overwrite the new owner's.
+-- lease_until replaces created_at + lease as the takeover point and is renewed while the request runs.
+alter table idempotency_keys add column if not exists claim_token varchar(36);
+alter table idempotency_keys add column if not exists lease_until timestamp(6);
+
+update idempotency_keys set lease_until = created_at + interval '1 minute' where completed = false and lease_until is null;
@@ -0,0 +1,4 @@
+-- A merged counterparty is kept as a tombstone pointing at the one it was merged into instead of being
+-- deleted. Other instances may still have its id cached for a while; resolving it follows merged_into,
+-- and a write that slips through still references an existing row.
+alter table counterparties add column if not exists merged_into bigint references counterparties (id) on delete cascade;
@@ -0,0 +1,31 @@
+-- Applied debt settlements. The debts they close are deleted, so this is the record of what was agreed:
+-- the totals, the account the user's net share went through, and every transfer of the plan.
+-- A null counterparty in a transfer stands for the user.
+create sequence if not exists settlements_seq start with 1 increment by 50;
+
+create table if not exists settlements (
+    id                 bigint primary key,
+    user_id            bigint not null references users (id) on delete cascade,
+    account_id         bigint references accounts (id) on delete set null,
+    debt_count         integer not null,
+    gross_amount       numeric(38, 2) not null,
+    net_to_user        numeric(38, 2) not null,
+    transferred_amount numeric(38, 2) not null,
+    applied_at         timestamp(6) not null
+);
+
+create index if not exists idx_settlements_owner_id on settlements (user_id, id);
+
+create sequence if not exists settlement_transfers_seq start with 1 increment by 50;
+
+create table if not exists settlement_transfers (
+    id                   bigint primary key,
+    settlement_id        bigint not null references settlements (id) on delete cascade,
+    from_counterparty_id bigint references counterparties (id) on delete set null,
+    to_counterparty_id   bigint references counterparties (id) on delete set null,
+    from_name            varchar(255) not null,
+    to_name              varchar(255) not null,
+    amount               numeric(38, 2) not null
+);
+
+create index if not exists idx_settlement_transfers_settlement on settlement_transfers (settlement_id);
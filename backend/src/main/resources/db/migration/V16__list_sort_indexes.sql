@@ -0,0 +1,12 @@
+-- Paged lists sorted by amount (KeysetPagination): the raw column behind the owner, with id as the
+-- tie-breaker, so a page is an ordered range scan in either direction.
+create index if not exists idx_credits_owner_amount on credits (account_id, amount, id);
+create index if not exists idx_debts_owner_amount on debts (user_id, amount, id);
+create index if not exists idx_investment_owner_value on investment (user_id, value, id);
+create index if not exists idx_accounts_owner_balance on accounts (user_id, balance, id);
+create index if not exists idx_budgets_owner_amount on budgets (user_id, amount, id);
+
+-- The text filter of the paged account list; the other lists reuse the V8 search indexes.
+-- The expression must stay identical to ListSpecifications.containsIgnoreCase
+create index if not exists idx_accounts_search on accounts
+    using gin (user_id, (lower(coalesce(account_name, ''))) gin_trgm_ops);
@@ -0,0 +1,10 @@
+-- Business time of each journal entry. created_at stays the insert time that balance snapshots rely
+-- on; occurred_at dates a catch-up or backdated posting when it happened, and rollups and account
+-- history are bucketed by it. Existing entries happened when they were written.
+alter table journal_entries add column if not exists occurred_at timestamp(6);
+update journal_entries set occurred_at = created_at where occurred_at is null;
+alter table journal_entries alter column occurred_at set not null;
+
+-- Account history range (JournalEntryRepository) now filters on occurred_at
+drop index if exists idx_journal_target_created;
+create index if not exists idx_journal_target_occurred on journal_entries (target, target_id, occurred_at);
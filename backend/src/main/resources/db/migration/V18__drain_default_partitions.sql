@@ -0,0 +1,24 @@
+-- Rows dated before the earliest pre-created month (backdated credits, recurring catch-up) land in
+-- <parent>_default, where no partition pruning applies. This creates the partition of every month
+-- found there from not_before on; ledger_ensure_month_partition moves the month's rows in as it attaches.
+-- Months before not_before are left alone: their partitions were detached on purpose.
+create or replace function ledger_drain_default_partition(parent text, not_before date default null)
+returns integer language plpgsql as $$
+declare
+    month date;
+    created integer := 0;
+begin
+    if to_regclass(parent || '_default') is null then
+        return 0;
+    end if;
+    for month in
+        execute format('select distinct date_trunc(''month'', occurred_at)::date from %I where occurred_at >= %L order by 1',
+                       parent || '_default', coalesce(not_before, '-infinity'::date))
+    loop
+        if ledger_ensure_month_partition(parent, month) then
+            created := created + 1;
+        end if;
+    end loop;
+    return created;
+end;
+$$;
@@ -0,0 +1,5 @@
+-- Marks the rollup rows BalanceRollupJob recomputed from the journal. The live upsert clears the flag
+-- when it touches a day again, so a settled row is one the rebuild vouches for as it stands.
+-- BalanceRollupService anchors Account.balance to the latest settled day instead of whatever day
+-- was written last.
+alter table account_daily_balances add column if not exists settled boolean not null default false;
@@ -0,0 +1,126 @@
+-- Baseline: the schema previously produced by ddl-auto=update.
+-- Every statement is idempotent so it also runs cleanly against databases that Hibernate already built
+-- (spring.flyway.baseline-version=0 makes Flyway apply V1 to them instead of skipping it).
+
+create table if not exists users (
+    id                 bigint generated by default as identity primary key,
+    first_name         varchar(255),
+    last_name          varchar(255),
+    email              varchar(255) not null unique,
+    password           varchar(255) not null,
+    api_key            varchar(255) unique,
+    created_at         timestamp(6),
+    reset_token        varchar(255) unique,
+    reset_token_expiry timestamp(6)
+);
+
+create sequence if not exists accounts_seq start with 1 increment by 50;
+
+create table if not exists accounts (
+    id           bigint primary key,
+    account_name varchar(255),
+    type         varchar(255),
+    balance      numeric(38, 2),
+    user_id      bigint not null references users (id)
+);
+
+create table if not exists budgets (
+    id      bigint generated by default as identity primary key,
+    name    varchar(255),
+    amount  numeric(38, 2),
+    user_id bigint references users (id)
+);
+
+create sequence if not exists credits_seq start with 1 increment by 50;
+
+create table if not exists credits (
+    id         bigint primary key,
+    source     varchar(255),
+    amount     numeric(38, 2),
+    note       varchar(255),
+    account_id bigint references accounts (id)
+);
+
+create sequence if not exists debts_seq start with 1 increment by 50;
+
+create table if not exists debts (
+    id      bigint primary key,
+    person  varchar(255),
+    amount  numeric(38, 2),
+    given   boolean,
+    user_id bigint references users (id)
+);
+
+create table if not exists investment (
+    id         bigint generated by default as identity primary key,
+    name       varchar(255) not null,
+    value      numeric(38, 2) not null,
+    type       varchar(255) not null,
+    user_id    bigint references users (id),
+    account_id bigint references accounts (id),
+    budget_id  bigint references budgets (id)
+);
+
+create table if not exists forgot_password_tokens (
+    id     bigint generated by default as identity primary key,
+    email  varchar(255) not null,
+    token  varchar(255) not null unique,
+    expiry timestamp(6) not null
+);
+
+create table if not exists outbound_mail (
+    id              bigint generated by default as identity primary key,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    body            varchar(4000) not null,
+    status          varchar(16) not null,
+    attempts        integer not null default 0,
+    next_attempt_at timestamp(6) not null,
+    created_at      timestamp(6),
+    sent_at         timestamp(6),
+    last_error      varchar(1000)
+);
+
+create table if not exists scheduled_jobs (
+    name                 varchar(100) primary key,
+    next_run_at          timestamp(6) not null,
+    last_started_at      timestamp(6),
+    last_finished_at     timestamp(6),
+    last_duration_millis bigint,
+    last_error           varchar(1000),
+    last_run_by          varchar(255)
+);
+
+create sequence if not exists journal_entries_seq start with 1 increment by 50;
+
+create table if not exists journal_entries (
+    id         bigint primary key,
+    target     varchar(16) not null,
+    target_id  bigint not null,
+    user_id    bigint not null,
+    amount     numeric(38, 2) not null,
+    cause_type varchar(16) not null,
+    cause_id   bigint,
+    created_at timestamp(6) not null
+);
+
+create table if not exists balance_snapshots (
+    id            bigint generated by default as identity primary key,
+    target        varchar(16) not null,
+    target_id     bigint not null,
+    last_entry_id bigint not null,
+    balance       numeric(38, 2) not null,
+    taken_at      timestamp(6) not null
+);
+
+-- Indexes that were declared on the entities
+create index if not exists idx_accounts_owner_id on accounts (user_id, id);
+create index if not exists idx_budgets_owner_id on budgets (user_id, id);
+create index if not exists idx_credits_owner_id on credits (account_id, id);
+create index if not exists idx_debts_owner_id on debts (user_id, id);
+create index if not exists idx_investment_owner_id on investment (user_id, id);
+create index if not exists idx_forgot_password_tokens_expiry on forgot_password_tokens (expiry);
+create index if not exists idx_outbound_mail_status_next_attempt on outbound_mail (status, next_attempt_at);
+create index if not exists idx_journal_target on journal_entries (target, target_id, id);
+create index if not exists idx_journal_user_created on journal_entries (user_id, created_at);
+create index if not exists idx_snapshot_target on balance_snapshots (target, target_id, last_entry_id);
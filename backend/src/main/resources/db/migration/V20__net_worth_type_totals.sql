@@ -0,0 +1,24 @@
+-- The dashboard's per-type breakdowns, kept on the summary row so the whole dashboard is one primary-key
+-- read. Maps of type -> total; accounts without a type are filed under 'Other'. A type whose total
+-- reaches zero is dropped. NetWorthRepairJob recomputes both maps with the totals.
+alter table net_worth_summaries add column if not exists balance_by_type jsonb not null default '{}';
+alter table net_worth_summaries add column if not exists invested_by_type jsonb not null default '{}';
+
+create or replace function ledger_add_to_total(totals jsonb, type text, delta numeric)
+returns jsonb language sql immutable as $$
+    select case when t.total = 0 then totals - t.key
+                else jsonb_set(totals, array[t.key], to_jsonb(t.total)) end
+    from (select coalesce(type, 'Other') as key,
+                 coalesce(cast(totals ->> coalesce(type, 'Other') as numeric), 0) + delta as total) t
+$$;
+
+-- Rows built before the maps existed are filled in from the source tables
+update net_worth_summaries s
+set balance_by_type = coalesce((select jsonb_object_agg(b.type, b.total)
+                                from (select coalesce(a.type, 'Other') as type, sum(a.balance) as total
+                                      from accounts a where a.user_id = s.user_id
+                                      group by 1 having sum(a.balance) <> 0) b), '{}'),
+    invested_by_type = coalesce((select jsonb_object_agg(v.type, v.total)
+                                 from (select coalesce(i.type, 'Other') as type, sum(i.value) as total
+                                       from investment i where i.user_id = s.user_id
+                                       group by 1 having sum(i.value) <> 0) v), '{}');
@@ -0,0 +1,6 @@
+-- accounts, credits, debts and journal_entries started out as IDENTITY tables.
+-- Move each pooled sequence past the ids already in use, never backwards.
+select setval('accounts_seq', greatest((select last_value from accounts_seq), coalesce((select max(id) from accounts), 0) + 50));
+select setval('credits_seq', greatest((select last_value from credits_seq), coalesce((select max(id) from credits), 0) + 50));
+select setval('debts_seq', greatest((select last_value from debts_seq), coalesce((select max(id) from debts), 0) + 50));
+select setval('journal_entries_seq', greatest((select last_value from journal_entries_seq), coalesce((select max(id) from journal_entries), 0) + 50));
@@ -0,0 +1,14 @@
+-- Indexes for the hot finders that ddl-auto never created.
+
+-- DebtRepository.findByPersonAndUser (credit repayment matching)
+create index if not exists idx_debts_user_person on debts (user_id, person);
+
+-- Deleting an account or budget checks the investments that reference it
+create index if not exists idx_investment_account on investment (account_id);
+create index if not exists idx_investment_budget on investment (budget_id);
+
+-- JournalEntryRepository.findByTargetAndTargetIdAndCreatedAtBetweenOrderByIdAsc (account history range)
+create index if not exists idx_journal_target_created on journal_entries (target, target_id, created_at);
+
+-- CreditRepository.findByAccountUser / streamByUserId join credits to the user's accounts:
+-- accounts (user_id, id) then credits (account_id, id), both covered by the baseline indexes.
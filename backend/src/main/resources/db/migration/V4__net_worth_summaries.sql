@@ -0,0 +1,12 @@
+-- Per-user totals maintained by delta in the same transaction as each ledger mutation.
+-- NetWorthRepairJob recomputes rows from the source tables and reports drift.
+create table if not exists net_worth_summaries (
+    user_id       bigint primary key references users (id) on delete cascade,
+    total_balance numeric(38, 2) not null default 0,
+    budgeted      numeric(38, 2) not null default 0,
+    invested      numeric(38, 2) not null default 0,
+    receivable    numeric(38, 2) not null default 0,
+    payable       numeric(38, 2) not null default 0,
+    version       bigint not null default 0,
+    updated_at    timestamp(6) not null
+);
@@ -0,0 +1,15 @@
+-- Stored results of requests sent with an Idempotency-Key header.
+-- scope_key is "<user id>:<header value>"; rows are claimed (completed = false) before the request runs.
+create table if not exists idempotency_keys (
+    scope_key       varchar(300) primary key,
+    user_id         bigint not null references users (id) on delete cascade,
+    fingerprint     varchar(64) not null,
+    completed       boolean not null default false,
+    response_status integer,
+    content_type    varchar(255),
+    response_body   bytea,
+    created_at      timestamp(6) not null,
+    expires_at      timestamp(6) not null
+);
+
+create index if not exists idx_idempotency_keys_expires_at on idempotency_keys (expires_at);
@@ -0,0 +1,195 @@
+-- Credits, debts and investments get occurred_at (when the money moved; the partition key) and
+-- created_at (when the row was written), and are rebuilt as tables range-partitioned by month.
+-- A <table>_default partition catches rows outside the pre-created months; PartitionMaintenanceJob
+-- keeps months ahead created (moving any stray default rows in) and can detach old months for archiving.
+
+-- ---------------------------------------------------------------------------
+-- Partition helpers, also called by PartitionMaintenanceJob
+-- ---------------------------------------------------------------------------
+
+create or replace function ledger_ensure_month_partition(parent text, month date)
+returns boolean language plpgsql as $$
+declare
+    month_start date := date_trunc('month', month)::date;
+    month_end date := (date_trunc('month', month) + interval '1 month')::date;
+    partition_name text := parent || '_p' || to_char(month, 'YYYY_MM');
+    default_name text := parent || '_default';
+begin
+    if to_regclass(partition_name) is not null then
+        return false;
+    end if;
+
+    execute format('create table %I (like %I including defaults)', partition_name, parent);
+    -- Attaching fails while the default partition holds rows of this month, so they move first
+    if to_regclass(default_name) is not null then
+        execute format('with moved as (delete from %I where occurred_at >= %L and occurred_at < %L returning *) '
+                       'insert into %I select * from moved',
+                       default_name, month_start, month_end, partition_name);
+    end if;
+    execute format('alter table %I attach partition %I for values from (%L) to (%L)',
+                   parent, partition_name, month_start, month_end);
+    return true;
+end;
+$$;
+
+-- Detached partitions stay behind as plain tables (<parent>_pYYYY_MM) to be archived or dropped
+create or replace function ledger_detach_partitions_before(parent text, cutoff date)
+returns integer language plpgsql as $$
+declare
+    child record;
+    detached integer := 0;
+begin
+    for child in
+        select c.relname
+        from pg_inherits i
+        join pg_class c on c.oid = i.inhrelid
+        join pg_class p on p.oid = i.inhparent
+        where p.relname = parent
+          and c.relname ~ ('^' || parent || '_p[0-9]{4}_[0-9]{2}$')
+          and to_date(right(c.relname, 7), 'YYYY_MM') + interval '1 month' <= cutoff
+        order by c.relname
+    loop
+        execute format('alter table %I detach partition %I', parent, child.relname);
+        detached := detached + 1;
+    end loop;
+    return detached;
+end;
+$$;
+
+create or replace function ledger_create_month_partitions(parent text, first_month timestamp, months_ahead integer)
+returns void language plpgsql as $$
+declare
+    month date;
+begin
+    for month in
+        select generate_series(date_trunc('month', coalesce(first_month, localtimestamp)),
+                               date_trunc('month', localtimestamp) + make_interval(months => months_ahead),
+                               interval '1 month')::date
+    loop
+        perform ledger_ensure_month_partition(parent, month);
+    end loop;
+end;
+$$;
+
+-- ---------------------------------------------------------------------------
+-- Backfill: existing rows take the time of their journal entry, or now when there is none
+-- ---------------------------------------------------------------------------
+
+alter table credits add column if not exists occurred_at timestamp(6);
+alter table credits add column if not exists created_at timestamp(6);
+alter table debts add column if not exists occurred_at timestamp(6);
+alter table debts add column if not exists created_at timestamp(6);
+alter table investment add column if not exists occurred_at timestamp(6);
+alter table investment add column if not exists created_at timestamp(6);
+
+update credits c set occurred_at = j.first_at
+from (select cause_id, min(created_at) as first_at from journal_entries
+      where cause_type = 'CREDIT' group by cause_id) j
+where j.cause_id = c.id and c.occurred_at is null;
+
+update debts d set occurred_at = j.first_at
+from (select cause_id, min(created_at) as first_at from journal_entries
+      where cause_type = 'DEBT' group by cause_id) j
+where j.cause_id = d.id and d.occurred_at is null;
+
+update investment i set occurred_at = j.first_at
+from (select cause_id, min(created_at) as first_at from journal_entries
+      where cause_type = 'INVESTMENT' group by cause_id) j
+where j.cause_id = i.id and i.occurred_at is null;
+
+update credits set occurred_at = localtimestamp where occurred_at is null;
+update credits set created_at = occurred_at where created_at is null;
+update debts set occurred_at = localtimestamp where occurred_at is null;
+update debts set created_at = occurred_at where created_at is null;
+update investment set occurred_at = localtimestamp where occurred_at is null;
+update investment set created_at = occurred_at where created_at is null;
+
+-- ---------------------------------------------------------------------------
+-- Rebuild as partitioned tables. Index and key names are schema-wide, so the old ones are dropped first.
+-- The primary key has to include the partition key; ids stay unique through their sequences.
+-- ---------------------------------------------------------------------------
+
+alter table credits rename to credits_unpartitioned;
+alter table debts rename to debts_unpartitioned;
+alter table investment rename to investment_unpartitioned;
+
+drop index if exists idx_credits_owner_id;
+drop index if exists idx_debts_owner_id;
+drop index if exists idx_debts_user_person;
+drop index if exists idx_investment_owner_id;
+drop index if exists idx_investment_account;
+drop index if exists idx_investment_budget;
+alter table credits_unpartitioned drop constraint if exists credits_pkey;
+alter table debts_unpartitioned drop constraint if exists debts_pkey;
+alter table investment_unpartitioned drop constraint if exists investment_pkey;
+
+create table credits (
+    id          bigint not null,
+    source      varchar(255),
+    amount      numeric(38, 2),
+    note        varchar(255),
+    account_id  bigint references accounts (id),
+    occurred_at timestamp(6) not null,
+    created_at  timestamp(6) not null,
+    primary key (id, occurred_at)
+) partition by range (occurred_at);
+
+create table debts (
+    id          bigint not null,
+    person      varchar(255),
+    amount      numeric(38, 2),
+    given       boolean,
+    user_id     bigint references users (id),
+    occurred_at timestamp(6) not null,
+    created_at  timestamp(6) not null,
+    primary key (id, occurred_at)
+) partition by range (occurred_at);
+
+-- investment moves from IDENTITY to a pooled sequence like the other transaction tables
+create sequence if not exists investment_seq start with 1 increment by 50;
+
+create table investment (
+    id          bigint not null,
+    name        varchar(255) not null,
+    value       numeric(38, 2) not null,
+    type        varchar(255) not null,
+    user_id     bigint references users (id),
+    account_id  bigint references accounts (id),
+    budget_id   bigint references budgets (id),
+    occurred_at timestamp(6) not null,
+    created_at  timestamp(6) not null,
+    primary key (id, occurred_at)
+) partition by range (occurred_at);
+
+create table credits_default partition of credits default;
+create table debts_default partition of debts default;
+create table investment_default partition of investment default;
+
+create index idx_credits_owner_id on credits (account_id, id);
+create index idx_credits_account_occurred on credits (account_id, occurred_at);
+create index idx_debts_owner_id on debts (user_id, id);
+create index idx_debts_user_person on debts (user_id, person);
+create index idx_debts_user_occurred on debts (user_id, occurred_at);
+create index idx_investment_owner_id on investment (user_id, id);
+create index idx_investment_account on investment (account_id);
+create index idx_investment_budget on investment (budget_id);
+create index idx_investment_user_occurred on investment (user_id, occurred_at);
+
+select ledger_create_month_partitions('credits', (select min(occurred_at) from credits_unpartitioned), 3);
+select ledger_create_month_partitions('debts', (select min(occurred_at) from debts_unpartitioned), 3);
+select ledger_create_month_partitions('investment', (select min(occurred_at) from investment_unpartitioned), 3);
+
+insert into credits (id, source, amount, note, account_id, occurred_at, created_at)
+select id, source, amount, note, account_id, occurred_at, created_at from credits_unpartitioned;
+
+insert into debts (id, person, amount, given, user_id, occurred_at, created_at)
+select id, person, amount, given, user_id, occurred_at, created_at from debts_unpartitioned;
+
+insert into investment (id, name, value, type, user_id, account_id, budget_id, occurred_at, created_at)
+select id, name, value, type, user_id, account_id, budget_id, occurred_at, created_at from investment_unpartitioned;
+
+select setval('investment_seq', coalesce((select max(id) from investment), 0) + 50);
+
+drop table credits_unpartitioned;
+drop table debts_unpartitioned;
+drop table investment_unpartitioned;
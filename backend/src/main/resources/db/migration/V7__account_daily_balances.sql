@@ -0,0 +1,13 @@
+-- One row per account and day with activity: money in, money out, and the account's journal balance
+-- at the end of the day. Written in the same transaction as each journal entry and rebuilt from
+-- journal_entries by BalanceRollupJob, so a year of history is at most 365 rows per account.
+create table if not exists account_daily_balances (
+    account_id      bigint not null references accounts (id) on delete cascade,
+    day             date not null,
+    user_id         bigint not null,
+    credits         numeric(38, 2) not null default 0,
+    debits          numeric(38, 2) not null default 0,
+    closing_balance numeric(38, 2) not null,
+    updated_at      timestamp(6) not null,
+    primary key (account_id, day)
+);
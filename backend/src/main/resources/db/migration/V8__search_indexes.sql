@@ -0,0 +1,18 @@
+-- Typo-tolerant search (SearchRepository). Each index pairs the owner column with the trigrams of the
+-- lower-cased searchable text, so one GIN scan answers "this user's rows resembling the term".
+-- Both extensions are trusted, so the database owner can create them without superuser rights.
+create extension if not exists pg_trgm;
+create extension if not exists btree_gin;
+
+-- The expressions must stay identical to the ones SearchRepository filters on
+create index if not exists idx_credits_search on credits
+    using gin (account_id, (lower(coalesce(source, '') || ' ' || coalesce(note, ''))) gin_trgm_ops);
+
+create index if not exists idx_debts_search on debts
+    using gin (user_id, (lower(coalesce(person, ''))) gin_trgm_ops);
+
+create index if not exists idx_investment_search on investment
+    using gin (user_id, (lower(coalesce(name, ''))) gin_trgm_ops);
+
+create index if not exists idx_budgets_search on budgets
+    using gin (user_id, (lower(coalesce(name, ''))) gin_trgm_ops);
@@ -0,0 +1,60 @@
+-- Counterparty directory: one row per person/organisation a user deals with, found through
+-- counterparty_aliases by (user_id, normalized name). The normalization below must match
+-- CounterpartyService.normalize: whitespace collapsed, trimmed, lower-cased.
+create sequence if not exists counterparties_seq start with 1 increment by 50;
+
+create table if not exists counterparties (
+    id             bigint primary key,
+    user_id        bigint not null references users (id) on delete cascade,
+    name           varchar(255) not null,
+    normalized_key varchar(255) not null,
+    created_at     timestamp(6) not null
+);
+
+create index if not exists idx_counterparties_user on counterparties (user_id, name);
+
+-- The primary key is the lookup; the counterparty's own key is one of its aliases
+create table if not exists counterparty_aliases (
+    user_id         bigint not null,
+    alias_key       varchar(255) not null,
+    counterparty_id bigint not null references counterparties (id) on delete cascade,
+    primary key (user_id, alias_key)
+);
+
+create index if not exists idx_counterparty_aliases_counterparty on counterparty_aliases (counterparty_id);
+
+alter table debts add column if not exists counterparty_id bigint references counterparties (id) on delete set null;
+alter table credits add column if not exists counterparty_id bigint references counterparties (id) on delete set null;
+
+create index if not exists idx_debts_counterparty on debts (counterparty_id);
+create index if not exists idx_credits_counterparty on credits (counterparty_id);
+
+-- Backfill from the names already in use
+insert into counterparties (id, user_id, name, normalized_key, created_at)
+select nextval('counterparties_seq'), k.user_id, k.name, k.normalized_key, localtimestamp
+from (
+    select n.user_id, lower(trim(regexp_replace(n.name, '\s+', ' ', 'g'))) as normalized_key,
+           min(trim(regexp_replace(n.name, '\s+', ' ', 'g'))) as name
+    from (
+        select d.user_id, d.person as name from debts d
+        union all
+        select a.user_id, c.source from credits c join accounts a on a.id = c.account_id
+    ) n
+    where n.user_id is not null and n.name is not null and trim(n.name) <> ''
+    group by 1, 2
+) k;
+
+insert into counterparty_aliases (user_id, alias_key, counterparty_id)
+select user_id, normalized_key, id from counterparties
+on conflict do nothing;
+
+update debts d set counterparty_id = cp.id
+from counterparties cp
+where cp.user_id = d.user_id
+  and cp.normalized_key = lower(trim(regexp_replace(d.person, '\s+', ' ', 'g')));
+
+update credits c set counterparty_id = cp.id
+from accounts a, counterparties cp
+where a.id = c.account_id
+  and cp.user_id = a.user_id
+  and cp.normalized_key = lower(trim(regexp_replace(c.source, '\s+', ' ', 'g')));
@@ -0,0 +1,54 @@
+package com.ledger.digital.personal;
+
+import com.ledger.digital.personal.model.User;
+import com.ledger.digital.personal.repo.UserRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Boots the application against a real PostgreSQL, migrated by Flyway on start. Runs only when
+// -Dledger.test.jdbc-url names a database the tests may write to; skipped otherwise, since the
+// plain build has no database. Maintenance jobs are parked so they don't race the test, and
+// SqlCapture sees the statements Hibernate sends.
+//   mvn test -Dledger.test.jdbc-url=jdbc:postgresql://localhost:5432/ledger_test -Dledger.test.jdbc-user=postgres
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "ledger.jobs.poll-millis=3600000",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.ledger.digital.personal.SqlCapture"
+})
+public abstract class DatabaseTest {
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    // Before the context loads, so a build without a database skips rather than fails
+    @BeforeAll
+    static void requireDatabase() {
+        assumeTrue(System.getProperty("ledger.test.jdbc-url") != null, "ledger.test.jdbc-url is not set");
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getProperty("ledger.test.jdbc-url"));
+        registry.add("spring.datasource.username", () -> System.getProperty("ledger.test.jdbc-user", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("ledger.test.jdbc-password", ""));
+    }
+
+    // A fresh user per test, so tests never see each other's rows
+    protected AuthenticatedUser newUser() {
+        User user = new User();
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setEmail("test-" + UUID.randomUUID() + "@example.com");
+        user.setPassword("not-a-hash");
+        user = userRepository.save(user);
+        return new AuthenticatedUser(user.getId(), user.getEmail());
+    }
+}
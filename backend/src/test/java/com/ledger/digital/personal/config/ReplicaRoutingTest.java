@@ -0,0 +1,174 @@
+package com.ledger.digital.personal.config;
+
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Routing through the real wiring (transaction manager -> lazy proxy -> routing DataSource) over
+// pools that only report which of them handed out the connection and what lag they claim
+class ReplicaRoutingTest {
+
+    private final Pool primary = new Pool(mock(HikariDataSource.class));
+    private final Pool replica1 = new Pool(mock(DataSource.class));
+    private final Pool replica2 = new Pool(mock(DataSource.class));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRouter router;
+    private DataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private String lastPool;
+
+    @BeforeEach
+    void wire() throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1.dataSource);
+        replicas.put("replica-2", replica2.dataSource);
+        router = new ReplicaRouter(replicas, Duration.ofSeconds(10), Duration.ofSeconds(5), meterRegistry);
+        dataSource = new ReplicaDataSourceConfig().dataSource((HikariDataSource) primary.dataSource, router);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        primary.serve("primary");
+        replica1.serve("replica-1");
+        replica2.serve("replica-2");
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilAReplicaPassedItsFirstCheck() throws SQLException {
+        assertEquals("primary", read());
+        router.checkReplicas();
+        assertTrue(read().startsWith("replica-"));
+    }
+
+    @Test
+    void readOnlyTransactionsRotateOverHealthyReplicas() throws SQLException {
+        router.checkReplicas();
+        assertEquals(List.of("replica-1", "replica-2", "replica-1"), List.of(read(), read(), read()));
+        assertEquals(3, meterRegistry.counter("ledger.datasource.reads", "target", "replica").count());
+    }
+
+    @Test
+    void writesAlwaysGoToThePrimary() throws SQLException {
+        router.checkReplicas();
+        assertEquals("primary", write());
+    }
+
+    @Test
+    void aUserReadsTheirOwnWritesFromThePrimary() throws SQLException {
+        router.checkReplicas();
+        signIn(1L);
+        assertTrue(read().startsWith("replica-"));
+        assertEquals("primary", write());
+        assertEquals("primary", read());
+
+        // Only the writer is pinned
+        signIn(2L);
+        assertTrue(read().startsWith("replica-"));
+    }
+
+    @Test
+    void aRolledBackWriteDoesNotPinTheUser() throws SQLException {
+        router.checkReplicas();
+        signIn(1L);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            touchConnection();
+            status.setRollbackOnly();
+        });
+        assertTrue(read().startsWith("replica-"));
+    }
+
+    @Test
+    void laggingOrFailingReplicasAreSkipped() throws SQLException {
+        replica1.lag = 30;
+        router.checkReplicas();
+        assertEquals(List.of("replica-2", "replica-2"), List.of(read(), read()));
+
+        when(replica2.dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        router.checkReplicas();
+        assertEquals("primary", read());
+
+        replica1.lag = 0;
+        router.checkReplicas();
+        assertEquals("replica-1", read());
+    }
+
+    private String read() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> touchConnection());
+        return lastPool;
+    }
+
+    private String write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> touchConnection());
+        return lastPool;
+    }
+
+    // The lazy proxy picks the target on the first statement, not when the transaction begins
+    private void touchConnection() {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void signIn(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId + "@example.com");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    private final class Pool {
+        private final DataSource dataSource;
+        private volatile double lag;
+
+        private Pool(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        // Every connection records this pool as the one used and answers the lag query
+        private void serve(String name) throws SQLException {
+            when(dataSource.getConnection()).thenAnswer(invocation -> {
+                lastPool = name;
+                Connection connection = mock(Connection.class);
+                Statement statement = mock(Statement.class);
+                ResultSet rs = mock(ResultSet.class);
+                when(connection.createStatement()).thenReturn(statement);
+                when(connection.getAutoCommit()).thenReturn(true);
+                when(statement.executeQuery(anyString())).thenReturn(rs);
+                when(rs.next()).thenReturn(true);
+                when(rs.getDouble(1)).thenAnswer(i -> lag);
+                return connection;
+            });
+        }
+    }
+}
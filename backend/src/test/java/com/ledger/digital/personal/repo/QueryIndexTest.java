@@ -0,0 +1,136 @@
+package com.ledger.digital.personal.repo;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.SqlCapture;
+import com.ledger.digital.personal.model.JournalEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The hot finders must be answerable from the indexes the migrations create. Each test captures the
+// SQL Hibernate actually sends and plans it with EXPLAIN (GENERIC_PLAN) and sequential scans disabled,
+// so the result doesn't depend on how many rows the test database happens to hold: a table scan
+// then only shows up when no index can serve the query.
+class QueryIndexTest extends DatabaseTest {
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private DebtRepository debtRepository;
+
+    @Autowired
+    private AccountDailyBalanceRepository rollupRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void journalHistoryIsIndexed() {
+        LocalDateTime to = LocalDateTime.now();
+        assertIndexed(() -> journalEntryRepository
+                .findByTargetAndTargetIdAndOccurredAtBetweenOrderByIdAsc(JournalEntry.Target.ACCOUNT, 1L, to.minusDays(30), to));
+    }
+
+    @Test
+    void journalSumAfterSnapshotIsIndexed() {
+        assertIndexed(() -> journalEntryRepository.sumAfter(JournalEntry.Target.ACCOUNT, 1L, 0L));
+    }
+
+    @Test
+    void creditExportIsIndexed() {
+        assertIndexed(() -> {
+            try (Stream<?> rows = creditRepository.streamByUserId(1L)) {
+                rows.forEach(row -> { });
+            }
+        });
+    }
+
+    @Test
+    void openDebtsOfACounterpartyAreIndexed() {
+        assertIndexed(() -> debtRepository.findOpenByCounterparty(1L, 1L));
+    }
+
+    @Test
+    void balanceHistoryIsIndexed() {
+        LocalDate to = LocalDate.now();
+        assertIndexed(() -> rollupRepository.findByAccountIdAndDayBetweenOrderByDayAsc(1L, to.minusDays(30), to));
+    }
+
+    private void assertIndexed(Runnable finder) {
+        // Read-write: some finders lock their rows
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<String> statements = SqlCapture.record(() -> tx.executeWithoutResult(status -> finder.run()));
+        assertEquals(1, statements.size(), "Expected one statement: " + statements);
+
+        String plan = explain(statements.getFirst());
+        List<String> unindexed = new ArrayList<>();
+        collectUnindexedScans(jsonMapper.readTree(plan), unindexed);
+        assertTrue(unindexed.isEmpty(), "Scans without an index condition " + unindexed + ":\n" + plan);
+    }
+
+    private static String explain(String sql) {
+        // Generic plans take $n placeholders; Hibernate writes ?
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') numbered.append('$').append(++parameter);
+            else numbered.append(c);
+        }
+        // Simple query protocol: the extended one would expect values bound to the placeholders
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("ledger.test.jdbc-user", "postgres"));
+        properties.setProperty("password", System.getProperty("ledger.test.jdbc-password", ""));
+        properties.setProperty("preferQueryMode", "simple");
+        try (Connection connection = DriverManager.getConnection(System.getProperty("ledger.test.jdbc-url"), properties);
+             Statement statement = connection.createStatement()) {
+            statement.execute("set enable_seqscan = off");
+            try (ResultSet rs = statement.executeQuery("explain (generic_plan, format json) " + numbered)) {
+                rs.next();
+                return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot plan " + sql, e);
+        }
+    }
+
+    // Table scans in the plan that don't narrow the rows through an index: sequential scans, and
+    // index scans without an Index Cond (a full walk of the index, e.g. only for its order)
+    private static void collectUnindexedScans(JsonNode node, List<String> unindexed) {
+        if (node.has("Node Type")) {
+            String type = node.get("Node Type").asString();
+            boolean indexScan = type.equals("Index Scan") || type.equals("Index Only Scan") || type.equals("Bitmap Index Scan");
+            if (type.equals("Seq Scan") || indexScan && !node.has("Index Cond")) {
+                String on = node.has("Index Name") ? node.get("Index Name").asString() : node.get("Relation Name").asString();
+                unindexed.add(type + " on " + on);
+            }
+        }
+        for (JsonNode child : node) {
+            collectUnindexedScans(child, unindexed);
+        }
+    }
+}
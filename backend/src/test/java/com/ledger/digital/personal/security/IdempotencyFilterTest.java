@@ -0,0 +1,263 @@
+package com.ledger.digital.personal.security;
+
+import com.ledger.digital.personal.exception.GlobalExceptionHandler;
+import com.ledger.digital.personal.model.IdempotencyRecord;
+import com.ledger.digital.personal.repo.IdempotencyRecordRepository;
+import com.ledger.digital.personal.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The filter over a real IdempotencyService whose table is a mocked repository: replays, a duplicate
+// waiting for the running request, a reused key, the 409s, and which failed responses are kept
+class IdempotencyFilterTest {
+
+    private static final String SCOPE_KEY = "1:key-1";
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus tx = mock(TransactionStatus.class);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void wire() {
+        IdempotencyService service = new IdempotencyService(repository, new SimpleMeterRegistry(), 24, 60, 5, 100, 600);
+        filter = new IdempotencyFilter(service, transactionManager, 1024);
+        when(transactionManager.getTransaction(any())).thenReturn(tx);
+        when(repository.claim(anyString(), anyLong(), anyString(), anyString(), any(), any(), any())).thenReturn(1);
+        when(repository.complete(anyString(), anyString(), anyInt(), any(), any())).thenReturn(1);
+
+        AuthenticatedUser user = new AuthenticatedUser(1L, "user1@example.com");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aSuccessIsCommittedWithItsResponseAndReplayed() throws Exception {
+        MockHttpServletResponse first = send("{\"amount\":1}", respond(201, false));
+        MockHttpServletResponse second = send("{\"amount\":1}", respond(201, false));
+
+        assertEquals(1, executions.get());
+        verify(transactionManager).commit(tx);
+        verify(repository).claim(eq(SCOPE_KEY), eq(1L), anyString(), anyString(), any(), any(), any());
+        assertEquals(201, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void aKeyReusedForAnotherBodyIsRejected() throws Exception {
+        send("{\"amount\":1}", respond(201, false));
+        MockHttpServletResponse reused = send("{\"amount\":2}", respond(201, false));
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void aDuplicateWaitsForTheRunningRequestAndGetsItsResponse() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(201, false).doFilter(request, response);
+        };
+
+        CompletableFuture<MockHttpServletResponse> first = async(() -> send("{\"amount\":1}", slow));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The duplicate parks on the running request's future, the only timed wait on its path
+        AtomicReference<Thread> waiter = new AtomicReference<>();
+        CompletableFuture<MockHttpServletResponse> duplicate = async(() -> {
+            waiter.set(Thread.currentThread());
+            return send("{\"amount\":1}", respond(201, false));
+        });
+        while (waiter.get() == null || waiter.get().getState() != Thread.State.TIMED_WAITING) {
+            assertFalse(duplicate.isDone(), "the duplicate did not wait");
+            Thread.onSpinWait();
+        }
+        finish.countDown();
+
+        assertEquals(201, first.get(5, TimeUnit.SECONDS).getStatus());
+        MockHttpServletResponse replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(201, replayed.getStatus());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1, executions.get());
+        verify(repository, times(1)).claim(anyString(), anyLong(), anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void aKeyRunningOnAnotherInstanceIsAConflict() throws Exception {
+        IdempotencyRecord running = mock(IdempotencyRecord.class);
+        when(running.isCompleted()).thenReturn(false);
+        when(repository.claim(anyString(), anyLong(), anyString(), anyString(), any(), any(), any())).thenReturn(0);
+        when(repository.findCurrent(SCOPE_KEY)).thenReturn(Optional.of(running));
+
+        MockHttpServletResponse response = send("{\"amount\":1}", respond(201, false));
+
+        assertEquals(409, response.getStatus());
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void aRequestThatOutlivedItsClaimIsRolledBackAsAConflict() throws Exception {
+        when(repository.complete(anyString(), anyString(), anyInt(), any(), any())).thenReturn(0);
+
+        MockHttpServletResponse response = send("{\"amount\":1}", respond(201, false));
+
+        assertEquals(409, response.getStatus());
+        verify(transactionManager).rollback(tx);
+        verify(transactionManager, never()).commit(any());
+        verify(repository).release(eq(SCOPE_KEY), anyString());
+    }
+
+    @Test
+    void aFinalClientErrorIsStoredAndReplayed() throws Exception {
+        send("{\"amount\":-1}", respond(400, true));
+        MockHttpServletResponse replayed = send("{\"amount\":-1}", respond(400, true));
+
+        assertEquals(1, executions.get());
+        assertEquals(400, replayed.getStatus());
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(transactionManager).rollback(tx);
+    }
+
+    @Test
+    void anyOtherFailureGivesTheKeyBack() throws Exception {
+        // An unmarked client error, as a library exception would produce, then a 503 from a deadlock
+        send("{\"amount\":1}", respond(400, false));
+        send("{\"amount\":1}", respond(503, false));
+        MockHttpServletResponse retried = send("{\"amount\":1}", respond(201, false));
+
+        assertEquals(3, executions.get());
+        assertEquals(201, retried.getStatus());
+        assertNull(retried.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        verify(repository, times(2)).release(eq(SCOPE_KEY), anyString());
+        verify(repository, never()).complete(anyString(), anyString(), eq(400), any(), any());
+        verify(repository, never()).complete(anyString(), anyString(), eq(503), any(), any());
+    }
+
+    @Test
+    void theBufferedBodyCanBeReadThroughAReadListener() throws Exception {
+        AtomicBoolean allRead = new AtomicBoolean();
+        StringBuilder body = new StringBuilder();
+        send("{\"amount\":1}", (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) body.append((char) in.read());
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(204);
+        });
+
+        assertTrue(allRead.get());
+        assertEquals("{\"amount\":1}", body.toString());
+    }
+
+    private MockHttpServletResponse send(String body, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/accounts/1/credits");
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    // Stands in for the controller and GlobalExceptionHandler: reads the body and answers with the status,
+    // marking the outcome final when the handler would have
+    private FilterChain respond(int status, boolean finalOutcome) {
+        return (request, response) -> {
+            byte[] body = request.getInputStream().readAllBytes();
+            executions.incrementAndGet();
+            if (finalOutcome) request.setAttribute(GlobalExceptionHandler.FINAL_OUTCOME, true);
+            HttpServletResponse http = (HttpServletResponse) response;
+            http.setStatus(status);
+            http.setContentType("application/json");
+            http.getOutputStream().write(("{\"execution\":" + executions.get() + ",\"bytes\":" + body.length + "}")
+                    .getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private interface Call {
+        MockHttpServletResponse run() throws Exception;
+    }
+
+    // Each on its own thread: the security context is thread-local, so it is signed in there too
+    private static CompletableFuture<MockHttpServletResponse> async(Call call) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        CompletableFuture<MockHttpServletResponse> result = new CompletableFuture<>();
+        Thread.ofPlatform().start(() -> {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            try {
+                result.complete(call.run());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+        return result;
+    }
+}
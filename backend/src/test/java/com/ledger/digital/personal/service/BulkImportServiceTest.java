@@ -0,0 +1,78 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.SqlCapture;
+import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.BalanceHistoryDto;
+import com.ledger.digital.personal.dto.BulkImportResultDto;
+import com.ledger.digital.personal.model.JournalEntry;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A chunk of imported rows: the statements it sends grow with the JDBC batches and the days the rows
+// fall on, not with the rows, and each row is journaled and rolled up on its own occurredAt.
+class BulkImportServiceTest extends DatabaseTest {
+
+    private static final int ROWS = 300;
+    private static final int DAYS = 3;
+    private static final int NAMES = 5;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Test
+    void importedCreditsAreJournaledPerChunkOnTheirOwnDays() {
+        AuthenticatedUser user = newUser();
+        AccountDto account = new AccountDto();
+        account.setAccountName("Imports");
+        account.setType("Checking");
+        account.setBalance(BigDecimal.ZERO);
+        Long accountId = accountService.createAccount(account, user).getId();
+
+        // Row i falls on day (i % DAYS) counting back from today; DAYS * NAMES distinct pairs
+        LocalDate today = LocalDate.now();
+        StringBuilder csv = new StringBuilder("source,amount,occurredAt\n");
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime at = today.minusDays(i % DAYS).atTime(12, 0);
+            csv.append("Payer ").append(i % NAMES).append(",1.00,").append(at).append('\n');
+        }
+
+        BulkImportResultDto[] result = new BulkImportResultDto[1];
+        List<String> statements = SqlCapture.record(() -> result[0] = bulkImportService.importCredits(accountId,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "text/csv", user));
+
+        assertTrue(result[0].isComplete(), result[0].getError());
+        assertEquals(ROWS, result[0].getImported());
+        assertTrue(statements.size() < ROWS / 5, () -> statements.size() + " statements for " + ROWS + " rows:\n"
+                + String.join("\n", statements));
+
+        assertEquals(0, BigDecimal.valueOf(ROWS).compareTo(
+                journalService.reconstructBalance(JournalEntry.Target.ACCOUNT, accountId)));
+
+        BalanceHistoryDto history = accountService.getBalanceHistory(accountId, today.minusDays(DAYS - 1), today, user);
+        BigDecimal perDay = BigDecimal.valueOf(ROWS / DAYS);
+        for (int i = 0; i < DAYS; i++) {
+            BalanceHistoryDto.Point point = history.getPoints().get(i);
+            assertEquals(0, perDay.compareTo(point.getCredits()), () -> "credits on " + point.getDay());
+            assertEquals(0, perDay.multiply(BigDecimal.valueOf(i + 1)).compareTo(point.getClosingBalance()),
+                    () -> "closing balance on " + point.getDay());
+        }
+    }
+}
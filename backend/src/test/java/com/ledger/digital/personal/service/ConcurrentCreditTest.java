@@ -0,0 +1,101 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.model.JournalEntry;
+import com.ledger.digital.personal.repo.AccountRepository;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many transactions crediting one account at once: every delta must land, none may be lost
+class ConcurrentCreditTest extends DatabaseTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentCreditTest.class);
+
+    private static final int CREDITS = 4_000;
+    private static final int THREADS = 32;
+    private static final int SERIAL_CREDITS = 500;
+    // Throughput is compared with one thread crediting the same account, not with a fixed rate, so
+    // the check holds on any machine: waiting on the row lock may cost some, but not collapse it
+    private static final double MIN_PARALLEL_TO_SERIAL = 0.5;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void parallelCreditsToOneAccountAllLand() throws Exception {
+        AuthenticatedUser user = newUser();
+        AccountDto account = new AccountDto();
+        account.setAccountName("Hot account");
+        account.setType("Checking");
+        account.setBalance(BigDecimal.ZERO);
+        Long accountId = accountService.createAccount(account, user).getId();
+
+        List<BigDecimal> amounts = new ArrayList<>(CREDITS);
+        for (int i = 0; i < CREDITS; i++) {
+            amounts.add(BigDecimal.valueOf(i % 97 + 1, 2));
+        }
+        List<BigDecimal> serialAmounts = amounts.subList(0, SERIAL_CREDITS);
+
+        // The serial run also warms up the JIT, the pool and the statement caches
+        double serialPerSecond = run(accountId, serialAmounts, 1, user);
+        double perSecond = run(accountId, amounts, THREADS, user);
+        BigDecimal expected = total(serialAmounts).add(total(amounts));
+        log.info("{} credits on {} threads at {}/s, one thread at {}/s",
+                CREDITS, THREADS, Math.round(perSecond), Math.round(serialPerSecond));
+
+        BigDecimal balance = accountRepository.findById(accountId).orElseThrow().getBalance();
+        assertEquals(0, expected.compareTo(balance), "Lost updates: expected " + expected + " but was " + balance);
+        assertEquals(0, expected.compareTo(journalService.reconstructBalance(JournalEntry.Target.ACCOUNT, accountId)),
+                "Journal disagrees with the balance");
+        assertTrue(perSecond >= serialPerSecond * MIN_PARALLEL_TO_SERIAL,
+                String.format("%.0f credits/s in parallel against %.0f/s on one thread", perSecond, serialPerSecond));
+    }
+
+    // Credits per second
+    private double run(Long accountId, List<BigDecimal> amounts, int threads, AuthenticatedUser user) throws Exception {
+        long started = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>(amounts.size());
+            for (BigDecimal amount : amounts) {
+                futures.add(pool.submit(() -> {
+                    CreditDto credit = new CreditDto();
+                    credit.setSource("Load test");
+                    credit.setAmount(amount);
+                    return creditService.addCredit(accountId, credit, user);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return amounts.size() / ((System.nanoTime() - started) / 1e9);
+    }
+
+    private static BigDecimal total(List<BigDecimal> amounts) {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
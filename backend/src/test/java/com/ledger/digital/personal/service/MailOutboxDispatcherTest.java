@@ -0,0 +1,182 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.model.OutboundMail;
+import com.ledger.digital.personal.repo.OutboundMailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// The dispatcher against the real outbound_mail table, sending through a JavaMailSender stand-in that
+// records each batch and fails on demand: claiming, sending, and the backoff up to the attempts cap.
+class MailOutboxDispatcherTest extends DatabaseTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_SECONDS = 30;
+    private static final long CLAIM_SECONDS = 300;
+
+    @Autowired
+    private OutboundMailRepository outboundMailRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final List<List<String>> batches = new ArrayList<>();
+    private MailOutboxDispatcher dispatcher;
+
+    // Called with every batch handed to the stand-in; an exception returned is thrown as the send's outcome
+    private Function<SimpleMailMessage[], MailSendException> onSend = messages -> null;
+
+    @BeforeEach
+    void wire() {
+        // The outbox is shared by every user; start from an empty one
+        outboundMailRepository.deleteAll();
+        dispatcher = new MailOutboxDispatcher(outboundMailRepository, mailSender, BATCH_SIZE, MAX_ATTEMPTS,
+                BACKOFF_SECONDS, 1000, CLAIM_SECONDS, transactionManager);
+        doAnswer(invocation -> {
+            SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            batches.add(Arrays.stream(messages).map(m -> m.getTo()[0]).toList());
+            MailSendException e = onSend.apply(messages);
+            if (e != null) throw e;
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+    }
+
+    @Test
+    void dueMailsAreSentInBatchesAndMarkedSent() {
+        Long first = enqueue("a@example.com");
+        Long second = enqueue("b@example.com");
+        Long third = enqueue("c@example.com");
+
+        dispatcher.run();
+
+        assertEquals(List.of(List.of("a@example.com", "b@example.com"), List.of("c@example.com")), batches);
+        for (Long id : List.of(first, second, third)) {
+            OutboundMail mail = load(id);
+            assertEquals(OutboundMail.Status.SENT, mail.getStatus());
+            assertNotNull(mail.getSentAt());
+            assertEquals(0, mail.getAttempts());
+        }
+
+        dispatcher.run();
+        assertEquals(2, batches.size(), "a sent mail was sent again");
+    }
+
+    @Test
+    void aMailIsClaimedBeforeItIsSent() {
+        Long id = enqueue("a@example.com");
+        LocalDateTime[] duringSend = new LocalDateTime[1];
+        onSend = messages -> {
+            duringSend[0] = load(id).getNextAttemptAt();
+            return null;
+        };
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.run();
+
+        // Committed before the send, so an overlapping run would not pick the row up
+        assertBetween(before.plusSeconds(CLAIM_SECONDS), LocalDateTime.now().plusSeconds(CLAIM_SECONDS), duringSend[0]);
+    }
+
+    @Test
+    void aFailedMailBacksOffUntilTheAttemptsCap() {
+        Long id = enqueue("a@example.com");
+        onSend = messages -> new MailSendException("Connection refused");
+
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            LocalDateTime before = LocalDateTime.now();
+            dispatcher.run();
+            LocalDateTime after = LocalDateTime.now();
+
+            OutboundMail mail = load(id);
+            assertEquals(OutboundMail.Status.PENDING, mail.getStatus());
+            assertEquals(attempt, mail.getAttempts());
+            assertEquals("Connection refused", mail.getLastError());
+            long delay = BACKOFF_SECONDS << (attempt - 1);
+            assertBetween(before.plusSeconds(delay), after.plusSeconds(delay), mail.getNextAttemptAt());
+
+            // Not due yet: nothing is sent until the backoff has passed
+            int sends = batches.size();
+            dispatcher.run();
+            assertEquals(sends, batches.size(), "retried before its backoff passed");
+            makeDue(id);
+        }
+
+        dispatcher.run();
+        OutboundMail mail = load(id);
+        assertEquals(OutboundMail.Status.FAILED, mail.getStatus());
+        assertEquals(MAX_ATTEMPTS, mail.getAttempts());
+
+        makeDue(id);
+        dispatcher.run();
+        assertEquals(MAX_ATTEMPTS, batches.size(), "a failed mail was sent again");
+    }
+
+    @Test
+    void onlyTheMessagesThatFailedAreRetried() {
+        Long delivered = enqueue("a@example.com");
+        Long rejected = enqueue("b@example.com");
+        onSend = messages -> new MailSendException(Map.of(messages[1], new IllegalStateException("Mailbox full")));
+
+        dispatcher.run();
+
+        assertEquals(OutboundMail.Status.SENT, load(delivered).getStatus());
+        OutboundMail mail = load(rejected);
+        assertEquals(OutboundMail.Status.PENDING, mail.getStatus());
+        assertEquals(1, mail.getAttempts());
+        assertEquals("Mailbox full", mail.getLastError());
+        assertNull(mail.getSentAt());
+
+        onSend = messages -> null;
+        makeDue(rejected);
+        dispatcher.run();
+        assertEquals(List.of("b@example.com"), batches.get(batches.size() - 1));
+        assertEquals(OutboundMail.Status.SENT, load(rejected).getStatus());
+        assertNull(load(rejected).getLastError());
+    }
+
+    private Long enqueue(String recipient) {
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(recipient);
+        mail.setSubject("Subject");
+        mail.setBody("Body");
+        return outboundMailRepository.save(mail).getId();
+    }
+
+    private OutboundMail load(Long id) {
+        return outboundMailRepository.findById(id).orElseThrow();
+    }
+
+    // Stands in for the backoff running out
+    private void makeDue(Long id) {
+        OutboundMail mail = load(id);
+        mail.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboundMailRepository.save(mail);
+    }
+
+    private static void assertBetween(LocalDateTime from, LocalDateTime to, LocalDateTime actual) {
+        assertTrue(!actual.isBefore(from.withNano(0)) && !actual.isAfter(to.plusSeconds(1)),
+                () -> actual + " not within [" + from + ", " + to + "]");
+    }
+}
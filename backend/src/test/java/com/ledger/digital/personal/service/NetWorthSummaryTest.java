@@ -0,0 +1,128 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.SqlCapture;
+import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.DashboardDto;
+import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The summary row against the source tables: the deltas of ordinary mutations, a type change and a
+// delete among them, must leave it equal to a rebuild, and a row that was corrupted behind the
+// services' back must be reported and put right by the repair.
+class NetWorthSummaryTest extends DatabaseTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private NetWorthService netWorthService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthenticatedUser user;
+
+    @BeforeEach
+    void seed() {
+        user = newUser();
+        // Deltas skip users without a row, so build it first
+        netWorthService.rebuild(user.getId());
+
+        Long checking = createAccount("Checking", 100);
+        Long savings = createAccount("Savings", 50);
+        Long untyped = createAccount(null, 5);
+        createAccount(null, 3);
+
+        CreditDto credit = new CreditDto();
+        credit.setSource("Employer");
+        credit.setAmount(BigDecimal.valueOf(20));
+        creditService.addCredit(savings, credit, user);
+
+        InvestmentDto investment = new InvestmentDto();
+        investment.setName("Fund");
+        investment.setType("Stock");
+        investment.setValue(BigDecimal.TEN);
+        investment.setAccountId(checking);
+        investmentService.createInvestment(investment, user);
+
+        // Savings (70) becomes Checking and is edited to 75; the first untyped account leaves "Other" at 3
+        AccountDto update = new AccountDto();
+        update.setAccountName("Savings");
+        update.setType("Checking");
+        update.setBalance(BigDecimal.valueOf(75));
+        accountService.updateAccount(savings, update, user);
+        accountService.deleteAccount(untyped, user);
+    }
+
+    @Test
+    void dashboardIsOnePrimaryKeyRead() {
+        DashboardDto[] dashboard = new DashboardDto[1];
+        List<String> statements = SqlCapture.record(() -> dashboard[0] = dashboardService.getDashboard(user));
+
+        assertEquals(1, statements.size(), () -> String.join("\n", statements));
+        assertTotals(Map.of("Checking", BigDecimal.valueOf(165), "Other", BigDecimal.valueOf(3)),
+                dashboard[0].getBalanceByAccountType());
+        assertTotals(Map.of("Stock", BigDecimal.TEN), dashboard[0].getInvestedByType());
+        assertEquals(0, BigDecimal.valueOf(168).compareTo(dashboard[0].getTotalBalance()));
+        assertEquals(0, BigDecimal.valueOf(178).compareTo(dashboard[0].getNetWorth()));
+
+        assertFalse(netWorthService.rebuild(user.getId()).drifted(), "deltas disagree with the source tables");
+    }
+
+    @Test
+    void repairReportsAndCorrectsDrift() {
+        jdbcTemplate.update("""
+                update net_worth_summaries
+                set total_balance = total_balance + 1, balance_by_type = '{"Savings": 1}', invested_by_type = '{}'
+                where user_id = ?
+                """, user.getId());
+
+        assertTrue(netWorthService.rebuild(user.getId()).drifted());
+
+        DashboardDto dashboard = dashboardService.getDashboard(user);
+        assertEquals(0, BigDecimal.valueOf(168).compareTo(dashboard.getTotalBalance()));
+        assertTotals(Map.of("Checking", BigDecimal.valueOf(165), "Other", BigDecimal.valueOf(3)),
+                dashboard.getBalanceByAccountType());
+        assertTotals(Map.of("Stock", BigDecimal.TEN), dashboard.getInvestedByType());
+
+        assertFalse(netWorthService.rebuild(user.getId()).drifted());
+    }
+
+    private Long createAccount(String type, long balance) {
+        AccountDto account = new AccountDto();
+        account.setAccountName(type != null ? type : "Wallet");
+        account.setType(type);
+        account.setBalance(BigDecimal.valueOf(balance));
+        return accountService.createAccount(account, user).getId();
+    }
+
+    // Compared by value, the scale of a stored total depends on the deltas that made it
+    private static void assertTotals(Map<String, BigDecimal> expected, Map<String, BigDecimal> actual) {
+        assertEquals(expected.keySet(), actual.keySet(), actual::toString);
+        expected.forEach((type, total) ->
+                assertEquals(0, total.compareTo(actual.get(type)), () -> type + " in " + actual));
+    }
+}
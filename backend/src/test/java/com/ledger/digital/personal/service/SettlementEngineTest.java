@@ -0,0 +1,58 @@
+package com.ledger.digital.personal.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SettlementEngineTest {
+
+    private static final int PARTICIPANTS = 1_000;
+    private static final int EDGES = 10_000;
+
+    @Test
+    void settlesTenThousandEdgesInAtMostNMinusOneTransfers() {
+        Map<Integer, BigDecimal> balances = randomGraph(new Random(42));
+
+        List<SettlementEngine.Transfer<Integer>> transfers = SettlementEngine.settle(balances);
+
+        long nonZero = balances.values().stream().filter(b -> b.signum() != 0).count();
+        assertTrue(transfers.size() <= nonZero - 1, "Too many transfers: " + transfers.size());
+
+        // Applying the transfers must leave every participant at zero
+        Map<Integer, BigDecimal> left = new HashMap<>(balances);
+        for (SettlementEngine.Transfer<Integer> t : transfers) {
+            assertTrue(t.amount().signum() > 0, "Non-positive transfer " + t);
+            left.merge(t.from(), t.amount(), BigDecimal::add);
+            left.merge(t.to(), t.amount().negate(), BigDecimal::add);
+        }
+        left.forEach((p, b) -> assertEquals(0, b.signum(), "Participant " + p + " left at " + b));
+    }
+
+    @Test
+    void rejectsBalancesThatDoNotSumToZero() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SettlementEngine.settle(Map.of(1, BigDecimal.ONE, 2, BigDecimal.ZERO)));
+    }
+
+    // Each edge: `from` owes `to` a random amount with cents
+    private static Map<Integer, BigDecimal> randomGraph(Random random) {
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (int i = 0; i < EDGES; i++) {
+            int from = random.nextInt(PARTICIPANTS);
+            int to = random.nextInt(PARTICIPANTS - 1);
+            if (to >= from) to++;
+            BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(100_000), 2);
+            balances.merge(from, amount.negate(), BigDecimal::add);
+            balances.merge(to, amount, BigDecimal::add);
+        }
+        return balances;
+    }
+}
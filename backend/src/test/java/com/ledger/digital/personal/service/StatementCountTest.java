@@ -0,0 +1,120 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.SqlCapture;
+import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.BudgetDto;
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.DebtDto;
+import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.dto.ListQueryDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Counts the statements each read sends. With lazy associations read only by id and owner-scoped
+// finders, a list is one select however many rows it returns; a count that grows with the rows
+// is an N+1 coming back.
+class StatementCountTest extends DatabaseTest {
+
+    private static final int ACCOUNTS = 5;
+    private static final int ROWS = 25;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private DebtService debtService;
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    private AuthenticatedUser user;
+    private final List<Long> accountIds = new ArrayList<>();
+    private final List<Long> budgetIds = new ArrayList<>();
+    private final List<Long> creditIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        user = newUser();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountDto account = new AccountDto();
+            account.setAccountName("Account " + i);
+            account.setType("Checking");
+            account.setBalance(BigDecimal.valueOf(10_000));
+            accountIds.add(accountService.createAccount(account, user).getId());
+
+            BudgetDto budget = new BudgetDto();
+            budget.setName("Budget " + i);
+            budget.setAmount(BigDecimal.valueOf(10_000));
+            budgetIds.add(budgetService.createBudget(budget, user).getId());
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Long accountId = accountIds.get(i % ACCOUNTS);
+
+            CreditDto credit = new CreditDto();
+            credit.setSource("Employer " + i);
+            credit.setAmount(BigDecimal.TEN);
+            creditIds.add(creditService.addCredit(accountId, credit, user).getId());
+
+            DebtDto debt = new DebtDto();
+            debt.setPerson("Friend " + i);
+            debt.setAmount(BigDecimal.ONE);
+            debt.setGiven(i % 2 == 0);
+            debtService.addDebt(debt, user, accountId);
+
+            InvestmentDto investment = new InvestmentDto();
+            investment.setName("Fund " + i);
+            investment.setType("Stock");
+            investment.setValue(BigDecimal.ONE);
+            investment.setAccountId(accountId);
+            investment.setBudgetId(budgetIds.get(i % ACCOUNTS));
+            investmentService.createInvestment(investment, user);
+        }
+    }
+
+    @Test
+    void listsAreOneSelect() {
+        assertStatements(1, () -> assertEquals(ACCOUNTS, accountService.getAllAccounts(user).size()));
+        assertStatements(1, () -> assertEquals(ACCOUNTS, budgetService.getBudgets(user).size()));
+        assertStatements(1, () -> assertEquals(ROWS, creditService.list(user).size()));
+        assertStatements(1, () -> assertEquals(ROWS, debtService.getDebts(user).size()));
+        assertStatements(1, () -> assertEquals(ROWS, investmentService.listInvestments(user).size()));
+    }
+
+    @Test
+    void pagesDoNotLoadTheirRowsOneByOne() {
+        ListQueryDto query = new ListQueryDto();
+        query.setLimit(ROWS);
+        assertStatements(1, () -> accountService.page(query, user));
+        assertStatements(1, () -> budgetService.page(query, user));
+        // The user's account ids first, then the credits among them
+        assertStatements(2, () -> creditService.page(query, user));
+        assertStatements(1, () -> debtService.page(query, user));
+        assertStatements(1, () -> investmentService.page(query, user));
+    }
+
+    @Test
+    void getsAreOneOwnerScopedSelect() {
+        assertStatements(1, () -> accountService.getAccount(accountIds.getFirst(), user));
+        assertStatements(1, () -> creditService.get(creditIds.getFirst(), user));
+    }
+
+    private static void assertStatements(int expected, Runnable call) {
+        List<String> statements = SqlCapture.record(call);
+        assertEquals(expected, statements.size(), () -> String.join("\n", statements));
+    }
+}
@@ -0,0 +1,121 @@
+package com.ledger.digital.personal.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A 1ms tick and two levels of 64 buckets: level 0 holds the next 63 ticks, level 1 the next 4095, and
+// anything further waits in the overflow list. Each item is its own deadline, so an item coming due on
+// any other tick than its own shows a wrong level, bucket or cascade.
+class TimingWheelTest {
+
+    private static final int BITS = 6;
+    private static final int LEVELS = 2;
+
+    // Both sides of each level boundary, a few top-level wraps ahead, and far out in the overflow
+    private static final long[] DISTANCES = {
+            1, 2, 62, 63, 64, 65, 127, 128, 129, 4094, 4095, 4096, 4097, 4160, 8191, 8192, 8193, 20_000, 100_003
+    };
+
+    @Test
+    void everyDistanceComesDueOnItsOwnTickFromAnAlignedStart() {
+        expectEachOnItsOwnTick(0);
+        expectEachOnItsOwnTick(4096 * 3);
+    }
+
+    @Test
+    void everyDistanceComesDueOnItsOwnTickFromAnUnalignedStart() {
+        // Mid level-0 window, the last tick of a level-0 window, and the last tick before the top level wraps
+        expectEachOnItsOwnTick(37);
+        expectEachOnItsOwnTick(64 * 5 + 63);
+        expectEachOnItsOwnTick(4096 * 2 - 1);
+    }
+
+    @Test
+    void entriesAddedWhileRunningComeDueOnTheirOwnTicks() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, BITS, LEVELS, 0);
+        // Keeps the wheel from fast-forwarding over the ticks walked here
+        wheel.add(-1L, 1_000_000);
+
+        // Add at unaligned ticks on both sides of level and top-level boundaries
+        long now = 0;
+        for (long addAt : new long[]{37, 63, 64, 4000, 4095, 4096, 4159, 9000}) {
+            now = expectEachOnItsOwnTick(wheel, now, addAt - 1);
+            for (long distance : DISTANCES) {
+                wheel.add(addAt + distance, addAt + distance);
+            }
+        }
+        expectEachOnItsOwnTick(wheel, now, 9000 + DISTANCES[DISTANCES.length - 1]);
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void oneAdvanceOverManyTicksReturnsTheItemsInDeadlineOrder() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, BITS, LEVELS, 10);
+        for (long distance : new long[]{8193, 65, 4095, 1, 4096, 63, 20_000, 64}) {
+            wheel.add(10 + distance, 10 + distance);
+        }
+
+        assertEquals(List.of(11L, 73L, 74L, 75L, 4105L, 4106L, 8203L), wheel.advance(10_000));
+        assertEquals(List.of(20_010L), wheel.advance(30_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @Timeout(10)
+    void anEmptyWheelFastForwardsAndStillPlacesByDistance() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, BITS, LEVELS, 0);
+
+        // Walking 2^40 ticks one by one would not finish; an empty wheel jumps straight there
+        long now = (1L << 40) + 37;
+        assertTrue(wheel.advance(now).isEmpty());
+
+        for (long distance : DISTANCES) {
+            wheel.add(now + distance, now + distance);
+        }
+        expectEachOnItsOwnTick(wheel, now + 1, now + DISTANCES[DISTANCES.length - 1]);
+    }
+
+    @Test
+    void deadlinesAreRoundedUpToTheirTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, BITS, LEVELS, 0);
+        wheel.add("at 15ms", 15);
+        wheel.add("already passed", -500);
+
+        assertEquals(List.of("already passed"), wheel.advance(0));
+        assertTrue(wheel.advance(19).isEmpty());
+        assertEquals(List.of("at 15ms"), wheel.advance(20));
+    }
+
+    @Test
+    void rejectsWheelsThatDoNotFitALong() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, BITS, LEVELS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(1, 16, 4, 0));
+    }
+
+    // Starts a wheel at `start` with an item at every distance and walks it tick by tick
+    private static void expectEachOnItsOwnTick(long start) {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, BITS, LEVELS, start);
+        for (long distance : DISTANCES) {
+            wheel.add(start + distance, start + distance);
+        }
+        assertTrue(wheel.advance(start).isEmpty(), "nothing is due on the start tick");
+        expectEachOnItsOwnTick(wheel, start + 1, start + DISTANCES[DISTANCES.length - 1]);
+        assertEquals(0, wheel.size());
+    }
+
+    // Advances one tick at a time through [from, to]; returns the next tick to advance to
+    private static long expectEachOnItsOwnTick(TimingWheel<Long> wheel, long from, long to) {
+        for (long now = from; now <= to; now++) {
+            for (long deadline : wheel.advance(now)) {
+                assertEquals(deadline, now, "came due on tick " + now + " instead of " + deadline);
+            }
+        }
+        return to + 1;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ledger.digital.personal.service;
+
+import com.ledger.digital.personal.DatabaseTest;
+import com.ledger.digital.personal.dto.AccountDto;
+import com.ledger.digital.personal.dto.BudgetDto;
+import com.ledger.digital.personal.dto.CreditDto;
+import com.ledger.digital.personal.dto.InvestmentDto;
+import com.ledger.digital.personal.dto.RegisterDto;
+import com.ledger.digital.personal.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Write commits and latency per mutating service call. Commits are counted as transaction ids
+// handed out by PostgreSQL, which every committing write takes and read-only work does not, so
+// one per call means the whole call was one unit of work. Maintenance jobs are parked by
+// DatabaseTest, so nothing else writes meanwhile but autovacuum, whose analyses are left out.
+class UnitOfWorkBenchmarkTest extends DatabaseTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UnitOfWorkBenchmarkTest.class);
+
+    private static final int REQUESTS = 200;
+    // BCrypt makes each registration take a hash's time
+    private static final int REGISTRATIONS = 20;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyMutatingCallCommitsOnce() {
+        AuthenticatedUser user = newUser();
+        Long accountId = account(user);
+        BudgetDto budget = new BudgetDto();
+        budget.setName("Benchmark");
+        budget.setAmount(BigDecimal.valueOf(1_000_000));
+        Long budgetId = budgetService.createBudget(budget, user).getId();
+
+        List<Long> creditIds = new ArrayList<>();
+        measure("addCredit", REQUESTS, i -> {
+            CreditDto credit = new CreditDto();
+            credit.setSource("Employer");
+            credit.setAmount(BigDecimal.TEN);
+            creditIds.add(creditService.addCredit(accountId, credit, user).getId());
+        });
+        measure("deleteCredit", REQUESTS, i -> creditService.delete(creditIds.get(i), user));
+
+        measure("createInvestment", REQUESTS, i -> {
+            InvestmentDto investment = new InvestmentDto();
+            investment.setName("Fund " + i);
+            investment.setType("Stock");
+            investment.setValue(BigDecimal.ONE);
+            investment.setAccountId(accountId);
+            investment.setBudgetId(budgetId);
+            investmentService.createInvestment(investment, user);
+        });
+
+        measure("updateAccount", REQUESTS, i -> {
+            AccountDto account = new AccountDto();
+            account.setAccountName("Renamed " + i);
+            account.setType("Checking");
+            account.setBalance(BigDecimal.valueOf(i));
+            accountService.updateAccount(accountId, account, user);
+        });
+
+        List<Long> budgetIds = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            BudgetDto closing = new BudgetDto();
+            closing.setName("Closing " + i);
+            closing.setAmount(BigDecimal.ONE);
+            budgetIds.add(budgetService.createBudget(closing, user).getId());
+        }
+        measure("closeBudget", REQUESTS, i -> budgetService.closeBudget(budgetIds.get(i), user, true, accountId));
+
+        measure("rotateApiKey", REQUESTS, i -> authService.rotateApiKey(user));
+
+        measure("register", REGISTRATIONS, i -> {
+            RegisterDto register = new RegisterDto();
+            register.setFirstName("Bench");
+            register.setLastName("Mark");
+            register.setEmail("bench-" + UUID.randomUUID() + "@example.com");
+            register.setPassword("Secret123");
+            register.setConfirmPassword("Secret123");
+            authService.register(register);
+        });
+    }
+
+    // Runs the call `requests` times, logs commits per call and p50/p99 latency, and checks the commits
+    private void measure(String name, int requests, IntConsumer call) {
+        long[] nanos = new long[requests];
+        long before = nextTransactionId();
+        for (int i = 0; i < requests; i++) {
+            long started = System.nanoTime();
+            call.accept(i);
+            nanos[i] = System.nanoTime() - started;
+        }
+        long commits = nextTransactionId() - before;
+
+        Arrays.sort(nanos);
+        log.info(String.format("%-16s %4d calls  %.2f commits/call  p50 %6.2f ms  p99 %6.2f ms",
+                name, requests, (double) commits / requests,
+                nanos[requests / 2] / 1e6, nanos[(int) Math.ceil(requests * 0.99) - 1] / 1e6));
+        assertEquals(requests, commits, name + " committed " + commits + " times in " + requests + " calls");
+    }
+
+    // The id the next writing transaction will get, less the autovacuum analyses of this database so far:
+    // each takes an id, and the tables written here soon pass the autoanalyze threshold. Read while no
+    // autovacuum worker holds an id, which it may have taken before counting its analysis. Takes none.
+    private long nextTransactionId() {
+        Long mark;
+        do {
+            mark = jdbcTemplate.queryForObject("""
+                    select case when exists (select 1 from pg_stat_activity
+                                             where backend_type = 'autovacuum worker' and backend_xid is not null)
+                                then null
+                                else cast(cast(pg_snapshot_xmax(pg_current_snapshot()) as text) as bigint)
+                                     - (select coalesce(sum(autoanalyze_count), 0) from pg_stat_all_tables) end
+                    """, Long.class);
+        } while (mark == null);
+        return mark;
+    }
+
+    private Long account(AuthenticatedUser user) {
+        AccountDto account = new AccountDto();
+        account.setAccountName("Benchmark");
+        account.setType("Checking");
+        account.setBalance(BigDecimal.valueOf(1_000_000));
+        return accountService.createAccount(account, user).getId();
+    }
+}
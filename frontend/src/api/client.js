@@ -24,6 +24,7 @@ export const endpoints = {
   investments: '/investments',
   debts: '/debts',
   credits: '/credits',
+  dashboard: '/dashboard',
   users: '/users'
 };
 
@@ -67,4 +68,14 @@ export const apiCall = async (endpoint, method = 'GET', body = null, user = null
   }
 
   return response;
-};
\ No newline at end of file
+};
+
+// Keyset-paged lists (GET <endpoint>/page). Returns { items, nextCursor }; pass nextCursor back for the next page.
+export const PAGE_SIZE = 50;
+
+export const fetchPage = async (endpoint, user, type, params = {}, cursor = null) => {
+  const query = new URLSearchParams({ limit: PAGE_SIZE, ...params });
+  if (cursor) query.set('cursor', cursor);
+  const res = await apiCall(`${endpoint}/page?${query}`, 'GET', null, user, type);
+  return res.json();
+};
@@ -0,0 +1,14 @@
+import React from 'react';
+import Button from './Button.jsx';
+
+// "Load more" for keyset-paged lists; hidden once the last page is in
+const LoadMore = ({ hasMore, loading, onClick }) => {
+  if (!hasMore) return null;
+  return (
+    <Button variant="secondary" onClick={onClick} disabled={loading} className="w-full mt-4">
+      {loading ? 'Loading...' : 'Load more'}
+    </Button>
+  );
+};
+
+export default LoadMore;
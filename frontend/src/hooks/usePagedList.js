@@ -0,0 +1,37 @@
+import { useState, useEffect, useCallback } from 'react';
+import { useAuth } from '../context/AuthContext.jsx';
+import { fetchPage, MOCK_MODE } from '../api/client.js';
+
+// One list page at a time from a /page endpoint; loadMore appends the next page, reload starts over
+export const usePagedList = (endpoint, type, params = {}) => {
+  const { user } = useAuth();
+  const [items, setItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(false);
+  const paramsKey = JSON.stringify(params);
+
+  const load = useCallback(async (cursor = null) => {
+    if (MOCK_MODE || !user) return;
+    setLoading(true);
+    try {
+      const page = await fetchPage(endpoint, user, type, JSON.parse(paramsKey), cursor);
+      setItems(prev => cursor ? [...prev, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
+    } catch (e) {
+      console.error(`Failed to load ${endpoint}`, e);
+    } finally {
+      setLoading(false);
+    }
+  }, [endpoint, type, paramsKey, user]);
+
+  useEffect(() => { load(); }, [load]);
+
+  return {
+    items,
+    setItems,
+    loading,
+    hasMore: !!nextCursor,
+    loadMore: () => load(nextCursor),
+    reload: () => load()
+  };
+};
@@ -1,31 +1,22 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState } from 'react';
 import { useAuth } from '../context/AuthContext.jsx';
 import { apiCall, endpoints, MOCK_MODE } from '../api/client.js';
 import Card from '../components/Card.jsx';
 import Button from '../components/Button.jsx';
 import Modal from '../components/Modal.jsx';
 import Input from '../components/Input.jsx';
+import LoadMore from '../components/LoadMore.jsx';
+import { usePagedList } from '../hooks/usePagedList.js';
 import { Wallet, Plus, Trash2, Edit2, Eye } from 'lucide-react';
 
 const Accounts = () => {
   const { user } = useAuth();
-  const [accounts, setAccounts] = useState([]);
+  const { items: accounts, setItems: setAccounts, hasMore, loading, loadMore, reload: fetchAccounts } =
+    usePagedList(endpoints.accounts, 'ACCOUNT');
   const [createModal, setCreateModal] = useState(false);
   const [selectedAccount, setSelectedAccount] = useState(null);
   const [isDetailsOpen, setIsDetailsOpen] = useState(false);
 
-  const fetchAccounts = async () => {
-    if (MOCK_MODE) return;
-    try {
-      const res = await apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT');
-      setAccounts(await res.json());
-    } catch (err) {
-      console.error("Failed to load accounts", err);
-    }
-  };
-
-  useEffect(() => { if (user) fetchAccounts(); }, [user]);
-
   const handleCreate = async (e) => {
     e.preventDefault();
     const fd = new FormData(e.target);
@@ -130,6 +121,7 @@ const Accounts = () => {
           </div>
         ))}
       </div>
+      <LoadMore hasMore={hasMore} loading={loading} onClick={loadMore} />
 
       <Modal isOpen={createModal} onClose={() => setCreateModal(false)} title="Create New Account">
         <form onSubmit={handleCreate}>
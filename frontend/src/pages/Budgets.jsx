@@ -4,11 +4,13 @@ import { apiCall, endpoints, MOCK_MODE } from '../api/client.js';
 import Button from '../components/Button.jsx';
 import Modal from '../components/Modal.jsx';
 import Input from '../components/Input.jsx';
+import LoadMore from '../components/LoadMore.jsx';
+import { usePagedList } from '../hooks/usePagedList.js';
 import { PieChart, Plus } from 'lucide-react';
 
 const Budgets = () => {
   const { user } = useAuth();
-  const [budgets, setBudgets] = useState([]);
+  const budgets = usePagedList(endpoints.budgets, 'BUDGET');
   const [accounts, setAccounts] = useState([]);
   const [createModal, setCreateModal] = useState(false);
   const [closeModal, setCloseModal] = useState(null);
@@ -16,8 +18,6 @@ const Budgets = () => {
   useEffect(() => {
     const load = async () => {
       if (MOCK_MODE) return;
-      const bRes = await apiCall(endpoints.budgets, 'GET', null, user, 'BUDGET');
-      setBudgets(await bRes.json());
       const aRes = await apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT');
       setAccounts(await aRes.json());
     };
@@ -29,8 +29,7 @@ const Budgets = () => {
     const fd = new FormData(e.target);
     const dto = { name: fd.get('name'), amount: parseFloat(fd.get('amount')) };
     if (!MOCK_MODE) await apiCall(endpoints.budgets, 'POST', dto, user, 'BUDGET');
-    const bRes = await apiCall(endpoints.budgets, 'GET', null, user, 'BUDGET');
-    setBudgets(await bRes.json());
+    budgets.reload();
     setCreateModal(false);
   };
 
@@ -43,7 +42,7 @@ const Budgets = () => {
       if (accountId) url += `&accountId=${accountId}`;
       await apiCall(url, 'POST', null, user, 'BUDGET');
     }
-    setBudgets(budgets.filter(b => b.id !== closeModal));
+    budgets.setItems(budgets.items.filter(b => b.id !== closeModal));
     setCloseModal(null);
   };
 
@@ -55,7 +54,7 @@ const Budgets = () => {
       </div>
 
       <div className="grid grid-cols-1 lg:grid-cols-2 gap-6">
-        {budgets.map(b => (
+        {budgets.items.map(b => (
           <div key={b.id} className="bg-white dark:bg-zinc-900 p-6 rounded-2xl border border-gray-100 dark:border-zinc-800 shadow-sm">
             <div className="flex justify-between mb-4">
               <h3 className="text-xl font-bold text-gray-900 dark:text-white">{b.name}</h3>
@@ -65,6 +64,7 @@ const Budgets = () => {
           </div>
         ))}
       </div>
+      <LoadMore hasMore={budgets.hasMore} loading={budgets.loading} onClick={budgets.loadMore} />
 
       <Modal isOpen={createModal} onClose={() => setCreateModal(false)} title="New Budget">
         <form onSubmit={handleCreate}>
@@ -4,26 +4,24 @@ import { apiCall, endpoints } from '../api/client.js';
 import Button from '../components/Button.jsx';
 import Modal from '../components/Modal.jsx';
 import Input from '../components/Input.jsx';
+import LoadMore from '../components/LoadMore.jsx';
+import { usePagedList } from '../hooks/usePagedList.js';
 import { ArrowDownLeft, Plus } from 'lucide-react';
 
 const Credits = () => {
   const { user } = useAuth();
-  const [credits, setCredits] = useState([]);
+  const credits = usePagedList(endpoints.credits, 'CREDIT');
   const [accounts, setAccounts] = useState([]);
   const [isOpen, setIsOpen] = useState(false);
 
-  const fetchData = async () => {
+  const fetchAccounts = async () => {
     try {
-      const [cRes, aRes] = await Promise.all([
-        apiCall(endpoints.credits, 'GET', null, user, 'CREDIT'),
-        apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT')
-      ]);
-      setCredits(await cRes.json());
+      const aRes = await apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT');
       setAccounts(await aRes.json());
     } catch (e) { console.error(e); }
   };
 
-  useEffect(() => { if(user) fetchData(); }, [user]);
+  useEffect(() => { if(user) fetchAccounts(); }, [user]);
 
   const handleCreate = async (e) => {
     e.preventDefault();
@@ -38,7 +36,7 @@ const Credits = () => {
     
     try {
       await apiCall(`${endpoints.credits}/${accountId}`, 'POST', dto, user, 'CREDIT');
-      fetchData();
+      credits.reload();
       setIsOpen(false);
     } catch (e) { alert(e.message); }
   };
@@ -52,7 +50,7 @@ const Credits = () => {
         </Button>
       </div>
       <div className="grid gap-4">
-        {credits.map(c => (
+        {credits.items.map(c => (
           <div key={c.id} className="bg-white dark:bg-zinc-900 p-6 rounded-2xl border border-gray-100 dark:border-zinc-800 flex justify-between items-center">
             <div className="flex items-center gap-4">
               <div className="p-3 rounded-full bg-green-100 text-green-600">
@@ -67,6 +65,7 @@ const Credits = () => {
           </div>
         ))}
       </div>
+      <LoadMore hasMore={credits.hasMore} loading={credits.loading} onClick={credits.loadMore} />
       <Modal isOpen={isOpen} onClose={() => setIsOpen(false)} title="Add Credit">
         <form onSubmit={handleCreate}>
           <Input name="source" label="Source" required />
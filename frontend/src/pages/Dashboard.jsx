@@ -27,24 +27,15 @@ const Dashboard = ({ navigate }) => {
       if (!user) return;
 
       try {
-        const [accRes, budRes, invRes, debtRes] = await Promise.all([
-          apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT'),
-          apiCall(endpoints.budgets, 'GET', null, user, 'BUDGET'),
-          apiCall(endpoints.investments, 'GET', null, user, 'INVESTMENT'),
-          apiCall(endpoints.debts, 'GET', null, user, 'DEBT')
-        ]);
-
-        const accounts = await accRes.json();
-        const budgets = await budRes.json();
-        const investments = await invRes.json();
-        const debts = await debtRes.json();
-
-        const totalBalance = Array.isArray(accounts) ? accounts.reduce((sum, acc) => sum + (acc.balance || 0), 0) : 0;
-        const totalBudget = Array.isArray(budgets) ? budgets.reduce((sum, b) => sum + (b.amount || 0), 0) : 0;
-        const totalInvestments = Array.isArray(investments) ? investments.reduce((sum, i) => sum + (i.value || 0), 0) : 0;
-        
-        const totalDebt = Array.isArray(debts) ? debts.filter(d => d.given === false).reduce((sum, d) => sum + (d.amount || 0), 0) : 0;
-        const totalLent = Array.isArray(debts) ? debts.filter(d => d.given === true).reduce((sum, d) => sum + (d.amount || 0), 0) : 0;
+        // One aggregated call instead of four full lists
+        const res = await apiCall(endpoints.dashboard, 'GET', null, user, 'DASHBOARD');
+        const summary = await res.json();
+
+        const totalBalance = summary.totalBalance || 0;
+        const totalBudget = summary.budgetRemaining || 0;
+        const totalInvestments = summary.investedTotal || 0;
+        const totalDebt = summary.owedTotal || 0;
+        const totalLent = summary.lentTotal || 0;
 
         setStats({
           balance: totalBalance,
@@ -55,11 +46,7 @@ const Dashboard = ({ navigate }) => {
         });
 
         // --- Prepare Chart Data ---
-        const allocationMap = {};
-        accounts.forEach(acc => {
-            const type = acc.type || 'Other';
-            allocationMap[type] = (allocationMap[type] || 0) + acc.balance;
-        });
+        const allocationMap = { ...(summary.balanceByAccountType || {}) };
         if (totalInvestments > 0) {
             allocationMap['Investments'] = totalInvestments;
         }
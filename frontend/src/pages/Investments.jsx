@@ -5,11 +5,14 @@ import Card from '../components/Card.jsx';
 import Button from '../components/Button.jsx';
 import Modal from '../components/Modal.jsx';
 import Input from '../components/Input.jsx';
+import LoadMore from '../components/LoadMore.jsx';
+import { usePagedList } from '../hooks/usePagedList.js';
 import { TrendingUp, Plus, Trash2, Edit2 } from 'lucide-react';
 
 const Investments = () => {
   const { user } = useAuth();
-  const [investments, setInvestments] = useState([]);
+  const { items: investments, hasMore, loading, loadMore, reload: reloadInvestments } =
+    usePagedList(endpoints.investments, 'INVESTMENT');
   const [accounts, setAccounts] = useState([]);
   const [budgets, setBudgets] = useState([]);
   
@@ -19,21 +22,25 @@ const Investments = () => {
   const [isCloseOpen, setIsCloseOpen] = useState(false);
   const [selectedInv, setSelectedInv] = useState(null);
 
-  const loadData = async () => {
+  // Accounts and budgets feed the selects, so they are loaded whole
+  const loadSources = async () => {
     try {
-      const [iRes, aRes, bRes] = await Promise.all([
-        apiCall(endpoints.investments, 'GET', null, user, 'INVESTMENT'),
+      const [aRes, bRes] = await Promise.all([
         apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT'),
         apiCall(endpoints.budgets, 'GET', null, user, 'BUDGET')
       ]);
       
-      setInvestments(await iRes.json());
       setAccounts(await aRes.json());
       setBudgets(await bRes.json());
     } catch(e) { console.error("Error loading investment data", e); }
   };
 
-  useEffect(() => { if(user) loadData(); }, [user]);
+  useEffect(() => { if(user) loadSources(); }, [user]);
+
+  const loadData = () => {
+    reloadInvestments();
+    loadSources();
+  };
 
   // --- CREATE ---
   const handleCreate = async (e) => {
@@ -133,6 +140,7 @@ const Investments = () => {
           </div>
         ))}
       </div>
+      <LoadMore hasMore={hasMore} loading={loading} onClick={loadMore} />
       
       {/* CREATE MODAL */}
       <Modal isOpen={isCreateOpen} onClose={() => setIsCreateOpen(false)} title="New Investment">
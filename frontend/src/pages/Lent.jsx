@@ -4,11 +4,15 @@ import { apiCall, endpoints, MOCK_MODE } from '../api/client.js';
 import Button from '../components/Button.jsx';
 import Modal from '../components/Modal.jsx';
 import Input from '../components/Input.jsx';
+import LoadMore from '../components/LoadMore.jsx';
+import { usePagedList } from '../hooks/usePagedList.js';
 import { Plus, ArrowUpRight, Trash2, RotateCcw, TrendingUp } from 'lucide-react';
 
 const Lent = () => {
   const { user } = useAuth();
-  const [debts, setDebts] = useState([]);
+  // FILTER: Only what I Lent, filtered by the server (type=lent)
+  const { items: debts, hasMore, loading, loadMore, reload: reloadDebts } =
+    usePagedList(endpoints.debts, 'DEBT', { type: 'lent' });
   const [accounts, setAccounts] = useState([]);
   
   const [isCreateOpen, setIsCreateOpen] = useState(false);
@@ -18,21 +22,20 @@ const Lent = () => {
   const [repayType, setRepayType] = useState('partial');
   const [linkAccount, setLinkAccount] = useState(false);
 
-  const loadData = async () => {
+  const loadAccounts = async () => {
     if (MOCK_MODE) return;
     try {
-        const [dRes, aRes] = await Promise.all([
-            apiCall(endpoints.debts, 'GET', null, user, 'DEBT'),
-            apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT')
-        ]);
-        const allDebts = await dRes.json();
-        // FILTER: Show only what I Lent (given = true)
-        setDebts(allDebts.filter(d => d.given === true));
+        const aRes = await apiCall(endpoints.accounts, 'GET', null, user, 'ACCOUNT');
         setAccounts(await aRes.json());
     } catch (e) { console.error(e); }
   };
 
-  useEffect(() => { if(user) loadData(); }, [user]);
+  useEffect(() => { if(user) loadAccounts(); }, [user]);
+
+  const loadData = () => {
+    reloadDebts();
+    loadAccounts();
+  };
 
   const handleCreate = async (e) => {
     e.preventDefault();
@@ -119,6 +122,7 @@ const Lent = () => {
           </div>
         ))}
       </div>
+      <LoadMore hasMore={hasMore} loading={loading} onClick={loadMore} />
 
       <Modal isOpen={isCreateOpen} onClose={() => setIsCreateOpen(false)} title="Lend Money">
         <form onSubmit={handleCreate}>